@@ -0,0 +1,64 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.annotation.RemoteService;
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.context.ServerContext;
+import com.bestv.remote.interfaces.RestHandler;
+import com.bestv.remote.interfaces.impl.creators.JdkProxyCreators;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * 基准测试使用的代理创建器
+ * <p>
+ * baseUrl 指向桩服务，可替换调用处理器，并公开各个阶段供基准测试单独调用
+ *
+ * @author taojiacheng
+ */
+public class BenchmarkProxyCreators extends JdkProxyCreators {
+
+    private final String baseUrl;
+
+    private final RestHandler restHandler;
+
+    /**
+     * @param baseUrl     桩服务地址
+     * @param restHandler 调用处理器, 为 null 时使用默认的 RestTemplateHandler
+     */
+    public BenchmarkProxyCreators(String baseUrl, RestHandler restHandler) {
+        this.baseUrl = baseUrl;
+        this.restHandler = restHandler;
+    }
+
+    @Override
+    protected void extractBaseUrl(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setBaseUrl(baseUrl);
+    }
+
+    @Override
+    public RestHandler createRestHandler(ServerContext serverContext) {
+        return restHandler != null ? restHandler : super.createRestHandler(serverContext);
+    }
+
+    @Override
+    public ServerContext generateServerContext(Class<?> type) {
+        return super.generateServerContext(type);
+    }
+
+    @Override
+    public MethodContext generateMethodContext(Class<?> type, Method method) {
+        return super.generateMethodContext(type, method);
+    }
+
+    @Override
+    public ParamContext generateParamContext(Method method, Object[] args) {
+        return super.generateParamContext(method, args);
+    }
+
+    @Override
+    public String extractParamsDigest(Map<String, Object> cacheKey) {
+        return super.extractParamsDigest(cacheKey);
+    }
+}
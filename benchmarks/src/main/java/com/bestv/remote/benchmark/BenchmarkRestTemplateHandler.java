@@ -0,0 +1,18 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.interfaces.impl.restHandler.RestTemplateHandler;
+
+/**
+ * 公开 url 组装阶段供基准测试调用
+ *
+ * @author taojiacheng
+ */
+public class BenchmarkRestTemplateHandler extends RestTemplateHandler {
+
+    @Override
+    public String buildFinalUrl(MethodContext methodContext, ParamContext paramContext) {
+        return super.buildFinalUrl(methodContext, paramContext);
+    }
+}
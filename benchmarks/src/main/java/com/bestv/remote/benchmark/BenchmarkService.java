@@ -0,0 +1,26 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.annotation.RemoteParam;
+import com.bestv.remote.annotation.RemoteService;
+import com.bestv.remote.enums.ParamType;
+import org.springframework.http.HttpMethod;
+
+/**
+ * 基准测试使用的远程接口
+ * <p>
+ * baseUrl 由 {@link BenchmarkProxyCreators} 指向进程内桩服务; 关闭 trace_log 和内容日志采样，只测量调用链路
+ *
+ * @author taojiacheng
+ */
+@RemoteService(baseUrl = "http://127.0.0.1", connectTimeout = "1000", socketTimeout = "2000",
+        maxIdleConnections = 64, traceLogSampleRate = "0", payloadLogSampleRate = "0")
+public interface BenchmarkService {
+
+    @RemoteFunction(value = "/user/{userId}", method = HttpMethod.GET)
+    StubResponse query(@RemoteParam(name = "userId", type = ParamType.PATH) String userId,
+                       @RemoteParam(name = "request", type = ParamType.URL_PARAM) SmallRequest request);
+
+    @RemoteFunction(value = "/user/save", method = HttpMethod.POST)
+    StubResponse save(@RemoteParam(name = "request", type = ParamType.JSON_BODY) LargeRequest request);
+}
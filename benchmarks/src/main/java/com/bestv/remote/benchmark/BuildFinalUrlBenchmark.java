@@ -0,0 +1,45 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.context.ServerContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * url 组装 (路径参数替换 + 查询参数编码)
+ *
+ * @author taojiacheng
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildFinalUrlBenchmark {
+
+    private BenchmarkRestTemplateHandler handler;
+
+    private MethodContext methodContext;
+
+    private ParamContext paramContext;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        BenchmarkProxyCreators creators = new BenchmarkProxyCreators("http://127.0.0.1:8080/api", null);
+        ServerContext serverContext = creators.generateServerContext(BenchmarkService.class);
+        handler = new BenchmarkRestTemplateHandler();
+        handler.init(serverContext);
+        Method method = BenchmarkService.class.getMethod("query", String.class, SmallRequest.class);
+        methodContext = creators.generateMethodContext(BenchmarkService.class, method);
+        paramContext = creators.generateParamContext(method, new Object[]{"u-10000001", SmallRequest.sample()});
+    }
+
+    @Benchmark
+    public String buildFinalUrl() {
+        return handler.buildFinalUrl(methodContext, paramContext);
+    }
+}
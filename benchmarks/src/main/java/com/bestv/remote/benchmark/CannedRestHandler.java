@@ -0,0 +1,29 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.context.ServerContext;
+import com.bestv.remote.interfaces.RestHandler;
+
+/**
+ * 直接返回固定结果的调用处理器，用于单独测量代理分发的开销
+ *
+ * @author taojiacheng
+ */
+public class CannedRestHandler implements RestHandler {
+
+    private final Object result;
+
+    public CannedRestHandler(Object result) {
+        this.result = result;
+    }
+
+    @Override
+    public void init(ServerContext serverContext) {
+    }
+
+    @Override
+    public Object invokeRest(MethodContext methodContext, ParamContext paramContext) {
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.context.ServerContext;
+import com.bestv.remote.interfaces.RestHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端调用进程内桩服务
+ * <p>
+ * invokeRest 测量序列化、http 往返与反序列化; proxy 再加上代理分发的全部链路
+ * 多线程测量使用 jmh 的 -t 参数
+ *
+ * @author taojiacheng
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvokeRestBenchmark {
+
+    private StubBackend backend;
+
+    private RestHandler restHandler;
+
+    private BenchmarkService service;
+
+    private Object[] queryArgs;
+
+    private Object[] saveArgs;
+
+    private Method queryMethod;
+
+    private Method saveMethod;
+
+    private BenchmarkProxyCreators creators;
+
+    @Setup
+    public void setup() throws IOException, NoSuchMethodException {
+        backend = StubBackend.start(StubResponse.JSON);
+        creators = new BenchmarkProxyCreators(backend.getBaseUrl(), null);
+        ServerContext serverContext = creators.generateServerContext(BenchmarkService.class);
+        restHandler = creators.createRestHandler(serverContext);
+        service = (BenchmarkService) creators.createProxy(BenchmarkService.class);
+
+        queryMethod = BenchmarkService.class.getMethod("query", String.class, SmallRequest.class);
+        saveMethod = BenchmarkService.class.getMethod("save", LargeRequest.class);
+        queryArgs = new Object[]{"u-10000001", SmallRequest.sample()};
+        saveArgs = new Object[]{LargeRequest.sample()};
+    }
+
+    @TearDown
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public Object invokeRestQuery(MethodContexts contexts) {
+        ParamContext paramContext = creators.generateParamContext(queryMethod, queryArgs);
+        return restHandler.invokeRest(contexts.query, paramContext);
+    }
+
+    @Benchmark
+    public Object invokeRestSave(MethodContexts contexts) {
+        ParamContext paramContext = creators.generateParamContext(saveMethod, saveArgs);
+        return restHandler.invokeRest(contexts.save, paramContext);
+    }
+
+    @Benchmark
+    public StubResponse proxyQuery() {
+        return service.query("u-10000001", (SmallRequest) queryArgs[1]);
+    }
+
+    @Benchmark
+    public StubResponse proxySave() {
+        return service.save((LargeRequest) saveArgs[0]);
+    }
+
+    /**
+     * methodContext 在调用中会写入 finalUrl, 每个线程各持有一份
+     */
+    @State(Scope.Thread)
+    public static class MethodContexts {
+
+        private MethodContext query;
+
+        private MethodContext save;
+
+        @Setup
+        public void setup(InvokeRestBenchmark benchmark) {
+            query = benchmark.creators.generateMethodContext(BenchmarkService.class, benchmark.queryMethod);
+            save = benchmark.creators.generateMethodContext(BenchmarkService.class, benchmark.saveMethod);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bestv.remote.benchmark;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 大请求参数, 字段较多且包含集合
+ *
+ * @author taojiacheng
+ */
+@Data
+public class LargeRequest {
+
+    private String userId;
+    private String userName;
+    private String nickName;
+    private String mobile;
+    private String email;
+    private String province;
+    private String city;
+    private String district;
+    private String address;
+    private String channel;
+    private String platform;
+    private String deviceId;
+    private String deviceModel;
+    private String osVersion;
+    private String appVersion;
+    private String networkType;
+    private String ip;
+    private String userAgent;
+    private String referer;
+    private String sessionId;
+    private Integer age;
+    private Integer level;
+    private Integer pageNo;
+    private Integer pageSize;
+    private Long registerTime;
+    private Long lastLoginTime;
+    private Boolean vip;
+    private Boolean enabled;
+    private List<String> tags;
+    private Map<String, Object> extras;
+
+    public static LargeRequest sample() {
+        LargeRequest request = new LargeRequest();
+        request.setUserId("u-10000001");
+        request.setUserName("benchmark");
+        request.setNickName("benchmark-nick");
+        request.setMobile("13800000000");
+        request.setEmail("benchmark@bestv.com.cn");
+        request.setProvince("sh");
+        request.setCity("shanghai");
+        request.setDistrict("xuhui");
+        request.setAddress("No.1 benchmark road");
+        request.setChannel("iptv");
+        request.setPlatform("android");
+        request.setDeviceId("0123456789abcdef");
+        request.setDeviceModel("box-x1");
+        request.setOsVersion("9.0");
+        request.setAppVersion("5.2.1");
+        request.setNetworkType("wifi");
+        request.setIp("10.0.0.1");
+        request.setUserAgent("remote-service-benchmark");
+        request.setReferer("http://bestv.com.cn");
+        request.setSessionId("s-0000000000000001");
+        request.setAge(30);
+        request.setLevel(3);
+        request.setPageNo(1);
+        request.setPageSize(20);
+        request.setRegisterTime(1660000000000L);
+        request.setLastLoginTime(1665000000000L);
+        request.setVip(true);
+        request.setEnabled(true);
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tags.add("tag-" + i);
+        }
+        request.setTags(tags);
+        Map<String, Object> extras = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            extras.put("key-" + i, "value-" + i);
+        }
+        request.setExtras(extras);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.context.ParamContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参数解析与缓存摘要
+ * <p>
+ * generateParamContext 对小、大两种参数对象的开销，以及 extractParamsDigest 的序列化与摘要开销
+ *
+ * @author taojiacheng
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParamContextBenchmark {
+
+    private BenchmarkProxyCreators creators;
+
+    private Method queryMethod;
+
+    private Method saveMethod;
+
+    private Object[] smallArgs;
+
+    private Object[] largeArgs;
+
+    private Map<String, Object> smallParams;
+
+    private Map<String, Object> largeParams;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        creators = new BenchmarkProxyCreators("http://127.0.0.1", null);
+        queryMethod = BenchmarkService.class.getMethod("query", String.class, SmallRequest.class);
+        saveMethod = BenchmarkService.class.getMethod("save", LargeRequest.class);
+        smallArgs = new Object[]{"u-10000001", SmallRequest.sample()};
+        largeArgs = new Object[]{LargeRequest.sample()};
+        smallParams = creators.generateParamContext(queryMethod, smallArgs).getRequestParams();
+        largeParams = creators.generateParamContext(saveMethod, largeArgs).getRequestBody();
+    }
+
+    @Benchmark
+    public ParamContext generateParamContextSmall() {
+        return creators.generateParamContext(queryMethod, smallArgs);
+    }
+
+    @Benchmark
+    public ParamContext generateParamContextLarge() {
+        return creators.generateParamContext(saveMethod, largeArgs);
+    }
+
+    @Benchmark
+    public String extractParamsDigestSmall() {
+        return creators.extractParamsDigest(smallParams);
+    }
+
+    @Benchmark
+    public String extractParamsDigestLarge() {
+        return creators.extractParamsDigest(largeParams);
+    }
+}
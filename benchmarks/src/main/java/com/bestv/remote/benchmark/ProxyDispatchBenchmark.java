@@ -0,0 +1,75 @@
+package com.bestv.remote.benchmark;
+
+import com.bestv.remote.interfaces.impl.creators.AsmProxyCreators;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理分发开销
+ * <p>
+ * 调用处理器直接返回固定结果，测量 JdkProxyCreators 从方法解析到返回的全部本地开销;
+ * generated 为编译期生成的实现类，asm 为 AsmProxyCreators 运行时生成的实现类
+ *
+ * @author taojiacheng
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyDispatchBenchmark {
+
+    private BenchmarkService service;
+
+    private BenchmarkService generated;
+
+    private BenchmarkService asm;
+
+    private SmallRequest smallRequest;
+
+    private LargeRequest largeRequest;
+
+    @Setup
+    public void setup() {
+        StubResponse response = new StubResponse();
+        response.setCode("0");
+        BenchmarkProxyCreators creators = new BenchmarkProxyCreators("http://127.0.0.1", new CannedRestHandler(response));
+        service = (BenchmarkService) creators.createProxy(BenchmarkService.class);
+        generated = new BenchmarkService_RemoteClient(creators);
+        asm = (BenchmarkService) AsmProxyCreators.createClient(creators, BenchmarkService.class);
+        smallRequest = SmallRequest.sample();
+        largeRequest = LargeRequest.sample();
+    }
+
+    @Benchmark
+    public StubResponse dispatchSmall() {
+        return service.query("u-10000001", smallRequest);
+    }
+
+    @Benchmark
+    public StubResponse dispatchLarge() {
+        return service.save(largeRequest);
+    }
+
+    @Benchmark
+    public StubResponse generatedSmall() {
+        return generated.query("u-10000001", smallRequest);
+    }
+
+    @Benchmark
+    public StubResponse generatedLarge() {
+        return generated.save(largeRequest);
+    }
+
+    @Benchmark
+    public StubResponse asmSmall() {
+        return asm.query("u-10000001", smallRequest);
+    }
+
+    @Benchmark
+    public StubResponse asmLarge() {
+        return asm.save(largeRequest);
+    }
+}
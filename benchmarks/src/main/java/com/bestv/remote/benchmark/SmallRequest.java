@@ -0,0 +1,26 @@
+package com.bestv.remote.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 小请求参数
+ *
+ * @author taojiacheng
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmallRequest {
+
+    private String province;
+
+    private String channel;
+
+    private Integer pageSize;
+
+    public static SmallRequest sample() {
+        return new SmallRequest("sh", "iptv", 20);
+    }
+}
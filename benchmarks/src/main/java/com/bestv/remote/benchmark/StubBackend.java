@@ -0,0 +1,133 @@
+package com.bestv.remote.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的 http 桩服务
+ * <p>
+ * 任意路径均返回 json 响应; 延迟通过定时任务回写响应，不占用处理线程，桩服务本身不会成为瓶颈
+ *
+ * @author taojiacheng
+ */
+public class StubBackend implements AutoCloseable {
+
+    private static final byte[] ERROR_BODY = "{\"code\":\"500\",\"message\":\"stub error\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final StubProfile profile;
+
+    private final byte[] responseBody;
+
+    private StubBackend(HttpServer server, StubProfile profile, byte[] responseBody) {
+        this.server = server;
+        this.profile = profile;
+        this.responseBody = responseBody;
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(processors, daemonThreadFactory("stub-backend"));
+        this.scheduler = Executors.newScheduledThreadPool(processors, daemonThreadFactory("stub-backend-delay"));
+    }
+
+    /**
+     * 在随机端口启动无延迟的桩服务
+     *
+     * @param responseBody 固定响应体
+     */
+    public static StubBackend start(String responseBody) throws IOException {
+        return start(StubProfile.builder().build(), responseBody);
+    }
+
+    /**
+     * 在随机端口启动桩服务
+     *
+     * @param profile 响应特征
+     */
+    public static StubBackend start(StubProfile profile) throws IOException {
+        return start(profile, StubResponse.JSON);
+    }
+
+    private static StubBackend start(StubProfile profile, String defaultBody) throws IOException {
+        // 响应头和响应体分两次写出, 不关闭 Nagle 时会与客户端的延迟确认叠加出约 40ms 的等待
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        String body = profile.getPayloadBytes() > 0 ? payloadBody(profile.getPayloadBytes()) : defaultBody;
+        StubBackend backend = new StubBackend(server, profile, body.getBytes(StandardCharsets.UTF_8));
+        server.createContext("/", backend::handle);
+        server.setExecutor(backend.executor);
+        server.start();
+        return backend;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            while (in.read(buffer) != -1) {
+                // 读完请求体，保证连接可以复用
+            }
+        }
+        long delayMicros = profile.getLatency().nextMicros();
+        if (delayMicros <= 0) {
+            respond(exchange);
+        } else {
+            scheduler.schedule(() -> respond(exchange), delayMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void respond(HttpExchange exchange) {
+        boolean error = profile.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.getErrorRate();
+        byte[] body = error ? ERROR_BODY : responseBody;
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(error ? 500 : 200, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // 客户端超时断开
+            exchange.close();
+        }
+    }
+
+    private static String payloadBody(int payloadBytes) {
+        char[] payload = new char[payloadBytes];
+        Arrays.fill(payload, 'x');
+        return "{\"code\":\"0\",\"message\":\"ok\",\"data\":{\"payload\":\"" + new String(payload) + "\"}}";
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
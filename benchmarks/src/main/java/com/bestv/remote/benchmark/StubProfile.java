@@ -0,0 +1,95 @@
+package com.bestv.remote.benchmark;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 桩服务的响应特征: 延迟分布、错误率和响应体大小
+ *
+ * @author taojiacheng
+ */
+@Getter
+@Builder
+public class StubProfile {
+
+    /**
+     * 响应延迟分布, 默认无延迟
+     */
+    @Builder.Default
+    private final LatencyDistribution latency = LatencyDistribution.NONE;
+
+    /**
+     * 返回 500 的比例 [0, 1]
+     */
+    private final double errorRate;
+
+    /**
+     * 响应体中填充数据的字节数, 0 表示使用固定响应体
+     */
+    private final int payloadBytes;
+
+    /**
+     * 响应延迟分布
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        LatencyDistribution NONE = () -> 0;
+
+        /**
+         * @return 下一次响应的延迟 (微秒)
+         */
+        long nextMicros();
+
+        /**
+         * 解析延迟分布, 单位毫秒
+         * <ul>
+         *     <li>fixed:20 固定 20ms</li>
+         *     <li>uniform:10-50 10ms ~ 50ms 均匀分布</li>
+         *     <li>exp:20 均值 20ms 的指数分布</li>
+         *     <li>lognormal:20,0.5 中位数 20ms、sigma 0.5 的对数正态分布 (长尾)</li>
+         * </ul>
+         */
+        static LatencyDistribution parse(String spec) {
+            if (spec == null || spec.isEmpty() || "none".equals(spec)) {
+                return NONE;
+            }
+            int index = spec.indexOf(':');
+            if (index < 0) {
+                throw new IllegalArgumentException("illegal latency distribution: " + spec);
+            }
+            String type = spec.substring(0, index);
+            String args = spec.substring(index + 1);
+            switch (type) {
+                case "fixed": {
+                    long micros = toMicros(Double.parseDouble(args));
+                    return () -> micros;
+                }
+                case "uniform": {
+                    String[] range = args.split("-");
+                    long min = toMicros(Double.parseDouble(range[0]));
+                    long max = toMicros(Double.parseDouble(range[1]));
+                    return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+                }
+                case "exp": {
+                    double mean = toMicros(Double.parseDouble(args));
+                    return () -> (long) (-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+                }
+                case "lognormal": {
+                    String[] params = args.split(",");
+                    double mu = Math.log(toMicros(Double.parseDouble(params[0])));
+                    double sigma = Double.parseDouble(params[1]);
+                    return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+                }
+                default:
+                    throw new IllegalArgumentException("illegal latency distribution: " + spec);
+            }
+        }
+
+        static long toMicros(double millis) {
+            return (long) (millis * 1000);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bestv.remote.benchmark;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 桩服务响应
+ *
+ * @author taojiacheng
+ */
+@Data
+public class StubResponse {
+
+    public static final String JSON = "{\"code\":\"0\",\"message\":\"ok\",\"data\":{\"userId\":\"u-10000001\","
+            + "\"userName\":\"benchmark\",\"province\":\"sh\",\"level\":3,\"vip\":true}}";
+
+    private String code;
+
+    private String message;
+
+    private Map<String, Object> data;
+}
@@ -0,0 +1,180 @@
+package com.bestv.remote.loadtest;
+
+import com.bestv.remote.benchmark.StubBackend;
+import com.bestv.remote.benchmark.StubProfile;
+import com.bestv.remote.metrics.HistogramSnapshot;
+import com.bestv.remote.metrics.MethodMetricsSnapshot;
+import com.bestv.remote.metrics.MetricsRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 端到端压测工具, 无需外部依赖
+ * <p>
+ * 启动进程内桩服务, 通过真实的 Spring 注册流程和代理调用 {@link LoadTestService}, 以固定到达速率施压,
+ * 每秒输出吞吐、延迟分位、线程数与 gc 压力, 结束时输出汇总
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.bestv.remote.loadtest.LoadTest \
+ *     --rate=2000 --duration=30 --latency=lognormal:20,0.8 --error-rate=0.05 --method=retry
+ * </pre>
+ *
+ * @author taojiacheng
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("load test options: " + options);
+
+        StubProfile profile = StubProfile.builder()
+                .latency(StubProfile.LatencyDistribution.parse(options.getLatency()))
+                .errorRate(options.getErrorRate())
+                .payloadBytes(options.getPayloadBytes())
+                .build();
+        try (StubBackend backend = StubBackend.start(profile);
+             AnnotationConfigApplicationContext applicationContext = createApplicationContext(options, backend)) {
+            LoadTestService service = applicationContext.getBean(LoadTestService.class);
+            Function<String, Object> function = "retry".equals(options.getMethod()) ? service::queryWithRetry : service::query;
+            AtomicInteger sequence = new AtomicInteger();
+            OpenLoadGenerator generator = new OpenLoadGenerator(() -> function.apply(String.valueOf(sequence.incrementAndGet())),
+                    options.getThreads(), options.getMaxQueue());
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "load-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            AtomicReference<OpenLoadGenerator.Snapshot> lastSnapshot = new AtomicReference<>(generator.snapshot());
+            AtomicReference<RuntimeStats> lastStats = new AtomicReference<>(RuntimeStats.capture());
+            AtomicInteger second = new AtomicInteger();
+            printHeader();
+            reporter.scheduleAtFixedRate(() -> {
+                OpenLoadGenerator.Snapshot snapshot = generator.snapshot();
+                RuntimeStats stats = RuntimeStats.capture();
+                printInterval(second.incrementAndGet(), 1, snapshot.minus(lastSnapshot.getAndSet(snapshot)),
+                        stats, lastStats.getAndSet(stats));
+            }, 1, 1, TimeUnit.SECONDS);
+
+            // 预热
+            generator.run(options.getRate(), options.getWarmup(), TimeUnit.SECONDS);
+            OpenLoadGenerator.Snapshot baseline = generator.snapshot();
+            RuntimeStats baselineStats = RuntimeStats.capture();
+            Map<String, MethodMetricsSnapshot> baselineMetrics = methodMetrics();
+            long start = System.nanoTime();
+            generator.run(options.getRate(), options.getDuration(), TimeUnit.SECONDS);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            OpenLoadGenerator.Snapshot result = generator.snapshot().minus(baseline);
+            RuntimeStats resultStats = RuntimeStats.capture();
+            reporter.shutdown();
+            reporter.awaitTermination(1, TimeUnit.SECONDS);
+
+            printSummary(options, elapsedSeconds, result, resultStats, baselineStats, baselineMetrics);
+            if (!generator.awaitCompletion(30, TimeUnit.SECONDS)) {
+                System.out.println("in-flight requests did not finish within 30s");
+            }
+        }
+    }
+
+    private static AnnotationConfigApplicationContext createApplicationContext(LoadTestOptions options, StubBackend backend) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("loadtest.base-url", backend.getBaseUrl());
+        properties.put("loadtest.connect-timeout", options.getConnectTimeout());
+        properties.put("loadtest.socket-timeout", options.getSocketTimeout());
+        properties.put("loadtest.trace-log-sample-rate", options.getTraceLogSampleRate());
+        AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("loadtest", properties));
+        applicationContext.register(LoadTestConfiguration.class);
+        applicationContext.refresh();
+        return applicationContext;
+    }
+
+    private static Map<String, MethodMetricsSnapshot> methodMetrics() {
+        Map<String, MethodMetricsSnapshot> metrics = new HashMap<>();
+        for (MethodMetricsSnapshot snapshot : MetricsRegistry.getInstance().snapshot()) {
+            metrics.put(snapshot.getMethodKey(), snapshot);
+        }
+        return metrics;
+    }
+
+    private static void printHeader() {
+        System.out.printf("%6s %9s %9s %7s %7s %6s %9s %9s %9s %9s %7s %6s %7s %10s%n",
+                "sec", "sent/s", "done/s", "err/s", "drop/s", "queue", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)",
+                "threads", "gc", "gc(ms)", "alloc/s");
+    }
+
+    private static void printInterval(int second, double seconds, OpenLoadGenerator.Snapshot interval,
+                                      RuntimeStats stats, RuntimeStats previousStats) {
+        System.out.printf("%6d %9.0f %9.0f %7.0f %7.0f %6d %9.2f %9.2f %9.2f %9.2f %7d %6d %7d %10s%n",
+                second, interval.scheduled / seconds, interval.completed / seconds, interval.errors / seconds,
+                interval.dropped / seconds, interval.queued,
+                interval.responseTime.percentileMillis(50), interval.responseTime.percentileMillis(99),
+                interval.responseTime.percentileMillis(99.9), interval.responseTime.maxMillis(),
+                stats.getThreadCount(), stats.getGcCount() - previousStats.getGcCount(),
+                stats.getGcTimeMillis() - previousStats.getGcTimeMillis(),
+                bytes((stats.getAllocatedBytes() - previousStats.getAllocatedBytes()) / seconds));
+    }
+
+    private static void printSummary(LoadTestOptions options, double elapsedSeconds, OpenLoadGenerator.Snapshot result,
+                                     RuntimeStats stats, RuntimeStats baselineStats,
+                                     Map<String, MethodMetricsSnapshot> baselineMetrics) {
+        System.out.println();
+        System.out.println("==================== summary ====================");
+        System.out.printf("target rate        : %d/s%n", options.getRate());
+        System.out.printf("scheduled          : %d (%.0f/s)%n", result.scheduled, result.scheduled / elapsedSeconds);
+        System.out.printf("completed          : %d (%.0f/s)%n", result.completed, result.completed / elapsedSeconds);
+        System.out.printf("errors             : %d (%.2f%%)%n", result.errors,
+                result.completed == 0 ? 0 : result.errors * 100.0 / result.completed);
+        System.out.printf("dropped            : %d%n", result.dropped);
+        printLatency("response time (ms) ", result.responseTime);
+        printLatency("service time (ms)  ", result.serviceTime);
+        System.out.printf("threads            : %d (peak %d)%n", stats.getThreadCount(), stats.getPeakThreadCount());
+        System.out.printf("gc                 : %d collections, %d ms%n", stats.getGcCount() - baselineStats.getGcCount(),
+                stats.getGcTimeMillis() - baselineStats.getGcTimeMillis());
+        System.out.printf("allocation         : %s/s%n",
+                bytes((stats.getAllocatedBytes() - baselineStats.getAllocatedBytes()) / elapsedSeconds));
+        System.out.printf("heap used          : %s%n", bytes(stats.getHeapUsedBytes()));
+        for (MethodMetricsSnapshot snapshot : MetricsRegistry.getInstance().snapshot()) {
+            MethodMetricsSnapshot before = baselineMetrics.get(snapshot.getMethodKey());
+            long calls = snapshot.getCalls() - (before == null ? 0 : before.getCalls());
+            long rejections = snapshot.getRejections() - (before == null ? 0 : before.getRejections());
+            if (calls == 0 && rejections == 0) {
+                continue;
+            }
+            System.out.printf("%-19s: calls=%d rejections=%d failures=%d retries=%d fallbacks=%d blocks=%d 5xx=%d%n",
+                    snapshot.getMethodKey(), calls, rejections,
+                    snapshot.getFailures() - (before == null ? 0 : before.getFailures()),
+                    snapshot.getRetries() - (before == null ? 0 : before.getRetries()),
+                    snapshot.getFallbacks() - (before == null ? 0 : before.getFallbacks()),
+                    snapshot.getBlocks() - (before == null ? 0 : before.getBlocks()),
+                    snapshot.getHttp5xx() - (before == null ? 0 : before.getHttp5xx()));
+        }
+    }
+
+    private static void printLatency(String title, HistogramSnapshot histogram) {
+        System.out.printf("%s: mean=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n", title,
+                histogram.meanMillis(), histogram.percentileMillis(50), histogram.percentileMillis(90),
+                histogram.percentileMillis(99), histogram.percentileMillis(99.9), histogram.maxMillis());
+    }
+
+    private static String bytes(double bytes) {
+        if (bytes < 0) {
+            return "n/a";
+        }
+        if (bytes >= 1 << 30) {
+            return String.format("%.2fGB", bytes / (1 << 30));
+        }
+        if (bytes >= 1 << 20) {
+            return String.format("%.2fMB", bytes / (1 << 20));
+        }
+        return String.format("%.2fKB", bytes / 1024);
+    }
+}
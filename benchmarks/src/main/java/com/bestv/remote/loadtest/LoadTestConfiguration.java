@@ -0,0 +1,14 @@
+package com.bestv.remote.loadtest;
+
+import com.bestv.remote.annotation.EnableRemoteService;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 通过真实的注册流程扫描 {@link LoadTestService}
+ *
+ * @author taojiacheng
+ */
+@Configuration
+@EnableRemoteService
+public class LoadTestConfiguration {
+}
@@ -0,0 +1,95 @@
+package com.bestv.remote.loadtest;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测参数, 命令行格式 --key=value
+ *
+ * @author taojiacheng
+ */
+@Getter
+@ToString
+public class LoadTestOptions {
+
+    /**
+     * 每秒发起的请求数
+     */
+    private final int rate;
+
+    /**
+     * 压测时长 (秒)
+     */
+    private final int duration;
+
+    /**
+     * 预热时长 (秒), 预热期间的数据不计入结果
+     */
+    private final int warmup;
+
+    /**
+     * 调用的方法 query | retry
+     */
+    private final String method;
+
+    /**
+     * 发起调用的线程数
+     */
+    private final int threads;
+
+    /**
+     * 等待线程的最大请求数, 超出后丢弃并计数
+     */
+    private final int maxQueue;
+
+    /**
+     * 桩服务延迟分布, 见 StubProfile.LatencyDistribution#parse
+     */
+    private final String latency;
+
+    /**
+     * 桩服务返回 500 的比例
+     */
+    private final double errorRate;
+
+    /**
+     * 桩服务响应体填充字节数
+     */
+    private final int payloadBytes;
+
+    private final String connectTimeout;
+
+    private final String socketTimeout;
+
+    private final String traceLogSampleRate;
+
+    private LoadTestOptions(Map<String, String> args) {
+        this.rate = Integer.parseInt(args.getOrDefault("rate", "500"));
+        this.duration = Integer.parseInt(args.getOrDefault("duration", "30"));
+        this.warmup = Integer.parseInt(args.getOrDefault("warmup", "5"));
+        this.method = args.getOrDefault("method", "query");
+        this.threads = Integer.parseInt(args.getOrDefault("threads", "200"));
+        this.maxQueue = Integer.parseInt(args.getOrDefault("max-queue", "100000"));
+        this.latency = args.getOrDefault("latency", "lognormal:10,0.5");
+        this.errorRate = Double.parseDouble(args.getOrDefault("error-rate", "0"));
+        this.payloadBytes = Integer.parseInt(args.getOrDefault("payload-bytes", "0"));
+        this.connectTimeout = args.getOrDefault("connect-timeout", "300");
+        this.socketTimeout = args.getOrDefault("socket-timeout", "400");
+        this.traceLogSampleRate = args.getOrDefault("trace-log-sample-rate", "0");
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> map = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("illegal argument: " + arg + ", expected --key=value");
+            }
+            int index = arg.indexOf('=');
+            map.put(arg.substring(2, index), arg.substring(index + 1));
+        }
+        return new LoadTestOptions(map);
+    }
+}
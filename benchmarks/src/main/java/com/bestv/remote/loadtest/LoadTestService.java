@@ -0,0 +1,28 @@
+package com.bestv.remote.loadtest;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.annotation.RemoteParam;
+import com.bestv.remote.annotation.RemoteService;
+import com.bestv.remote.benchmark.StubResponse;
+import com.bestv.remote.enums.ParamType;
+import org.springframework.http.HttpMethod;
+
+/**
+ * 压测使用的远程接口, 连接配置由 {@link LoadTest} 写入 Spring 环境
+ *
+ * @author taojiacheng
+ */
+@RemoteService(baseUrl = "${loadtest.base-url}", connectTimeout = "${loadtest.connect-timeout}",
+        socketTimeout = "${loadtest.socket-timeout}", traceLogSampleRate = "${loadtest.trace-log-sample-rate}",
+        payloadLogSampleRate = "0")
+public interface LoadTestService {
+
+    @RemoteFunction(value = "/load/{id}", method = HttpMethod.GET)
+    StubResponse query(@RemoteParam(name = "id", type = ParamType.PATH) String id);
+
+    /**
+     * 失败后同步重试，用于复现重试风暴
+     */
+    @RemoteFunction(value = "/load/{id}", method = HttpMethod.GET, retryTimes = 3)
+    StubResponse queryWithRetry(@RemoteParam(name = "id", type = ParamType.PATH) String id);
+}
@@ -0,0 +1,148 @@
+package com.bestv.remote.loadtest;
+
+import com.bestv.remote.metrics.HistogramSnapshot;
+import com.bestv.remote.metrics.LatencyHistogram;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型的压测发生器
+ * <p>
+ * 按固定间隔计划请求, 与已发出请求是否返回无关; 响应时间从计划发出的时刻开始计算,
+ * 调用方变慢时排队的时间同样计入, 不会因协调遗漏 (coordinated omission) 而低估延迟
+ *
+ * @author taojiacheng
+ */
+public class OpenLoadGenerator {
+
+    private final Runnable call;
+
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * 响应时间: 计划发出 -> 返回
+     */
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+
+    /**
+     * 服务时间: 实际发出 -> 返回
+     */
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    private final LongAdder scheduled = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param call     单次调用, 抛出异常记为失败
+     * @param threads  发起调用的线程数
+     * @param maxQueue 等待线程的最大请求数
+     */
+    public OpenLoadGenerator(Runnable call, int threads, int maxQueue) {
+        this.call = call;
+        AtomicInteger index = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueue), r -> {
+            Thread thread = new Thread(r, "load-worker-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, (r, executor) -> dropped.increment());
+        this.workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * 以固定速率发起请求, 阻塞直到时长结束
+     *
+     * @param rate     每秒请求数
+     * @param duration 时长
+     * @param unit     时长单位
+     */
+    public void run(int rate, long duration, TimeUnit unit) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + unit.toNanos(duration);
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                return;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            scheduled.increment();
+            workers.execute(() -> invoke(intendedStart));
+        }
+    }
+
+    private void invoke(long intendedStart) {
+        long actualStart = System.nanoTime();
+        try {
+            call.run();
+        } catch (Throwable e) {
+            errors.increment();
+        } finally {
+            long now = System.nanoTime();
+            responseTime.record(now - intendedStart);
+            serviceTime.record(now - actualStart);
+            completed.increment();
+        }
+    }
+
+    /**
+     * 等待在途请求结束
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        workers.shutdown();
+        return workers.awaitTermination(timeout, unit);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(scheduled.sum(), completed.sum(), errors.sum(), dropped.sum(),
+                workers.getActiveCount(), workers.getQueue().size(),
+                responseTime.snapshot(), serviceTime.snapshot());
+    }
+
+    /**
+     * 发生器快照, 两个快照相减得到区间数据
+     */
+    public static class Snapshot {
+
+        final long scheduled;
+        final long completed;
+        final long errors;
+        final long dropped;
+        final int active;
+        final int queued;
+        final HistogramSnapshot responseTime;
+        final HistogramSnapshot serviceTime;
+
+        Snapshot(long scheduled, long completed, long errors, long dropped, int active, int queued,
+                 HistogramSnapshot responseTime, HistogramSnapshot serviceTime) {
+            this.scheduled = scheduled;
+            this.completed = completed;
+            this.errors = errors;
+            this.dropped = dropped;
+            this.active = active;
+            this.queued = queued;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+
+        Snapshot minus(Snapshot previous) {
+            if (previous == null) {
+                return this;
+            }
+            return new Snapshot(scheduled - previous.scheduled, completed - previous.completed,
+                    errors - previous.errors, dropped - previous.dropped, active, queued,
+                    responseTime.minus(previous.responseTime), serviceTime.minus(previous.serviceTime));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bestv.remote.loadtest;
+
+import lombok.Getter;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * jvm 运行时快照: 线程数、gc 次数与耗时、累计分配字节数
+ *
+ * @author taojiacheng
+ */
+@Getter
+public class RuntimeStats {
+
+    private final int threadCount;
+
+    private final int peakThreadCount;
+
+    private final long gcCount;
+
+    private final long gcTimeMillis;
+
+    private final long allocatedBytes;
+
+    private final long heapUsedBytes;
+
+    private RuntimeStats(int threadCount, int peakThreadCount, long gcCount, long gcTimeMillis,
+                         long allocatedBytes, long heapUsedBytes) {
+        this.threadCount = threadCount;
+        this.peakThreadCount = peakThreadCount;
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+        this.allocatedBytes = allocatedBytes;
+        this.heapUsedBytes = heapUsedBytes;
+    }
+
+    public static RuntimeStats capture() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        return new RuntimeStats(threadMXBean.getThreadCount(), threadMXBean.getPeakThreadCount(), gcCount, gcTime,
+                allocatedBytes(threadMXBean), memoryMXBean.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * 存活线程的累计分配字节数; 已结束线程的分配不计入, 线程池稳定后误差可以忽略
+     */
+    private static long allocatedBytes(ThreadMXBean threadMXBean) {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!sunThreadMXBean.isThreadAllocatedMemorySupported() || !sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : sunThreadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bestv.remote.retry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步重试队列在不同深度下的入队、出队开销
+ * <p>
+ * 队列深度保持不变: 每次弹出队首任务后重新放回; 任务的执行时间均已过去，出队不会等待
+ * 任务执行时间相同，重新放回的任务排在队尾，与新的重试任务晚于已有任务的常见情况一致，入队需要扫描整个队列
+ * TimeBaseLinkedQueue 为包内可见，所以放在 retry 包下
+ *
+ * @author taojiacheng
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeBaseLinkedQueueBenchmark {
+
+    @Param({"1", "100", "1000", "5000"})
+    private int depth;
+
+    private Retry.TimeBaseLinkedQueue<Retry.RetryTask<?>> queue;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Date executeTime = new Date(System.currentTimeMillis() - 1000);
+        queue = new Retry.TimeBaseLinkedQueue<>();
+        for (int i = 0; i < depth; i++) {
+            queue.add(pastTask(executeTime));
+        }
+    }
+
+    @Benchmark
+    public Retry.RetryTask<?> pollThenAdd() {
+        Retry.RetryTask<?> task = queue.poll();
+        queue.add(task);
+        return task;
+    }
+
+    /**
+     * 指定执行时间的任务
+     */
+    private static Retry.RetryTask<?> pastTask(Date executeTime) throws ReflectiveOperationException {
+        Retry.RetryTask<Object> task = new Retry.RetryTask<>(1, new int[]{0}, () -> null, (result, e) -> false,
+                null, null, null, null);
+        Field nextExecuteTime = Retry.RetryTask.class.getDeclaredField("nextExecuteTime");
+        nextExecuteTime.setAccessible(true);
+        nextExecuteTime.set(task, executeTime);
+        return task;
+    }
+}
@@ -0,0 +1,375 @@
+package com.bestv.remote.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.*;
+
+/**
+ * 生成远程服务实现类的源码
+ * <p>
+ * 每个接口方法直接组装 ParamContext: 基本类型和字符串参数直接放入对应的 map，
+ * 其余参数仍通过 extractParamsToMap 展开，之后交给 AbstractRemoteClient 执行调用链路
+ *
+ * @author taojiacheng
+ */
+class ClientSourceWriter {
+
+    private static final String REMOTE_FUNCTION = "com.bestv.remote.annotation.RemoteFunction";
+
+    private static final String REMOTE_PARAM = "com.bestv.remote.annotation.RemoteParam";
+
+    private static final String FORM_URLENCODED = "application/x-www-form-urlencoded";
+
+    private static final String APPLICATION_JSON = "application/json";
+
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+    /**
+     * 直接放入 map 的参数类型，与 BeanUtil.beanToMap 返回空 map 的类型一致
+     */
+    private static final Set<String> SIMPLE_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Short", "java.lang.Byte",
+            "java.lang.Double", "java.lang.Float", "java.lang.Boolean", "java.lang.Character"));
+
+    private final Elements elements;
+
+    private final Types types;
+
+    private final TypeElement type;
+
+    private final String packageName;
+
+    private final String simpleClientName;
+
+    ClientSourceWriter(ProcessingEnvironment processingEnv, TypeElement type) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.type = type;
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String flatName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        this.simpleClientName = flatName.replace('$', '_') + "_RemoteClient";
+    }
+
+    String getClientName() {
+        return packageName.isEmpty() ? simpleClientName : packageName + "." + simpleClientName;
+    }
+
+    String write() {
+        List<ExecutableElement> methods = abstractMethods();
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.bestv.remote.context.ParamContext;\n")
+                .append("import com.bestv.remote.interfaces.impl.creators.AbstractRemoteClient;\n")
+                .append("import com.bestv.remote.interfaces.impl.creators.JdkProxyCreators;\n\n");
+        source.append("/**\n * generated by remote-service-processor from {@link ").append(type.getQualifiedName())
+                .append("}, do not edit\n */\n");
+        String typeParameters = typeParameters(type.getTypeParameters());
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleClientName).append(typeParameters)
+                .append(" extends AbstractRemoteClient implements ").append(type.getQualifiedName())
+                .append(typeArguments(type.getTypeParameters())).append(" {\n\n");
+
+        // 构造方法，按下标解析接口方法
+        source.append("    public ").append(simpleClientName).append("(JdkProxyCreators creators) {\n")
+                .append("        super(creators, ").append(type.getQualifiedName()).append(".class");
+        for (ExecutableElement method : methods) {
+            source.append(",\n                method(").append(type.getQualifiedName()).append(".class, \"")
+                    .append(method.getSimpleName()).append('"');
+            for (VariableElement parameter : method.getParameters()) {
+                source.append(", ").append(erasure(parameter.asType())).append(".class");
+            }
+            source.append(')');
+        }
+        source.append(");\n    }\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            writeMethod(source, i, methods.get(i));
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private void writeMethod(StringBuilder source, int index, ExecutableElement method) {
+        ExecutableType methodType = (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+
+        source.append("\n    @Override\n    public ");
+        String typeParameters = typeParameters(method.getTypeParameters());
+        if (!typeParameters.isEmpty()) {
+            source.append(typeParameters).append(' ');
+        }
+        TypeMirror returnType = methodType.getReturnType();
+        source.append(typeName(returnType)).append(' ').append(method.getSimpleName()).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            String parameterType = typeName(parameterTypes.get(i));
+            if (method.isVarArgs() && i == parameters.size() - 1 && parameterType.endsWith("[]")) {
+                parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+            }
+            source.append(parameterType).append(" p").append(i);
+        }
+        source.append(')');
+        List<? extends TypeMirror> thrownTypes = methodType.getThrownTypes();
+        for (int i = 0; i < thrownTypes.size(); i++) {
+            source.append(i == 0 ? " throws " : ", ").append(typeName(thrownTypes.get(i)));
+        }
+        source.append(" {\n");
+
+        source.append("        Object[] args = {");
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append('p').append(i);
+        }
+        source.append("};\n");
+        source.append("        ParamContext paramContext = new ParamContext();\n");
+        String mediaType = FORM_URLENCODED;
+        boolean hasCacheKey = false;
+        boolean file = false;
+        boolean jsonBody = false;
+        for (int i = 0; i < parameters.size(); i++) {
+            AnnotationMirror remoteParam = annotation(parameters.get(i), REMOTE_PARAM);
+            if (remoteParam == null) {
+                continue;
+            }
+            String name = (String) value(remoteParam, "name");
+            if (name.isEmpty()) {
+                // 动态代理取 Parameter.getName()，是否为源码中的参数名取决于编译参数 -parameters，生成的实现类无法保持一致
+                throw new IllegalArgumentException("@RemoteParam name must not be empty : " + method.getSimpleName()
+                        + "(" + parameters.get(i).getSimpleName() + ")");
+            }
+            String literal = literal(name);
+            String paramType = ((VariableElement) value(remoteParam, "type")).getSimpleName().toString();
+            TypeMirror parameterType = parameterTypes.get(i);
+            String arg = "p" + i;
+            switch (paramType) {
+                case "BASE_URL":
+                    source.append("        paramContext.setBaseUrl(")
+                            .append(isString(parameterType) ? arg : "(String) (Object) " + arg).append(");\n");
+                    break;
+                case "PATH":
+                    bind(source, "getPathParams", literal, arg, parameterType);
+                    break;
+                case "HEADER":
+                    bind(source, "getHeaders", literal, arg, parameterType);
+                    break;
+                case "FORM":
+                    mediaType = FORM_URLENCODED;
+                    bind(source, "getRequestBody", literal, arg, parameterType);
+                    break;
+                case "JSON_BODY":
+                    jsonBody = true;
+                    mediaType = APPLICATION_JSON;
+                    source.append("        paramContext.getJsonBody().put(").append(literal).append(", ").append(arg).append(");\n");
+                    break;
+                case "URL_PARAM":
+                    bind(source, "getUrlParams", literal, arg, parameterType);
+                    break;
+                case "CACHE_KEY":
+                    hasCacheKey = true;
+                    bind(source, "getCacheKey", literal, arg, parameterType);
+                    break;
+                case "CONSUMER":
+                    // 回调不作为请求参数
+                    source.append("        paramContext.setResponseConsumer((java.util.function.Consumer<Object>) (Object) ")
+                            .append(arg).append(");\n");
+                    continue;
+                case "FILE":
+                    file = true;
+                    source.append("        paramContext.getFileParts().put(").append(literal).append(", ").append(arg).append(");\n");
+                    break;
+                case "DOWNLOAD_TARGET":
+                    source.append("        paramContext.setDownloadTarget(").append(arg).append(");\n");
+                    break;
+                default:
+                    break;
+            }
+            source.append("        paramContext.getRequestParams().put(").append(literal).append(", ").append(arg).append(");\n");
+        }
+        if (file && jsonBody) {
+            throw new IllegalArgumentException("ParamType.FILE can not be mixed with ParamType.JSON_BODY : " + method.getSimpleName());
+        }
+        // 存在文件参数时为 multipart，与参数顺序无关
+        if (file) {
+            mediaType = MULTIPART_FORM_DATA;
+        }
+        // 与 JdkProxyCreators#paramContextPostHandler 一致
+        source.append("        paramContext.getHeaders().putIfAbsent(\"Content-Type\", \"").append(mediaType).append("\");\n");
+        AnnotationMirror remoteFunction = annotation(method, REMOTE_FUNCTION);
+        if (remoteFunction != null && (Boolean) value(remoteFunction, "cacheable")) {
+            if (hasCacheKey) {
+                source.append("        if (paramContext.getCacheKey().isEmpty()) {\n    ");
+            }
+            source.append("        paramContext.getCacheKey().putAll(paramContext.getRequestParams());\n");
+            if (hasCacheKey) {
+                source.append("        }\n");
+            }
+        }
+
+        String call = "invoke(" + index + ", paramContext, args)";
+        if (returnType.getKind() == TypeKind.VOID) {
+            source.append("        ").append(call).append(";\n");
+        } else if (returnType.getKind().isPrimitive()) {
+            source.append("        return (").append(types.boxedClass((PrimitiveType) returnType).getQualifiedName())
+                    .append(") ").append(call).append(";\n");
+        } else {
+            source.append("        return (").append(typeName(returnType)).append(") ").append(call).append(";\n");
+        }
+        source.append("    }\n");
+    }
+
+    private void bind(StringBuilder source, String mapGetter, String literal, String arg, TypeMirror parameterType) {
+        if (isSimple(parameterType)) {
+            source.append("        paramContext.").append(mapGetter).append("().put(").append(literal).append(", ")
+                    .append(arg).append(");\n");
+        } else {
+            source.append("        bindParam(paramContext.").append(mapGetter).append("(), ").append(literal).append(", ")
+                    .append(arg).append(");\n");
+        }
+    }
+
+    /**
+     * 接口及其父接口中需要实现的方法，default、static 方法除外
+     */
+    private List<ExecutableElement> abstractMethods() {
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            StringBuilder signature = new StringBuilder(method.getSimpleName());
+            for (VariableElement parameter : method.getParameters()) {
+                signature.append(',').append(erasure(parameter.asType()));
+            }
+            methods.putIfAbsent(signature.toString(), method);
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private boolean isSimple(TypeMirror typeMirror) {
+        if (typeMirror.getKind().isPrimitive()) {
+            return true;
+        }
+        return typeMirror.getKind() == TypeKind.DECLARED
+                && SIMPLE_TYPES.contains(((TypeElement) ((DeclaredType) typeMirror).asElement()).getQualifiedName().toString());
+    }
+
+    private boolean isString(TypeMirror typeMirror) {
+        return typeMirror.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) typeMirror).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalStateException("missing annotation value " + name + " on " + mirror);
+    }
+
+    /**
+     * 类型名，不带类型注解 (TypeMirror#toString 会带上 TYPE_USE 注解，生成的源码无法编译)
+     */
+    private String typeName(TypeMirror typeMirror) {
+        switch (typeMirror.getKind()) {
+            case DECLARED: {
+                DeclaredType declaredType = (DeclaredType) typeMirror;
+                StringBuilder name = new StringBuilder(((TypeElement) declaredType.asElement()).getQualifiedName());
+                List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+                if (!typeArguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < typeArguments.size(); i++) {
+                        name.append(i == 0 ? "" : ", ").append(typeName(typeArguments.get(i)));
+                    }
+                    name.append('>');
+                }
+                return name.toString();
+            }
+            case ARRAY:
+                return typeName(((ArrayType) typeMirror).getComponentType()) + "[]";
+            case TYPEVAR:
+                return ((TypeVariable) typeMirror).asElement().getSimpleName().toString();
+            case WILDCARD: {
+                WildcardType wildcardType = (WildcardType) typeMirror;
+                if (wildcardType.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcardType.getExtendsBound());
+                }
+                if (wildcardType.getSuperBound() != null) {
+                    return "? super " + typeName(wildcardType.getSuperBound());
+                }
+                return "?";
+            }
+            case VOID:
+                return "void";
+            default:
+                if (typeMirror.getKind().isPrimitive()) {
+                    return typeMirror.getKind().name().toLowerCase(Locale.ROOT);
+                }
+                throw new IllegalArgumentException("unsupported type " + typeMirror);
+        }
+    }
+
+    private String erasure(TypeMirror typeMirror) {
+        TypeMirror erasure = types.erasure(typeMirror);
+        if (erasure.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+        }
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return erasure(((ArrayType) erasure).getComponentType()) + "[]";
+        }
+        return typeName(erasure);
+    }
+
+    private String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder("<");
+        for (int i = 0; i < typeParameters.size(); i++) {
+            TypeParameterElement typeParameter = typeParameters.get(i);
+            result.append(i == 0 ? "" : ", ").append(typeParameter.getSimpleName());
+            List<? extends TypeMirror> bounds = typeParameter.getBounds();
+            boolean objectBound = bounds.size() == 1 && typeName(bounds.get(0)).equals("java.lang.Object");
+            if (!bounds.isEmpty() && !objectBound) {
+                result.append(" extends ");
+                for (int j = 0; j < bounds.size(); j++) {
+                    result.append(j == 0 ? "" : " & ").append(typeName(bounds.get(j)));
+                }
+            }
+        }
+        return result.append('>').toString();
+    }
+
+    private static String typeArguments(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "<", ">");
+        typeParameters.forEach(typeParameter -> joiner.add(typeParameter.getSimpleName()));
+        return joiner.toString();
+    }
+
+    private static String literal(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,152 @@
+package com.bestv.remote.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 编译期处理 @RemoteService
+ * <p>
+ * 为每个远程服务接口生成实现类 (接口名_RemoteClient)，并生成注册索引 META-INF/remote-service.index，
+ * 索引同时声明本模块编译的包名; 注册器对索引覆盖的 basePackage 直接按索引注册，不再扫描 classpath，
+ * 接口在索引中有实现类时直接实例化实现类，不再使用动态代理
+ *
+ * @author taojiacheng
+ */
+@SupportedAnnotationTypes(RemoteServiceProcessor.REMOTE_SERVICE)
+public class RemoteServiceProcessor extends AbstractProcessor {
+
+    static final String REMOTE_SERVICE = "com.bestv.remote.annotation.RemoteService";
+
+    /**
+     * 与 RemoteServiceIndex.INDEX_LOCATION 保持一致
+     */
+    static final String INDEX_LOCATION = "META-INF/remote-service.index";
+
+    /**
+     * 与 RemoteServiceIndex.PACKAGE_PREFIX 保持一致
+     */
+    static final String PACKAGE_PREFIX = "package ";
+
+    /**
+     * 接口名 -> 实现类名
+     */
+    private final Map<String, String> index = new TreeMap<>();
+
+    /**
+     * 本模块编译的包名
+     */
+    private final Set<String> packages = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            PackageElement pkg = processingEnv.getElementUtils().getPackageOf(element);
+            if (!pkg.isUnnamed()) {
+                packages.add(pkg.getQualifiedName().toString());
+            }
+        }
+        TypeElement remoteService = processingEnv.getElementUtils().getTypeElement(REMOTE_SERVICE);
+        if (remoteService != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(remoteService)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@RemoteService 只能标记 interface", element);
+                    continue;
+                }
+                generateClient((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void generateClient(TypeElement type) {
+        ClientSourceWriter writer = new ClientSourceWriter(processingEnv, type);
+        try {
+            String source = writer.write();
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(writer.getClientName(), type);
+            try (Writer out = sourceFile.openWriter()) {
+                out.write(source);
+            }
+            index.put(processingEnv.getElementUtils().getBinaryName(type).toString(), writer.getClientName());
+        } catch (IOException | RuntimeException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "failed to generate remote client : " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * 写出索引，增量编译时合并上一次生成且仍然存在的条目和包名
+     */
+    private void writeIndex() {
+        Filer filer = processingEnv.getFiler();
+        Map<String, String> merged = new TreeMap<>();
+        Set<String> mergedPackages = new TreeSet<>();
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(PACKAGE_PREFIX)) {
+                        String pkg = line.substring(PACKAGE_PREFIX.length()).trim();
+                        if (processingEnv.getElementUtils().getPackageElement(pkg) != null) {
+                            mergedPackages.add(pkg);
+                        }
+                        continue;
+                    }
+                    int separator = line.indexOf('=');
+                    if (separator > 0 && processingEnv.getElementUtils()
+                            .getTypeElement(line.substring(0, separator).replace('$', '.')) != null) {
+                        merged.put(line.substring(0, separator), line.substring(separator + 1));
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // 首次编译没有索引
+        }
+        merged.putAll(index);
+        mergedPackages.addAll(packages);
+        try {
+            FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer out = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                out.write("# generated by remote-service-processor, do not edit\n");
+                for (String pkg : mergedPackages) {
+                    out.write(PACKAGE_PREFIX + pkg + "\n");
+                }
+                for (Map.Entry<String, String> entry : merged.entrySet()) {
+                    out.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "failed to write " + INDEX_LOCATION + " : " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.bestv.remote.annotation;
 
 import com.bestv.remote.configuration.RemoteServiceRegistrar;
+import com.bestv.remote.interfaces.ProxyCreators;
+import com.bestv.remote.interfaces.impl.creators.JdkProxyCreators;
+import com.bestv.remote.refresh.RemoteServiceRefresher;
 import com.bestv.remote.utils.SpringContextHolder;
+import com.bestv.remote.warmup.RemoteServiceWarmUp;
 import org.springframework.context.annotation.Import;
 
 import java.lang.annotation.*;
@@ -14,7 +18,8 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 @Documented
-@Import({RemoteServiceRegistrar.class, SpringContextHolder.class})
+@Import({RemoteServiceRegistrar.class, SpringContextHolder.class, RemoteServiceWarmUp.class,
+        RemoteServiceRefresher.class})
 public @interface EnableRemoteService {
 
     /**
@@ -22,4 +27,10 @@ public @interface EnableRemoteService {
      */
     String[] basePackages() default {};
 
+    /**
+     * 代理创建器，默认使用 JDK 动态代理;
+     * AsmProxyCreators 在运行时为每个接口生成实现类，避免反射分发
+     */
+    Class<? extends ProxyCreators> proxyCreators() default JdkProxyCreators.class;
+
 }
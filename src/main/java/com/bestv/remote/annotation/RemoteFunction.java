@@ -1,6 +1,7 @@
 package com.bestv.remote.annotation;
 
 
+import com.bestv.remote.enums.CacheStoreType;
 import com.bestv.remote.interfaces.BlockHandler;
 import com.bestv.remote.interfaces.FallbackHandler;
 import org.springframework.http.HttpMethod;
@@ -64,6 +65,60 @@ public @interface RemoteFunction {
      */
     String sentinelResource() default "";
 
+    /**
+     * 为该方法单独维护自适应并发上限
+     * <p>
+     * 限制参数沿用 {@link RemoteService#initialConcurrency()} 等配置
+     * 未开启时，如果 @RemoteService 开启了 adaptiveConcurrency，则与同服务的其他方法共享上限
+     */
+    boolean adaptiveConcurrency() default false;
+
+    /**
+     * 开启内置熔断器
+     * <p>
+     * 不依赖 sentinel 规则，根据滑动窗口内的失败率、慢调用比例熔断
+     * 熔断时进入 {@link #block()} 流程，Http4xxException 不计为失败
+     */
+    boolean circuitBreaker() default false;
+
+    /**
+     * 熔断失败率阈值 (百分比)
+     */
+    int failureRateThreshold() default 50;
+
+    /**
+     * 熔断慢调用比例阈值 (百分比)
+     */
+    int slowCallRateThreshold() default 100;
+
+    /**
+     * 慢调用 RT 阈值
+     * 单位 毫秒
+     */
+    int slowCallDuration() default 1000;
+
+    /**
+     * 熔断统计窗口
+     * 单位 秒
+     */
+    int breakerWindow() default 10;
+
+    /**
+     * 统计窗口内触发熔断的最小请求数
+     */
+    int breakerMinimumCalls() default 20;
+
+    /**
+     * 熔断时长，经过该时长后进入半开状态
+     * 单位 毫秒
+     */
+    int breakerOpenDuration() default 5000;
+
+    /**
+     * 半开状态的探测请求数
+     */
+    int breakerHalfOpenCalls() default 3;
+
 
     /**
      * 执行次数
@@ -108,6 +163,94 @@ public @interface RemoteFunction {
      */
     String expireIn() default "3600";
 
+    /**
+     * 缓存存储，默认 redis
+     * <p>
+     * 较大的结果可以使用 {@link CacheStoreType#OFF_HEAP} 保存在本地堆外内存，减少 GC 压力
+     */
+    CacheStoreType cacheStore() default CacheStoreType.REDIS;
+
+
+    /**
+     * 开启负缓存
+     * <p>
+     * 远程调用失败或返回空结果时，按参数 (同缓存 key 规则，未指定时取全部参数) 在本地记住一小段时间，
+     * 期间相同参数的调用不再请求远程服务: 失败直接进入 {@link #fallback()} 流程 (按缓存的原始异常匹配 fallbackFor，
+     * 没有降级时抛出与原始异常同类型的新异常，无法重建的类型抛出 {@link com.bestv.remote.exceptions.NegativeCacheHitException}，
+     * 原始异常均为 cause)，
+     * 空结果直接返回; 舱壁、并发限制、熔断等本地拒绝不会被缓存
+     */
+    boolean negativeCache() default false;
+
+    /**
+     * 负缓存时间
+     * 单位 毫秒
+     * <p>
+     * 如果想再配置文件中配置，使用 ${配置文件中的key}
+     */
+    String negativeCacheTtl() default "5000";
+
+    /**
+     * 指定缓存的异常
+     * <p>
+     * 未指定则为 Throwable
+     */
+    Class<? extends Throwable>[] negativeCacheFor() default {Throwable.class};
+
+    /**
+     * 只缓存指定响应状态码的失败，如 {404, 503}
+     * <p>
+     * 未指定时不限制状态码
+     */
+    int[] negativeCacheStatus() default {};
+
+    /**
+     * 缓存空结果: null、空集合、空 Map、空数组、空字符串、Optional.empty()
+     */
+    boolean negativeCacheEmpty() default false;
+
+    /**
+     * 每个方法最多缓存的参数组合数
+     */
+    int negativeCacheMaxSize() default 1024;
+
+
+    /**
+     * 保存最近一次成功的结果 (last-known-good)
+     * <p>
+     * 按参数 (同负缓存的 key 规则) 在本地保存每次成功调用的结果，调用失败、熔断、超时时
+     * 优先返回不超过 {@link #lastKnownGoodMaxStaleness()} 的结果，没有可用结果时才进入降级或熔断流程;
+     * 4xx 和参数校验失败不使用保存的结果
+     */
+    boolean lastKnownGood() default false;
+
+    /**
+     * 保存结果的最大陈旧时间 (秒)
+     * 默认 1 小时
+     * <p>
+     * 如果想再配置文件中配置，使用 ${配置文件中的key}
+     */
+    String lastKnownGoodMaxStaleness() default "3600";
+
+    /**
+     * 每个方法最多保存的参数组合数
+     */
+    int lastKnownGoodMaxEntries() default 1024;
+
+    /**
+     * 每个方法保存结果的最大总字节数 (按 json 序列化后的大小计算)
+     * 单个结果不超过该值的 1/8
+     */
+    long lastKnownGoodMaxBytes() default 16 * 1024 * 1024;
+
+
+    /**
+     * 请求体/响应体编解码器，未指定时沿用 {@link RemoteService#codec()}
+     * <p>
+     * 如果想再配置文件中配置，使用 ${配置文件中的key}
+     */
+    String codec() default "";
+
 
     interface None extends FallbackHandler<Object>, BlockHandler<Object> {
 
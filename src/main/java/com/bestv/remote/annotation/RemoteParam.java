@@ -17,6 +17,9 @@ public @interface RemoteParam {
 
     /**
      * 参数名称
+     * <p>
+     * 为空时动态代理使用 Parameter.getName() (未开启 -parameters 编译时为 arg0、arg1...)，
+     * 经注解处理器生成实现类的接口不能为空
      */
     String name();
 
@@ -1,5 +1,6 @@
 package com.bestv.remote.annotation;
 
+import com.bestv.remote.enums.BulkheadType;
 import org.springframework.stereotype.Component;
 
 import java.lang.annotation.*;
@@ -67,4 +68,200 @@ public @interface RemoteService {
      * 空闲连接存活时间
      */
     long keepAliveDuration() default 5 * 60 * 1000;
+
+    /**
+     * 自适应并发限制
+     * <p>
+     * 开启后根据实测 RT 自动调整在途请求上限, 使 RT 维持在无负载时的基线附近
+     * 超出上限的请求直接进入熔断流程 {@link RemoteFunction#block()}
+     */
+    boolean adaptiveConcurrency() default false;
+
+    /**
+     * 自适应并发的初始上限
+     */
+    int initialConcurrency() default 20;
+
+    /**
+     * 自适应并发的最小上限
+     */
+    int minConcurrency() default 1;
+
+    /**
+     * 自适应并发的最大上限
+     */
+    int maxConcurrency() default 200;
+
+    /**
+     * 舱壁隔离类型
+     * <p>
+     * 限制单个服务可占用的并发资源，舱壁已满时调用进入降级流程 {@link RemoteFunction#fallback()}
+     */
+    BulkheadType bulkhead() default BulkheadType.NONE;
+
+    /**
+     * 舱壁内最大并发调用数
+     * <p>
+     * 信号量隔离时为许可数，线程池隔离时为线程数
+     */
+    int bulkheadMaxConcurrent() default 50;
+
+    /**
+     * 线程池隔离时的队列长度
+     * 0 表示不排队
+     */
+    int bulkheadQueueSize() default 100;
+
+    /**
+     * 舱壁排队超时时间
+     * 单位 毫秒
+     * 默认 0 ms，不等待
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String bulkheadMaxWait() default "0";
+
+    /**
+     * trace_log 采样率 [0, 1]
+     * 默认 1 全量输出，调用失败时始终输出
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String traceLogSampleRate() default "1";
+
+    /**
+     * trace_log 中请求参数、响应内容的最大长度，超出部分截断 (在请求线程截断后再交给后台线程输出)
+     * -1 不截断
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String traceLogMaxResponseLength() default "4096";
+
+    /**
+     * 请求、响应内容的 debug 日志采样率 [0, 1]
+     * 按方法计数采样，仅在 debug 级别开启时生效
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String payloadLogSampleRate() default "1";
+
+    /**
+     * debug 日志中请求、响应内容的最大长度，超出部分截断
+     * -1 不截断
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String payloadLogMaxLength() default "1024";
+
+    /**
+     * 返回值校验 (@Validated) 采样率 [0, 1]
+     * 默认 1 每次调用都校验; 响应对象较大时可降低采样率
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String responseValidationSampleRate() default "1";
+
+    /**
+     * 启动预热
+     * <p>
+     * Spring 上下文刷新完成后、应用就绪前执行: 解析方法元数据、构建编解码器和校验元数据，
+     * 按 {@link #warmUpConnections()} 预先建立连接，并调用 {@link #warmUpEndpoints()}
+     */
+    boolean warmUp() default false;
+
+    /**
+     * 预热时建立的连接数，不超过 {@link #maxIdleConnections()}
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String warmUpConnections() default "1";
+
+    /**
+     * 预热时调用的接口路径 (相对 baseUrl)，使用 GET 请求，响应结果忽略
+     */
+    String[] warmUpEndpoints() default {};
+
+    /**
+     * 请求体/响应体编解码器: json、smile、cbor、protobuf 或自定义 {@link com.bestv.remote.codec.BodyCodec} 的名称
+     * <p>
+     * 非 json 时 JSON_BODY 请求体按该格式编码，Accept 优先该格式，服务端返回 json 时仍按 json 解码;
+     * 可以通过 {@link RemoteFunction#codec()} 为单个方法指定
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String codec() default "json";
+
+    /**
+     * 按 http 语义缓存 GET 响应
+     * <p>
+     * 根据 Cache-Control、Expires、ETag、Last-Modified 判断新鲜度，过期后携带 If-None-Match / If-Modified-Since 重新验证，
+     * 304 时返回缓存的响应体; 与 {@link RemoteFunction#cacheable()} 的 redis 缓存相互独立
+     */
+    boolean httpCache() default false;
+
+    /**
+     * http 缓存的内存上限 (字节)，单个响应不超过该值的 1/8
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String httpCacheMaxSize() default "10485760";
+
+    /**
+     * http 缓存的磁盘目录，为空时不使用磁盘缓存
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String httpCacheDirectory() default "";
+
+    /**
+     * http 缓存的磁盘上限 (字节)
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String httpCacheDiskMaxSize() default "104857600";
+
+    /**
+     * 堆外缓存的容量 (字节)，用于 cacheStore = OFF_HEAP 的方法，按 1MB 的页按需分配
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String offHeapCacheSize() default "268435456";
+
+    /**
+     * 堆外缓存的内存映射文件目录，为空时使用 direct 内存
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String offHeapCacheDirectory() default "";
+
+    /**
+     * 录制/回放模式: OFF、RECORD、REPLAY {@link com.bestv.remote.enums.RecordReplayMode}
+     * <p>
+     * RECORD 正常调用远程服务，并把 方法 + 规范化请求 对应的结果和实测耗时追加到录制文件;
+     * REPLAY 不访问网络，从录制文件返回结果，用于没有后端服务时的压测和回归测试
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String recordReplay() default "OFF";
+
+    /**
+     * 录制文件目录，录制/回放时必须指定; 文件名为 服务名.replay
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String recordReplayDirectory() default "";
+
+    /**
+     * 回放时是否按录制时的耗时等待后返回，false 时立即返回
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String replayLatency() default "true";
+
+    /**
+     * 录制文件的容量 (字节)，不超过 2GB，写满后不再录制
+     * <p>
+     * 如果希望从配置文件读取, 则使用 "${配置文件中的key}"
+     */
+    String recordMaxSize() default "268435456";
 }
@@ -0,0 +1,197 @@
+package com.bestv.remote.breaker;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内置熔断器
+ * <p>
+ * CLOSED: 正常放行，滑动窗口内失败率或慢调用比例超过阈值时转为 OPEN
+ * OPEN: 拒绝所有请求，经过 openDuration 后转为 HALF_OPEN
+ * HALF_OPEN: 放行 halfOpenCalls 个探测请求，全部成功转为 CLOSED，任一失败重新转为 OPEN
+ * <p>
+ * 状态与计数均基于 CAS / LongAdder，调用路径上不加锁
+ *
+ * @author taojiacheng
+ */
+public class CircuitBreaker {
+
+    private static final int CLOSED = 0;
+
+    private static final int OPEN = 1;
+
+    private static final int HALF_OPEN = 2;
+
+    /**
+     * 每个统计窗口的时间桶数量
+     */
+    private static final int BUCKETS_PER_WINDOW = 10;
+
+    @Getter
+    private final String name;
+
+    private final int failureRateThreshold;
+
+    private final int slowCallRateThreshold;
+
+    private final long slowCallNanos;
+
+    private final int minimumCalls;
+
+    private final long openMillis;
+
+    private final int halfOpenCalls;
+
+    private final SlidingWindowCounter window;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+
+    /**
+     * 半开状态剩余的探测名额
+     */
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+    /**
+     * 半开状态已成功的探测数
+     */
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureRateThreshold, int slowCallRateThreshold, long slowCallMillis,
+                          int minimumCalls, long windowMillis, long openMillis, int halfOpenCalls) {
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("breakerHalfOpenCalls must be greater than 0");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.window = new SlidingWindowCounter(windowMillis, BUCKETS_PER_WINDOW);
+    }
+
+    /**
+     * 是否允许本次调用
+     *
+     * @return false 熔断中
+     */
+    public boolean tryAcquire() {
+        int current = state.get();
+        if (current == CLOSED) {
+            return true;
+        }
+        if (current == OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+            if (state.compareAndSet(OPEN, HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(halfOpenCalls);
+            }
+        }
+        return tryAcquirePermit();
+    }
+
+    /**
+     * 调用成功
+     *
+     * @param durationNanos 调用耗时
+     */
+    public void onSuccess(long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state.get() == HALF_OPEN) {
+            if (slow) {
+                transitionToOpen(HALF_OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls) {
+                transitionToClosed();
+            }
+            return;
+        }
+        long now = System.currentTimeMillis();
+        window.record(now, false, slow);
+        if (slow) {
+            checkThresholds(now);
+        }
+    }
+
+    /**
+     * 调用失败
+     *
+     * @param durationNanos 调用耗时
+     */
+    public void onError(long durationNanos) {
+        if (state.get() == HALF_OPEN) {
+            transitionToOpen(HALF_OPEN);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        window.record(now, true, durationNanos >= slowCallNanos);
+        checkThresholds(now);
+    }
+
+    /**
+     * 调用未到达远程服务 (如被舱壁拒绝)，归还半开探测名额，不计入统计
+     */
+    public void onIgnore() {
+        if (state.get() == HALF_OPEN) {
+            halfOpenPermits.updateAndGet(permits -> Math.min(halfOpenCalls, permits + 1));
+        }
+    }
+
+    public boolean isOpen() {
+        return state.get() != CLOSED;
+    }
+
+    private void checkThresholds(long now) {
+        long total = window.total(now);
+        if (total < minimumCalls) {
+            return;
+        }
+        boolean failureExceeded = window.failures(now) * 100 >= failureRateThreshold * total;
+        boolean slowExceeded = window.slowCalls(now) * 100 >= slowCallRateThreshold * total;
+        if (failureExceeded || slowExceeded) {
+            transitionToOpen(CLOSED);
+        }
+    }
+
+    /**
+     * 只在名额大于 0 时扣减，被拒绝的请求不占用名额，归还后名额可以恢复
+     */
+    private boolean tryAcquirePermit() {
+        int permits;
+        do {
+            permits = halfOpenPermits.get();
+            if (permits <= 0) {
+                return false;
+            }
+        } while (!halfOpenPermits.compareAndSet(permits, permits - 1));
+        return true;
+    }
+
+    /**
+     * 只有完成状态切换的线程更新 openedAt，已经熔断后陆续返回的失败不会延长熔断时间
+     */
+    private void transitionToOpen(int expect) {
+        long now = System.currentTimeMillis();
+        if (state.compareAndSet(expect, OPEN)) {
+            openedAt = now;
+            halfOpenPermits.set(0);
+        }
+    }
+
+    private void transitionToClosed() {
+        if (state.compareAndSet(HALF_OPEN, CLOSED)) {
+            window.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name=" + name + ", state=" + state.get() + "}";
+    }
+}
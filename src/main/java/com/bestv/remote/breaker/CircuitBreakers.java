@@ -0,0 +1,55 @@
+package com.bestv.remote.breaker;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.context.ServerContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个 @RemoteService 的内置熔断器集合，每个开启熔断的方法一个熔断器
+ *
+ * @author taojiacheng
+ */
+public class CircuitBreakers {
+
+    /**
+     * 未开启熔断的方法占位
+     */
+    private static final CircuitBreaker DISABLED = new CircuitBreaker("disabled", 100, 100, 0, 1, 10, 0, 1);
+
+    private final ServerContext serverContext;
+
+    private final Map<Method, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(ServerContext serverContext) {
+        this.serverContext = serverContext;
+    }
+
+    /**
+     * 获取方法对应的熔断器
+     *
+     * @param method 方法
+     * @return 熔断器，未开启时返回 null
+     */
+    public CircuitBreaker get(Method method) {
+        CircuitBreaker breaker = breakers.get(method);
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(method, this::newBreaker);
+        }
+        return breaker == DISABLED ? null : breaker;
+    }
+
+    private CircuitBreaker newBreaker(Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.circuitBreaker()) {
+            return DISABLED;
+        }
+        return new CircuitBreaker(serverContext.getServiceName() + "$" + method.getName(),
+                remoteFunction.failureRateThreshold(), remoteFunction.slowCallRateThreshold(),
+                remoteFunction.slowCallDuration(), remoteFunction.breakerMinimumCalls(),
+                remoteFunction.breakerWindow() * 1000L, remoteFunction.breakerOpenDuration(),
+                remoteFunction.breakerHalfOpenCalls());
+    }
+}
@@ -0,0 +1,141 @@
+package com.bestv.remote.breaker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁滑动窗口计数器
+ * <p>
+ * 窗口由固定数量的时间桶组成环形数组，桶内使用 LongAdder 计数
+ * 桶在首次使用时通过 CAS 切换到新的时间片并清零，记录过程不加锁、不分配对象
+ * <p>
+ * 切换时间片与并发记录之间存在极小的竞争窗口，可能丢失个别计数，对熔断判断没有影响
+ *
+ * @author taojiacheng
+ */
+public class SlidingWindowCounter {
+
+    private final Bucket[] buckets;
+
+    private final long bucketMillis;
+
+    private final long windowMillis;
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount) {
+        if (windowMillis < bucketCount || bucketCount < 1) {
+            throw new IllegalArgumentException("window must be at least 1 ms per bucket");
+        }
+        this.bucketMillis = windowMillis / bucketCount;
+        this.windowMillis = bucketMillis * bucketCount;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 记录一次调用
+     *
+     * @param now     当前时间 (ms)
+     * @param failure 是否失败
+     * @param slow    是否慢调用
+     */
+    public void record(long now, boolean failure, boolean slow) {
+        Bucket bucket = currentBucket(now);
+        bucket.total.increment();
+        if (failure) {
+            bucket.failures.increment();
+        }
+        if (slow) {
+            bucket.slowCalls.increment();
+        }
+    }
+
+    /**
+     * 窗口内调用总数
+     */
+    public long total(long now) {
+        long sum = 0;
+        for (Bucket bucket : buckets) {
+            if (isValid(bucket, now)) {
+                sum += bucket.total.sum();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 窗口内失败数
+     */
+    public long failures(long now) {
+        long sum = 0;
+        for (Bucket bucket : buckets) {
+            if (isValid(bucket, now)) {
+                sum += bucket.failures.sum();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 窗口内慢调用数
+     */
+    public long slowCalls(long now) {
+        long sum = 0;
+        for (Bucket bucket : buckets) {
+            if (isValid(bucket, now)) {
+                sum += bucket.slowCalls.sum();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 清空窗口
+     */
+    public void reset() {
+        for (Bucket bucket : buckets) {
+            bucket.windowStart.set(-1);
+            bucket.reset();
+        }
+    }
+
+    private boolean isValid(Bucket bucket, long now) {
+        long windowStart = bucket.windowStart.get();
+        return windowStart >= 0 && now - windowStart < windowMillis;
+    }
+
+    private Bucket currentBucket(long now) {
+        long bucketId = now / bucketMillis;
+        long bucketStart = bucketId * bucketMillis;
+        Bucket bucket = buckets[(int) (bucketId % buckets.length)];
+        for (; ; ) {
+            long windowStart = bucket.windowStart.get();
+            if (windowStart >= bucketStart) {
+                return bucket;
+            }
+            // 桶属于过期的时间片，切换到当前时间片
+            if (bucket.windowStart.compareAndSet(windowStart, bucketStart)) {
+                bucket.reset();
+                return bucket;
+            }
+        }
+    }
+
+    private static class Bucket {
+
+        private final AtomicLong windowStart = new AtomicLong(-1);
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder slowCalls = new LongAdder();
+
+        private void reset() {
+            total.reset();
+            failures.reset();
+            slowCalls.reset();
+        }
+    }
+}
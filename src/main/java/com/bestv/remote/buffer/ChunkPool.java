@@ -0,0 +1,135 @@
+package com.bestv.remote.buffer;
+
+import org.springframework.core.SpringProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定大小字节块的分段池 单例
+ * <p>
+ * 请求体编码等场景按块借用，用完归还，调用之间复用同一批内存; 按线程 id 分段，每段独立加锁，减少竞争。
+ * 池中保留的总字节数有上限 (默认 8MB，可通过 spring 属性 remote-service.buffer-pool.max-bytes 调整)，
+ * 池空时新分配，池满时归还的块直接丢弃，交给 GC
+ *
+ * @author taojiacheng
+ */
+public final class ChunkPool {
+
+    /**
+     * 块大小
+     */
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    public static final String MAX_BYTES_PROPERTY = "remote-service.buffer-pool.max-bytes";
+
+    private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private final static ChunkPool INSTANCE = new ChunkPool(maxBytes());
+
+    private final Stripe[] stripes;
+
+    private final int mask;
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder allocated = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    ChunkPool(long maxBytes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+        int chunksPerStripe = (int) Math.max(1, maxBytes / CHUNK_SIZE / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(chunksPerStripe);
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    public static ChunkPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 借用一个块，内容未清零
+     */
+    public byte[] acquire() {
+        acquired.increment();
+        byte[] chunk = stripe().poll();
+        if (chunk == null) {
+            allocated.increment();
+            chunk = new byte[CHUNK_SIZE];
+        }
+        return chunk;
+    }
+
+    /**
+     * 归还块
+     */
+    public void release(byte[] chunk) {
+        if (chunk.length != CHUNK_SIZE || !stripe().offer(chunk)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 累计借用次数
+     */
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * 池中没有可用块而新分配的字节数，与借用次数之比即为池的未命中率
+     */
+    public long getAllocatedBytes() {
+        return allocated.sum() * CHUNK_SIZE;
+    }
+
+    /**
+     * 池满丢弃的块数
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & mask];
+    }
+
+    private static long maxBytes() {
+        String value = SpringProperties.getProperty(MAX_BYTES_PROPERTY);
+        return value == null ? DEFAULT_MAX_BYTES : Long.parseLong(value.trim());
+    }
+
+    /**
+     * 分段: 块的栈
+     */
+    private static final class Stripe {
+
+        private final byte[][] chunks;
+
+        private int size;
+
+        private Stripe(int capacity) {
+            this.chunks = new byte[capacity][];
+        }
+
+        private synchronized byte[] poll() {
+            if (size == 0) {
+                return null;
+            }
+            byte[] chunk = chunks[--size];
+            chunks[size] = null;
+            return chunk;
+        }
+
+        private synchronized boolean offer(byte[] chunk) {
+            if (size == chunks.length) {
+                return false;
+            }
+            chunks[size++] = chunk;
+            return true;
+        }
+    }
+}
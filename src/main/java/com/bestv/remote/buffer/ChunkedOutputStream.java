@@ -0,0 +1,99 @@
+package com.bestv.remote.buffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 写入 {@link ChunkPool} 借来的块的输出流
+ * <p>
+ * 与 ByteArrayOutputStream 不同，容量增长时不复制已写入的内容，读取时也不生成完整的 byte[] 副本;
+ * 用完后调用 {@link #close()} 归还所有块
+ *
+ * @author taojiacheng
+ */
+public class ChunkedOutputStream extends OutputStream {
+
+    private final ChunkPool pool;
+
+    private byte[][] chunks = new byte[4][];
+
+    private int chunkCount;
+
+    /**
+     * 当前块已写入的字节数
+     */
+    private int position = ChunkPool.CHUNK_SIZE;
+
+    private long size;
+
+    public ChunkedOutputStream() {
+        this(ChunkPool.getInstance());
+    }
+
+    public ChunkedOutputStream(ChunkPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        if (position == ChunkPool.CHUNK_SIZE) {
+            nextChunk();
+        }
+        chunks[chunkCount - 1][position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+        while (len > 0) {
+            if (position == ChunkPool.CHUNK_SIZE) {
+                nextChunk();
+            }
+            int n = Math.min(len, ChunkPool.CHUNK_SIZE - position);
+            System.arraycopy(bytes, off, chunks[chunkCount - 1], position, n);
+            position += n;
+            size += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 已写入的字节数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 将已写入的内容写到 out，可以重复调用
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        for (int i = 0; i < chunkCount; i++) {
+            out.write(chunks[i], 0, i == chunkCount - 1 ? position : ChunkPool.CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * 归还所有块，之后不能再使用
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < chunkCount; i++) {
+            pool.release(chunks[i]);
+            chunks[i] = null;
+        }
+        chunkCount = 0;
+        position = ChunkPool.CHUNK_SIZE;
+        size = 0;
+    }
+
+    private void nextChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        chunks[chunkCount++] = pool.acquire();
+        position = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bestv.remote.bulkhead;
+
+import com.bestv.remote.interfaces.RemoteCall;
+
+/**
+ * 舱壁隔离
+ * <p>
+ * 限制单个远程服务可占用的并发资源，防止一个慢服务耗尽所有请求线程
+ *
+ * @author taojiacheng
+ */
+public interface Bulkhead {
+
+    /**
+     * 在舱壁内执行调用
+     *
+     * @param call 远程调用
+     * @param <T>  返回类型
+     * @return 调用结果
+     * @throws Throwable 调用异常，舱壁已满时抛出 {@link com.bestv.remote.exceptions.BulkheadFullException}
+     */
+    <T> T execute(RemoteCall<T> call) throws Throwable;
+
+    /**
+     * 在舱壁内执行调用，调用方最多等待 排队时间 + callTimeout
+     * <p>
+     * 默认不限制，在调用方线程执行的舱壁无需限制
+     *
+     * @param call        远程调用
+     * @param callTimeout 调用本身的最长耗时 (毫秒)，小于等于 0 不限制
+     * @param <T>         返回类型
+     * @return 调用结果
+     * @throws Throwable 调用异常，舱壁已满或等待超时时抛出 {@link com.bestv.remote.exceptions.BulkheadFullException}
+     */
+    default <T> T execute(RemoteCall<T> call, long callTimeout) throws Throwable {
+        return execute(call);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bestv.remote.bulkhead;
+
+import com.bestv.remote.context.ServerContext;
+
+/**
+ * 根据服务配置创建舱壁
+ *
+ * @author taojiacheng
+ */
+public class Bulkheads {
+
+    private Bulkheads() {
+    }
+
+    /**
+     * 创建舱壁
+     *
+     * @param serverContext 远程服务信息
+     * @return 舱壁，未开启隔离时返回 null
+     */
+    public static Bulkhead create(ServerContext serverContext) {
+        switch (serverContext.getBulkheadType()) {
+            case SEMAPHORE:
+                return new SemaphoreBulkhead(serverContext.getServiceName(),
+                        serverContext.getBulkheadMaxConcurrent(), serverContext.getBulkheadMaxWait());
+            case THREAD_POOL:
+                return new ThreadPoolBulkhead(serverContext.getServiceName(), serverContext.getBulkheadMaxConcurrent(),
+                        serverContext.getBulkheadQueueSize(), serverContext.getBulkheadMaxWait());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bestv.remote.bulkhead;
+
+import com.bestv.remote.exceptions.BulkheadFullException;
+import com.bestv.remote.interfaces.RemoteCall;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 信号量舱壁
+ * <p>
+ * 在调用方线程执行，超出并发数的调用最多等待 maxWait 毫秒
+ *
+ * @author taojiacheng
+ */
+public class SemaphoreBulkhead implements Bulkhead {
+
+    private final String name;
+
+    private final Semaphore semaphore;
+
+    private final long maxWait;
+
+    public SemaphoreBulkhead(String name, int maxConcurrent, long maxWait) {
+        this.name = name;
+        this.semaphore = new Semaphore(maxConcurrent);
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public <T> T execute(RemoteCall<T> call) throws Throwable {
+        boolean acquired = maxWait > 0
+                ? semaphore.tryAcquire(maxWait, TimeUnit.MILLISECONDS)
+                : semaphore.tryAcquire();
+        if (!acquired) {
+            throw new BulkheadFullException("bulkhead [{}] is full, wait {} ms", name, maxWait);
+        }
+        try {
+            return call.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
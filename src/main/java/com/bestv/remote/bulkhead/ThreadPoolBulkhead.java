@@ -0,0 +1,103 @@
+package com.bestv.remote.bulkhead;
+
+import com.bestv.remote.exceptions.BulkheadFullException;
+import com.bestv.remote.interfaces.RemoteCall;
+import com.bestv.remote.trace.TraceLogContext;
+import com.bestv.remote.trace.TraceLogContextHolder;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程池舱壁
+ * <p>
+ * 调用在服务独占的有界线程池中执行，队列满时直接拒绝，
+ * 在队列中等待超过 maxWait 毫秒的调用不再执行;
+ * 调用方最多等待 maxWait + 调用超时时间，超时后取消调用并抛出 {@link BulkheadFullException}，进入降级流程
+ *
+ * @author taojiacheng
+ */
+public class ThreadPoolBulkhead implements Bulkhead {
+
+    private final String name;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxWait;
+
+    private final long maxWaitNanos;
+
+    public ThreadPoolBulkhead(String name, int maxConcurrent, int queueSize, long maxWait) {
+        this.name = name;
+        this.maxWait = maxWait;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setName("remote-bulkhead-" + name + "-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <T> T execute(RemoteCall<T> call) throws Throwable {
+        return execute(call, 0);
+    }
+
+    @Override
+    public <T> T execute(RemoteCall<T> call, long callTimeout) throws Throwable {
+        // trace_log 上下文传递到舱壁线程
+        TraceLogContext traceLogContext = TraceLogContextHolder.getTraceLogContext();
+        long enqueueTime = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (maxWaitNanos > 0 && System.nanoTime() - enqueueTime > maxWaitNanos) {
+                    throw new BulkheadFullException("bulkhead [{}] queue wait timeout", name);
+                }
+                TraceLogContextHolder.setTraceLogContext(traceLogContext);
+                try {
+                    return call.call();
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                } finally {
+                    TraceLogContextHolder.removeTraceLogContext();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadFullException("bulkhead [{}] is full, active: {}, queued: {}",
+                    name, executor.getActiveCount(), executor.getQueue().size());
+        }
+        try {
+            if (callTimeout <= 0) {
+                return future.get();
+            }
+            return future.get(maxWait + callTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 仍在排队的调用不再执行并移出队列，已开始的调用不中断，由 http 超时结束
+            future.cancel(false);
+            if (future instanceof Runnable) {
+                executor.remove((Runnable) future);
+            }
+            throw new BulkheadFullException("bulkhead [{}] wait timeout {} ms, active: {}, queued: {}",
+                    name, maxWait + callTimeout, executor.getActiveCount(), executor.getQueue().size());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UndeclaredThrowableException) {
+                throw ((UndeclaredThrowableException) cause).getUndeclaredThrowable();
+            }
+            throw cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.bestv.remote.cache;
+
+import com.bestv.remote.convert.JsonSerializer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单个方法的最近一次成功结果 (last-known-good)
+ * <p>
+ * 按参数摘要保存最近一次成功调用的结果，调用失败、熔断或超时时返回不超过最大陈旧时间的结果;
+ * 结果序列化为 json 字节保存，内存占用可计算，每次读取解码出新的对象，调用方修改不影响保存的结果。
+ * <p>
+ * 按 LRU 淘汰，条目数不超过 maxEntries，总字节数不超过 maxBytes，单个结果不超过 maxBytes 的 1/8
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class LastKnownGoodStore {
+
+    @Getter
+    private final String name;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    public LastKnownGoodStore(String name, int maxEntries, long maxBytes) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 8;
+    }
+
+    /**
+     * 保存成功结果，null 和无法序列化的结果忽略
+     *
+     * @param key    参数摘要
+     * @param result 远程服务结果
+     */
+    public void put(String key, Object result) {
+        if (result == null) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = JsonSerializer.getInstance().writeValueAsBytes(result);
+        } catch (IOException e) {
+            log.debug("event=remote.last_known_good.skip store={} reason={}", name, e.getMessage());
+            return;
+        }
+        if (bytes.length > maxEntryBytes) {
+            remove(key);
+            return;
+        }
+        put(key, new Entry(bytes, System.currentTimeMillis()));
+    }
+
+    /**
+     * 读取不超过最大陈旧时间的结果
+     *
+     * @param key            参数摘要
+     * @param type           返回值类型
+     * @param maxStalenessMs 最大陈旧时间 (毫秒)
+     * @return 解码后的结果，没有可用结果时返回 null
+     */
+    public Object get(String key, Type type, long maxStalenessMs) {
+        Entry entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        long age = System.currentTimeMillis() - entry.storedAt;
+        if (age > maxStalenessMs) {
+            remove(key);
+            return null;
+        }
+        try {
+            Object result = JsonSerializer.readerFor(type).readValue(entry.bytes);
+            log.debug("event=remote.last_known_good.hit store={} age={}", name, age);
+            return result;
+        } catch (IOException e) {
+            log.warn("event=remote.last_known_good.decode_failed store={} reason={}", name, e.getMessage());
+            remove(key);
+            return null;
+        }
+    }
+
+    private synchronized Entry getEntry(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.bytes.length;
+        }
+        size += entry.bytes.length;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((size > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            size -= iterator.next().getValue().bytes.length;
+            iterator.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.bytes.length;
+        }
+    }
+
+    private static class Entry {
+
+        private final byte[] bytes;
+
+        private final long storedAt;
+
+        private Entry(byte[] bytes, long storedAt) {
+            this.bytes = bytes;
+            this.storedAt = storedAt;
+        }
+    }
+}
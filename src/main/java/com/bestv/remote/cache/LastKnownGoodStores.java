@@ -0,0 +1,52 @@
+package com.bestv.remote.cache;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.context.ServerContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个 @RemoteService 的最近成功结果集合，每个开启 lastKnownGood 的方法一个
+ *
+ * @author taojiacheng
+ */
+public class LastKnownGoodStores {
+
+    /**
+     * 未开启的方法占位
+     */
+    private static final LastKnownGoodStore DISABLED = new LastKnownGoodStore("disabled", 0, 0);
+
+    private final ServerContext serverContext;
+
+    private final Map<Method, LastKnownGoodStore> stores = new ConcurrentHashMap<>();
+
+    public LastKnownGoodStores(ServerContext serverContext) {
+        this.serverContext = serverContext;
+    }
+
+    /**
+     * 获取方法对应的最近成功结果
+     *
+     * @param method 方法
+     * @return 最近成功结果，未开启时返回 null
+     */
+    public LastKnownGoodStore get(Method method) {
+        LastKnownGoodStore store = stores.get(method);
+        if (store == null) {
+            store = stores.computeIfAbsent(method, this::newStore);
+        }
+        return store == DISABLED ? null : store;
+    }
+
+    private LastKnownGoodStore newStore(Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.lastKnownGood()) {
+            return DISABLED;
+        }
+        return new LastKnownGoodStore(serverContext.getServiceName() + "$" + method.getName(),
+                remoteFunction.lastKnownGoodMaxEntries(), remoteFunction.lastKnownGoodMaxBytes());
+    }
+}
@@ -0,0 +1,202 @@
+package com.bestv.remote.cache;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.bestv.remote.exceptions.BulkheadFullException;
+import com.bestv.remote.exceptions.ConcurrencyLimitException;
+import com.bestv.remote.exceptions.Http4xxException;
+import lombok.Getter;
+import org.springframework.core.CollectionFactory;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个方法的负缓存
+ * <p>
+ * 按参数摘要记住失败和空结果，过期时间很短;
+ * 查询不加锁，超过容量时先清理过期项，仍然超出则不再写入
+ *
+ * @author taojiacheng
+ */
+public class NegativeCache {
+
+    @Getter
+    private final String name;
+
+    private final Class<? extends Throwable>[] cacheFor;
+
+    private final int[] cacheStatus;
+
+    private final boolean cacheEmpty;
+
+    private final int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public NegativeCache(String name, Class<? extends Throwable>[] cacheFor, int[] cacheStatus, boolean cacheEmpty, int maxSize) {
+        this.name = name;
+        this.cacheFor = cacheFor;
+        this.cacheStatus = cacheStatus;
+        this.cacheEmpty = cacheEmpty;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @param key 参数摘要
+     * @return 未命中或已过期时返回 null
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 记录失败，不满足 negativeCacheFor / negativeCacheStatus 时忽略
+     *
+     * @param key   参数摘要
+     * @param e     调用异常
+     * @param ttlMs 缓存时间 (毫秒)
+     * @return 是否写入
+     */
+    public boolean putFailure(String key, Throwable e, long ttlMs) {
+        if (!cacheable(e)) {
+            return false;
+        }
+        return put(key, new Entry(null, e, System.nanoTime() + ttlMs * 1_000_000L));
+    }
+
+    /**
+     * 记录空结果，未开启 negativeCacheEmpty 或结果非空时忽略
+     *
+     * @param key    参数摘要
+     * @param result 调用结果
+     * @param ttlMs  缓存时间 (毫秒)
+     * @return 是否写入
+     */
+    public boolean putResult(String key, Object result, long ttlMs) {
+        if (!cacheEmpty || !isEmpty(result)) {
+            return false;
+        }
+        return put(key, new Entry(result, null, System.nanoTime() + ttlMs * 1_000_000L));
+    }
+
+    private boolean put(String key, Entry entry) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            long now = System.nanoTime();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expireAt - now <= 0) {
+                    iterator.remove();
+                }
+            }
+            if (entries.size() >= maxSize) {
+                return false;
+            }
+        }
+        entries.put(key, entry);
+        return true;
+    }
+
+    private boolean cacheable(Throwable e) {
+        // 本地拒绝，与远程服务无关
+        if (e instanceof BlockException || e instanceof BulkheadFullException || e instanceof ConcurrencyLimitException) {
+            return false;
+        }
+        boolean matched = false;
+        for (Class<? extends Throwable> type : cacheFor) {
+            if (type.isInstance(e)) {
+                matched = true;
+                break;
+            }
+        }
+        if (!matched || cacheStatus.length == 0) {
+            return matched;
+        }
+        int status = statusOf(e);
+        for (int s : cacheStatus) {
+            if (s == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int statusOf(Throwable e) {
+        if (e instanceof Http4xxException) {
+            return ((Http4xxException) e).getStatusCode();
+        }
+        if (e instanceof RestClientResponseException) {
+            return ((RestClientResponseException) e).getRawStatusCode();
+        }
+        return 0;
+    }
+
+    private static boolean isEmpty(Object result) {
+        if (result == null) {
+            return true;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).isEmpty();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).isEmpty();
+        }
+        if (result instanceof CharSequence) {
+            return ((CharSequence) result).length() == 0;
+        }
+        if (result instanceof Optional) {
+            return !((Optional<?>) result).isPresent();
+        }
+        return result.getClass().isArray() && Array.getLength(result) == 0;
+    }
+
+    /**
+     * 缓存项
+     */
+    public static final class Entry {
+
+        private final Object result;
+
+        @Getter
+        private final Throwable failure;
+
+        private final long expireAt;
+
+        private Entry(Object result, Throwable failure, long expireAt) {
+            this.result = result;
+            this.failure = failure;
+            this.expireAt = expireAt;
+        }
+
+        /**
+         * 缓存的空结果; 集合和 Map 每次返回新的实例，避免调用方修改共享的对象
+         */
+        public Object getResult() {
+            try {
+                if (result instanceof Collection) {
+                    return CollectionFactory.createCollection(result.getClass(), 0);
+                }
+                if (result instanceof Map) {
+                    return CollectionFactory.createMap(result.getClass(), 0);
+                }
+            } catch (IllegalArgumentException ignored) {
+                // 不可实例化的集合类型 (如 Collections.emptyList()) 本身不可变
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.bestv.remote.cache;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.context.ServerContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个 @RemoteService 的负缓存集合，每个开启负缓存的方法一个
+ *
+ * @author taojiacheng
+ */
+public class NegativeCaches {
+
+    /**
+     * 未开启负缓存的方法占位
+     */
+    private static final NegativeCache DISABLED = new NegativeCache("disabled", new Class[0], new int[0], false, 0);
+
+    private final ServerContext serverContext;
+
+    private final Map<Method, NegativeCache> caches = new ConcurrentHashMap<>();
+
+    public NegativeCaches(ServerContext serverContext) {
+        this.serverContext = serverContext;
+    }
+
+    /**
+     * 获取方法对应的负缓存
+     *
+     * @param method 方法
+     * @return 负缓存，未开启时返回 null
+     */
+    public NegativeCache get(Method method) {
+        NegativeCache cache = caches.get(method);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(method, this::newCache);
+        }
+        return cache == DISABLED ? null : cache;
+    }
+
+    private NegativeCache newCache(Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.negativeCache()) {
+            return DISABLED;
+        }
+        return new NegativeCache(serverContext.getServiceName() + "$" + method.getName(),
+                remoteFunction.negativeCacheFor(), remoteFunction.negativeCacheStatus(),
+                remoteFunction.negativeCacheEmpty(), remoteFunction.negativeCacheMaxSize());
+    }
+}
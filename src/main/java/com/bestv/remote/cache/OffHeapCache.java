@@ -0,0 +1,393 @@
+package com.bestv.remote.cache;
+
+import com.bestv.remote.convert.JsonSerializer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 堆外缓存
+ * <p>
+ * 结果序列化为 json 字节后保存在 direct 内存或内存映射文件中，堆上只保留索引，大量缓存结果不会进入老年代。
+ * 内存按 1MB 的页按需分配，直到容量上限; 每页切分为同一规格的块 (slab)，块大小从 64 字节起按 1.25 倍递增，
+ * 结果放入能容纳它的最小规格的块。
+ * <p>
+ * 没有空闲块且不能再分配新页时，淘汰同一规格中最久未访问的结果; 页分配给某个规格后不再回收，
+ * 容量已全部分给其他规格时该规格的结果不缓存 (计入 rejections)。单个结果不超过 1 页，超过时不缓存
+ * <p>
+ * 锁内只维护索引、LRU 顺序和空闲块，字节复制在锁外进行: 读取时引用计数钉住块，被淘汰或覆盖的块在最后一个读取结束后才回收;
+ * 写入时先在锁内取出空闲块，锁外写入字节，再在锁内加入索引
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class OffHeapCache {
+
+    /**
+     * 页大小，也是单个结果的上限
+     */
+    public static final int PAGE_SIZE = 1 << 20;
+
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private static final int[] CHUNK_SIZES = chunkSizes();
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final long capacity;
+
+    /**
+     * 内存映射文件，使用 direct 内存时为 null
+     */
+    private final FileChannel channel;
+
+    private final SlabClass[] slabClasses = new SlabClass[CHUNK_SIZES.length];
+
+    private final List<ByteBuffer> pages = new ArrayList<>();
+
+    private final Map<String, Slot> index = new HashMap<>();
+
+    private long usedBytes;
+
+    private long chunkBytes;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long expirations;
+
+    private long rejections;
+
+    /**
+     * @param name      缓存名称
+     * @param capacity  容量 (字节)
+     * @param directory 内存映射文件目录，为空时使用 direct 内存
+     */
+    public OffHeapCache(String name, long capacity, String directory) {
+        this.name = name;
+        this.capacity = capacity;
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            slabClasses[i] = new SlabClass(CHUNK_SIZES[i]);
+        }
+        if (StringUtils.isEmpty(directory)) {
+            this.channel = null;
+            return;
+        }
+        try {
+            File dir = new File(directory);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("can not create directory " + directory);
+            }
+            File file = File.createTempFile(name + "-", ".slab", dir);
+            file.deleteOnExit();
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            log.info("event=remote.offheap_cache.mapped cache={} file={}", name, file);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to create off-heap cache file in " + directory, e);
+        }
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @param key  缓存 key
+     * @param type 返回值类型
+     * @return 解码后的结果，未命中或已过期时返回 null
+     */
+    public Object get(String key, Type type) {
+        Slot slot;
+        ByteBuffer page;
+        synchronized (this) {
+            slot = index.get(key);
+            if (slot == null) {
+                misses++;
+                return null;
+            }
+            if (slot.expireAt - System.currentTimeMillis() <= 0) {
+                release(key, slot);
+                expirations++;
+                misses++;
+                return null;
+            }
+            // 更新 LRU 顺序
+            slabClasses[slot.slabClass].lru.get(key);
+            // 复制期间块不会被回收
+            slot.readers++;
+            page = pages.get(slot.page);
+            hits++;
+        }
+        byte[] bytes = new byte[slot.length];
+        try {
+            ByteBuffer in = page.duplicate();
+            in.position(slot.offset);
+            in.get(bytes);
+        } finally {
+            synchronized (this) {
+                if (--slot.readers == 0 && slot.released) {
+                    free(slot);
+                }
+            }
+        }
+        try {
+            return JsonSerializer.readerFor(type).readValue(bytes);
+        } catch (IOException e) {
+            log.warn("event=remote.offheap_cache.decode_failed cache={} reason={}", name, e.getMessage());
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * 写入缓存，null、无法序列化或超过 1 页的结果忽略
+     *
+     * @param key    缓存 key
+     * @param result 远程服务结果
+     * @param ttlMs  过期时间 (毫秒)
+     * @return 是否写入
+     */
+    public boolean put(String key, Object result, long ttlMs) {
+        if (result == null) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            bytes = JsonSerializer.getInstance().writeValueAsBytes(result);
+        } catch (IOException e) {
+            log.debug("event=remote.offheap_cache.skip cache={} reason={}", name, e.getMessage());
+            return false;
+        }
+        int slabClass = slabClassFor(bytes.length);
+        long address;
+        ByteBuffer page;
+        synchronized (this) {
+            Slot previous = index.get(key);
+            if (previous != null) {
+                release(key, previous);
+            }
+            if (slabClass < 0) {
+                rejections++;
+                return false;
+            }
+            address = allocate(slabClass);
+            if (address < 0) {
+                rejections++;
+                return false;
+            }
+            // 块已从空闲栈取出，加入索引前只有当前线程访问
+            page = pages.get((int) (address >>> 32));
+            usedBytes += bytes.length;
+            chunkBytes += CHUNK_SIZES[slabClass];
+        }
+        Slot slot = new Slot(slabClass, (int) (address >>> 32), (int) address, bytes.length,
+                System.currentTimeMillis() + ttlMs);
+        ByteBuffer out = page.duplicate();
+        out.position(slot.offset);
+        out.put(bytes);
+        synchronized (this) {
+            // 写入期间同一个 key 可能已被其他线程写入
+            Slot previous = index.get(key);
+            if (previous != null) {
+                release(key, previous);
+            }
+            index.put(key, slot);
+            slabClasses[slabClass].lru.put(key, slot);
+        }
+        return true;
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存 key
+     */
+    public synchronized void remove(String key) {
+        Slot slot = index.get(key);
+        if (slot != null) {
+            release(key, slot);
+        }
+    }
+
+    /**
+     * 内存占用和命中统计
+     */
+    public synchronized OffHeapCacheStats stats() {
+        return OffHeapCacheStats.builder()
+                .name(name)
+                .capacity(capacity)
+                .allocatedBytes((long) pages.size() * PAGE_SIZE)
+                .usedBytes(usedBytes)
+                .chunkBytes(chunkBytes)
+                .entries(index.size())
+                .hits(hits)
+                .misses(misses)
+                .evictions(evictions)
+                .expirations(expirations)
+                .rejections(rejections)
+                .build();
+    }
+
+    /**
+     * 分配一个块，返回 页下标 << 32 | 页内偏移; 无法分配时返回 -1
+     */
+    private long allocate(int slabClass) {
+        SlabClass slab = slabClasses[slabClass];
+        while (slab.size == 0) {
+            if ((long) (pages.size() + 1) * PAGE_SIZE <= capacity) {
+                newPage(slab);
+                break;
+            }
+            Iterator<Map.Entry<String, Slot>> iterator = slab.lru.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                // 内存已全部分给其他规格，或剩余的块都在读取中
+                return -1;
+            }
+            Map.Entry<String, Slot> eldest = iterator.next();
+            if (eldest.getValue().expireAt - System.currentTimeMillis() <= 0) {
+                expirations++;
+            } else {
+                evictions++;
+            }
+            // 正在读取的块延迟回收，继续淘汰下一个
+            release(eldest.getKey(), eldest.getValue());
+        }
+        return slab.free[--slab.size];
+    }
+
+    private void newPage(SlabClass slab) {
+        ByteBuffer page;
+        if (channel == null) {
+            page = ByteBuffer.allocateDirect(PAGE_SIZE);
+        } else {
+            try {
+                page = channel.map(FileChannel.MapMode.READ_WRITE, (long) pages.size() * PAGE_SIZE, PAGE_SIZE);
+            } catch (IOException e) {
+                throw new IllegalStateException("failed to map off-heap cache page of " + name, e);
+            }
+        }
+        long pageIndex = pages.size();
+        pages.add(page);
+        for (int offset = PAGE_SIZE - slab.chunkSize - PAGE_SIZE % slab.chunkSize; offset >= 0; offset -= slab.chunkSize) {
+            slab.push(pageIndex << 32 | offset);
+        }
+    }
+
+    private void release(String key, Slot slot) {
+        index.remove(key);
+        SlabClass slab = slabClasses[slot.slabClass];
+        slab.lru.remove(key);
+        usedBytes -= slot.length;
+        chunkBytes -= slab.chunkSize;
+        slot.released = true;
+        // 正在读取的块由最后一个读取线程回收
+        if (slot.readers == 0) {
+            free(slot);
+        }
+    }
+
+    private void free(Slot slot) {
+        slabClasses[slot.slabClass].push((long) slot.page << 32 | slot.offset);
+    }
+
+    /**
+     * 能容纳 length 字节的最小规格，超过 1 页时返回 -1
+     */
+    private static int slabClassFor(int length) {
+        int i = Arrays.binarySearch(CHUNK_SIZES, length);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i < CHUNK_SIZES.length ? i : -1;
+    }
+
+    private static int[] chunkSizes() {
+        List<Integer> sizes = new ArrayList<>();
+        int size = MIN_CHUNK_SIZE;
+        while (size < PAGE_SIZE / 2) {
+            sizes.add(size);
+            // 按 8 字节对齐
+            size = (int) (size * GROWTH_FACTOR + 7) & ~7;
+        }
+        sizes.add(PAGE_SIZE);
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 同一规格的块: 空闲块栈和 LRU 顺序
+     */
+    private static class SlabClass {
+
+        private final int chunkSize;
+
+        private final LinkedHashMap<String, Slot> lru = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long[] free = new long[16];
+
+        private int size;
+
+        private SlabClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        private void push(long address) {
+            if (size == free.length) {
+                free = Arrays.copyOf(free, size * 2);
+            }
+            free[size++] = address;
+        }
+    }
+
+    /**
+     * 结果在堆外内存中的位置
+     */
+    private static class Slot {
+
+        private final int slabClass;
+
+        private final int page;
+
+        private final int offset;
+
+        private final int length;
+
+        private final long expireAt;
+
+        /**
+         * 正在锁外复制字节的读取线程数，在锁内修改
+         */
+        private int readers;
+
+        /**
+         * 已从索引移除，在锁内修改
+         */
+        private boolean released;
+
+        private Slot(int slabClass, int page, int offset, int length, long expireAt) {
+            this.slabClass = slabClass;
+            this.page = page;
+            this.offset = offset;
+            this.length = length;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.bestv.remote.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 堆外缓存统计快照
+ * <p>
+ * 计数均为累计值; usedBytes 为结果的实际字节数，chunkBytes 为占用块的总大小，两者之差为块内碎片
+ *
+ * @author taojiacheng
+ */
+@Getter
+@Builder
+@ToString
+public class OffHeapCacheStats {
+
+    private final String name;
+
+    /**
+     * 容量 (字节)
+     */
+    private final long capacity;
+
+    /**
+     * 已分配的堆外内存 (字节)
+     */
+    private final long allocatedBytes;
+
+    private final long usedBytes;
+
+    private final long chunkBytes;
+
+    private final int entries;
+
+    private final long hits;
+
+    private final long misses;
+
+    /**
+     * 空间不足时淘汰的结果数
+     */
+    private final long evictions;
+
+    private final long expirations;
+
+    /**
+     * 超过 1 页或没有可用空间而未缓存的结果数
+     */
+    private final long rejections;
+}
@@ -0,0 +1,52 @@
+package com.bestv.remote.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 堆外缓存登记中心，每个使用堆外缓存的远程服务一个
+ *
+ * @author taojiacheng
+ */
+public class OffHeapCaches {
+
+    private final static Map<String, OffHeapCache> CACHES = new ConcurrentHashMap<>();
+
+    private final static List<Consumer<OffHeapCache>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private OffHeapCaches() {
+    }
+
+    /**
+     * 登记堆外缓存
+     *
+     * @param cache 堆外缓存
+     */
+    public static void register(OffHeapCache cache) {
+        CACHES.put(cache.getName(), cache);
+        LISTENERS.forEach(listener -> listener.accept(cache));
+    }
+
+    /**
+     * 监听堆外缓存的登记，已登记的缓存也会回调
+     *
+     * @param listener 回调
+     */
+    public static void addListener(Consumer<OffHeapCache> listener) {
+        LISTENERS.add(listener);
+        CACHES.values().forEach(listener);
+    }
+
+    /**
+     * 所有堆外缓存的统计快照
+     */
+    public static List<OffHeapCacheStats> snapshot() {
+        List<OffHeapCacheStats> snapshots = new ArrayList<>(CACHES.size());
+        CACHES.values().forEach(cache -> snapshots.add(cache.stats()));
+        return snapshots;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bestv.remote.codec;
+
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.convert.JsonBody;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * 请求体/响应体编解码器
+ * <p>
+ * 通过 {@link com.bestv.remote.annotation.RemoteService#codec()} 或
+ * {@link com.bestv.remote.annotation.RemoteFunction#codec()} 按名称选择;
+ * 选择后 JSON_BODY 请求体按 {@link #mediaType()} 编码，Accept 优先该格式，json 作为兜底;
+ * 响应按实际的 Content-Type 选择编解码器或 json 解码。
+ * <p>
+ * 自定义实现通过 META-INF/services/com.bestv.remote.codec.BodyCodec 注册
+ *
+ * @author taojiacheng
+ */
+public interface BodyCodec {
+
+    /**
+     * 编解码器名称，注解中引用
+     */
+    String name();
+
+    /**
+     * 请求体和响应体的 Content-Type
+     */
+    MediaType mediaType();
+
+    /**
+     * 是否支持解码为该类型，解析方法上下文时检查
+     *
+     * @param type 方法的泛型返回类型
+     */
+    default boolean canRead(Type type) {
+        return true;
+    }
+
+    /**
+     * 取出需要编码的请求体，默认与 json 请求体结构一致
+     *
+     * @param paramContext 参数上下文
+     */
+    default Object requestBody(ParamContext paramContext) {
+        return JsonBody.of(paramContext);
+    }
+
+    /**
+     * 编码请求体
+     *
+     * @param body {@link #requestBody(ParamContext)} 的结果
+     * @return 请求体字节
+     */
+    byte[] encode(Object body) throws IOException;
+
+    /**
+     * 解码响应体，由调用方关闭输入流
+     *
+     * @param inputStream 响应体
+     * @param type        方法的泛型返回类型
+     * @return 解码结果
+     */
+    Object decode(InputStream inputStream, Type type) throws IOException;
+}
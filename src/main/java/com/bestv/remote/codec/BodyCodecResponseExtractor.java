@@ -0,0 +1,50 @@
+package com.bestv.remote.codec;
+
+import com.bestv.remote.convert.JsonReaderResponseExtractor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * 按响应的 Content-Type 选择解码方式
+ * <p>
+ * 与编解码器格式一致时使用编解码器，否则 (服务端不支持该格式时返回 json) 使用 json 解码
+ *
+ * @author taojiacheng
+ */
+public class BodyCodecResponseExtractor implements ResponseExtractor<ResponseEntity<Object>> {
+
+    private final BodyCodec codec;
+
+    private final Type type;
+
+    private final JsonReaderResponseExtractor jsonExtractor;
+
+    public BodyCodecResponseExtractor(BodyCodec codec, Type type, JsonReaderResponseExtractor jsonExtractor) {
+        this.codec = codec;
+        this.type = type;
+        this.jsonExtractor = jsonExtractor;
+    }
+
+    @Override
+    public ResponseEntity<Object> extractData(ClientHttpResponse response) throws IOException {
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType == null || !codec.mediaType().isCompatibleWith(contentType)) {
+            return jsonExtractor.extractData(response);
+        }
+        Object body = null;
+        if (JsonReaderResponseExtractor.hasBody(response.getRawStatusCode(), response.getHeaders().getContentLength())) {
+            try {
+                body = codec.decode(response.getBody(), type);
+            } catch (IOException e) {
+                throw new HttpMessageNotReadableException(codec.name() + " parse error: " + e.getMessage(), e, response);
+            }
+        }
+        return ResponseEntity.status(response.getRawStatusCode()).headers(response.getHeaders()).body(body);
+    }
+}
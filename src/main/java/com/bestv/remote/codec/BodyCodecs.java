@@ -0,0 +1,85 @@
+package com.bestv.remote.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编解码器注册表
+ * <p>
+ * 内置 smile、cbor、protobuf (依赖存在时注册)，并通过 ServiceLoader 加载自定义实现;
+ * json 不经过编解码器，使用 restTemplate 的消息转换器
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class BodyCodecs {
+
+    public final static String JSON = "json";
+
+    public final static String SMILE = "smile";
+
+    public final static String CBOR = "cbor";
+
+    public final static MediaType SMILE_MEDIA_TYPE = new MediaType("application", "x-jackson-smile");
+
+    public final static MediaType CBOR_MEDIA_TYPE = new MediaType("application", "cbor");
+
+    private final static Map<String, BodyCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        ClassLoader classLoader = BodyCodecs.class.getClassLoader();
+        registerJackson(SMILE, SMILE_MEDIA_TYPE, "com.fasterxml.jackson.dataformat.smile.SmileFactory", classLoader);
+        registerJackson(CBOR, CBOR_MEDIA_TYPE, "com.fasterxml.jackson.dataformat.cbor.CBORFactory", classLoader);
+        if (ClassUtils.isPresent("com.google.protobuf.Message", classLoader)) {
+            register(new ProtobufBodyCodec());
+        }
+        for (BodyCodec codec : ServiceLoader.load(BodyCodec.class, classLoader)) {
+            register(codec);
+        }
+    }
+
+    private BodyCodecs() {
+    }
+
+    /**
+     * 注册编解码器，同名时覆盖
+     */
+    public static void register(BodyCodec codec) {
+        CODECS.put(codec.name(), codec);
+    }
+
+    /**
+     * 按名称获取编解码器
+     *
+     * @param name 编解码器名称
+     * @return 编解码器，json 时为 null
+     */
+    public static BodyCodec get(String name) {
+        if (JSON.equals(name)) {
+            return null;
+        }
+        BodyCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("unknown codec : " + name + ", registered : " + CODECS.keySet());
+        }
+        return codec;
+    }
+
+    private static void registerJackson(String name, MediaType mediaType, String factoryClass, ClassLoader classLoader) {
+        if (!ClassUtils.isPresent(factoryClass, classLoader)) {
+            return;
+        }
+        try {
+            JsonFactory jsonFactory = (JsonFactory) ClassUtils.forName(factoryClass, classLoader).getDeclaredConstructor().newInstance();
+            register(new JacksonBodyCodec(name, mediaType, jsonFactory));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("event=remote.codec codec={} unavailable : {}", name, e.getMessage());
+        }
+    }
+}
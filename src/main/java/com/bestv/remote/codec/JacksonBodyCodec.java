@@ -0,0 +1,66 @@
+package com.bestv.remote.codec;
+
+import com.bestv.remote.convert.JsonSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 jackson 数据格式的二进制编解码器 (smile、cbor)
+ * <p>
+ * 与 {@link JsonSerializer} 使用相同的配置，请求/响应对象与 json 时一致
+ *
+ * @author taojiacheng
+ */
+public class JacksonBodyCodec implements BodyCodec {
+
+    private final String name;
+
+    private final MediaType mediaType;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonBodyCodec(String name, MediaType mediaType, JsonFactory jsonFactory) {
+        this.name = name;
+        this.mediaType = mediaType;
+        this.objectMapper = JsonSerializer.newObjectMapper(jsonFactory);
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    @Override
+    public byte[] encode(Object body) throws IOException {
+        return writer.writeValueAsBytes(body);
+    }
+
+    @Override
+    public Object decode(InputStream inputStream, Type type) throws IOException {
+        ObjectReader reader = readers.computeIfAbsent(type,
+                key -> objectMapper.readerFor(objectMapper.getTypeFactory().constructType(key)));
+        try (JsonParser parser = reader.getFactory().createParser(inputStream)) {
+            return parser.nextToken() == null ? null : reader.readValue(parser);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bestv.remote.codec;
+
+import com.bestv.remote.context.ParamContext;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * protobuf 编解码器，请求体和返回类型为 protoc 生成的消息类
+ * <p>
+ * 请求体为唯一的 JSON_BODY 消息参数; 解码使用消息类的 parser，按类型缓存
+ *
+ * @author taojiacheng
+ */
+public class ProtobufBodyCodec implements BodyCodec {
+
+    public final static String NAME = "protobuf";
+
+    public final static MediaType MEDIA_TYPE = new MediaType("application", "x-protobuf");
+
+    private final static ClassValue<Parser<?>> PARSERS = new ClassValue<Parser<?>>() {
+        @Override
+        protected Parser<?> computeValue(Class<?> type) {
+            try {
+                Message defaultInstance = (Message) type.getMethod("getDefaultInstance").invoke(null);
+                return defaultInstance.getParserForType();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("not a generated protobuf message : " + type.getName(), e);
+            }
+        }
+    };
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public boolean canRead(Type type) {
+        return Message.class.isAssignableFrom(ResolvableType.forType(type).toClass());
+    }
+
+    @Override
+    public Object requestBody(ParamContext paramContext) {
+        Message body = null;
+        for (Object param : paramContext.getRequestParams().values()) {
+            if (param instanceof Message) {
+                if (body != null) {
+                    throw new IllegalArgumentException("protobuf request body must be a single message");
+                }
+                body = (Message) param;
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public byte[] encode(Object body) {
+        return body == null ? new byte[0] : ((Message) body).toByteArray();
+    }
+
+    @Override
+    public Object decode(InputStream inputStream, Type type) throws IOException {
+        return PARSERS.get(ResolvableType.forType(type).toClass()).parseFrom(inputStream);
+    }
+}
@@ -2,26 +2,95 @@ package com.bestv.remote.configuration;
 
 import com.bestv.remote.interfaces.ProxyCreators;
 import com.bestv.remote.interfaces.impl.creators.JdkProxyCreators;
+import com.bestv.remote.refresh.RemoteServiceRefresher;
+import com.bestv.remote.warmup.RemoteServiceWarmUp;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.FactoryBean;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 远程调用服务factoryBean
+ * <p>
+ * 创建期间把所在上下文的预热、刷新组件绑定到当前线程，远程服务的预热、刷新任务登记到创建它的上下文
  *
  * @author taojiacheng
  */
-public class RemoteServiceFactoryBean implements FactoryBean<Object> {
+public class RemoteServiceFactoryBean implements FactoryBean<Object>, BeanFactoryAware {
+
+    private final static JdkProxyCreators PROXY_CREATORS = new JdkProxyCreators();
 
-    private final static ProxyCreators PROXY_CREATORS = new JdkProxyCreators();
+    /**
+     * 代理创建器类型 -> 实例，同一类型的创建器在所有远程服务间共享
+     */
+    private final static Map<Class<?>, ProxyCreators> CREATORS_CACHE = new ConcurrentHashMap<>();
 
     private final Class<?> remoteServiceClass;
 
+    /**
+     * 编译期生成的实现类，为 null 时使用动态代理
+     */
+    private final Class<?> remoteClientClass;
+
+    /**
+     * 代理创建器类型
+     */
+    private final Class<?> proxyCreatorsClass;
+
+    private BeanFactory beanFactory;
+
     public RemoteServiceFactoryBean(Class<?> remoteServiceClass) {
+        this(remoteServiceClass, null);
+    }
+
+    public RemoteServiceFactoryBean(Class<?> remoteServiceClass, Class<?> remoteClientClass) {
+        this(remoteServiceClass, remoteClientClass, JdkProxyCreators.class);
+    }
+
+    public RemoteServiceFactoryBean(Class<?> remoteServiceClass, Class<?> remoteClientClass, Class<?> proxyCreatorsClass) {
         this.remoteServiceClass = remoteServiceClass;
+        this.remoteClientClass = remoteClientClass;
+        this.proxyCreatorsClass = proxyCreatorsClass == null ? JdkProxyCreators.class : proxyCreatorsClass;
+    }
+
+    @Override
+    public void setBeanFactory(@NotNull BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
     }
 
     @Override
-    public Object getObject() {
-        return PROXY_CREATORS.createProxy(remoteServiceClass);
+    public Object getObject() throws NoSuchMethodException {
+        RemoteServiceWarmUp previousWarmUp = RemoteServiceWarmUp.bind(
+                beanFactory == null ? null : beanFactory.getBeanProvider(RemoteServiceWarmUp.class).getIfAvailable());
+        RemoteServiceRefresher previousRefresher = RemoteServiceRefresher.bind(
+                beanFactory == null ? null : beanFactory.getBeanProvider(RemoteServiceRefresher.class).getIfAvailable());
+        try {
+            return createObject();
+        } finally {
+            RemoteServiceWarmUp.bind(previousWarmUp);
+            RemoteServiceRefresher.bind(previousRefresher);
+        }
+    }
+
+    private Object createObject() throws NoSuchMethodException {
+        ProxyCreators proxyCreators = getProxyCreators();
+        if (remoteClientClass != null) {
+            JdkProxyCreators creators = proxyCreators instanceof JdkProxyCreators ? (JdkProxyCreators) proxyCreators : PROXY_CREATORS;
+            return BeanUtils.instantiateClass(remoteClientClass.getConstructor(JdkProxyCreators.class), creators);
+        }
+        return proxyCreators.createProxy(remoteServiceClass);
+    }
+
+    private ProxyCreators getProxyCreators() {
+        if (proxyCreatorsClass == JdkProxyCreators.class) {
+            return PROXY_CREATORS;
+        }
+        return CREATORS_CACHE.computeIfAbsent(proxyCreatorsClass,
+                type -> (ProxyCreators) BeanUtils.instantiateClass(type));
     }
 
     @Override
@@ -0,0 +1,131 @@
+package com.bestv.remote.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.SpringProperties;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期生成的远程服务索引
+ * <p>
+ * 由 remote-service-processor 生成，每行一条:
+ * <pre>
+ * 接口全限定名=生成的实现类全限定名
+ * package 生成索引的模块编译的包名
+ * </pre>
+ * 注册器只扫描索引未覆盖的 basePackages: basePackage 本身是某个索引声明的包时，直接按索引注册其下 (含子包) 的接口，
+ * 其他 jar 的索引不会遮住本地未生成索引的接口; 扫描到的接口在索引中有实现类时同样使用实现类。
+ * 与 spring.components 相同，可通过 remote-service.index.ignore=true 忽略索引
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public final class RemoteServiceIndex {
+
+    /**
+     * 索引文件位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/remote-service.index";
+
+    /**
+     * 忽略索引的开关 (系统属性或 spring.properties)
+     */
+    public static final String IGNORE_INDEX = "remote-service.index.ignore";
+
+    /**
+     * 声明包名的行前缀
+     */
+    public static final String PACKAGE_PREFIX = "package ";
+
+    /**
+     * 接口名 -> 实现类名
+     */
+    private final Map<String, String> clients = new LinkedHashMap<>();
+
+    /**
+     * 索引声明的包名
+     */
+    private final Set<String> packages = new LinkedHashSet<>();
+
+    private RemoteServiceIndex() {
+    }
+
+    /**
+     * 加载所有 jar 中的索引
+     *
+     * @param classLoader 类加载器
+     * @return 索引, 没有索引或忽略索引时为空
+     */
+    public static RemoteServiceIndex load(ClassLoader classLoader) {
+        RemoteServiceIndex index = new RemoteServiceIndex();
+        if (SpringProperties.getFlag(IGNORE_INDEX)) {
+            return index;
+        }
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        index.parse(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load remote service index from location [" + INDEX_LOCATION + "]", e);
+        }
+        log.debug("load remote service index : clients={} packages={}", index.clients, index.packages);
+        return index;
+    }
+
+    private void parse(String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        if (line.startsWith(PACKAGE_PREFIX)) {
+            packages.add(line.substring(PACKAGE_PREFIX.length()).trim());
+            return;
+        }
+        int separator = line.indexOf('=');
+        if (separator > 0) {
+            clients.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+        }
+    }
+
+    /**
+     * basePackage 是否由索引覆盖，覆盖时不需要扫描
+     *
+     * @param basePackage 扫描路径
+     * @return true 某个索引声明了该包
+     */
+    public boolean covers(String basePackage) {
+        return packages.contains(basePackage);
+    }
+
+    /**
+     * 接口对应的生成实现类
+     *
+     * @param className 接口名
+     * @return 实现类名, 没有索引时为 null
+     */
+    public String getClientClassName(String className) {
+        return clients.get(className);
+    }
+
+    /**
+     * @return 接口名 -> 实现类名
+     */
+    public Map<String, String> getClients() {
+        return clients;
+    }
+}
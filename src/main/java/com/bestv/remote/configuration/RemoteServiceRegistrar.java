@@ -2,6 +2,7 @@ package com.bestv.remote.configuration;
 
 import com.bestv.remote.annotation.EnableRemoteService;
 import com.bestv.remote.annotation.RemoteService;
+import com.bestv.remote.interfaces.impl.creators.JdkProxyCreators;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.lang.NonNull;
@@ -31,16 +33,39 @@ import java.util.Set;
  */
 public class RemoteServiceRegistrar implements ImportBeanDefinitionRegistrar {
 
+    /**
+     * @EnableRemoteService 指定的代理创建器
+     */
+    private Class<?> proxyCreators = JdkProxyCreators.class;
+
     @Override
     public void registerBeanDefinitions(@NonNull AnnotationMetadata annotationMetadata, @NonNull BeanDefinitionRegistry registry) {
+        Set<String> basePackages = getBasePackages(annotationMetadata);
+        this.proxyCreators = getProxyCreators(annotationMetadata);
+        /**
+         * 编译期索引覆盖的 basePackage 直接读取索引，不扫描classpath；
+         * 其余 basePackage (未经注解处理器编译、或只有其他 jar 的索引) 仍然扫描
+         */
+        RemoteServiceIndex index = RemoteServiceIndex.load(this.getClass().getClassLoader());
+        Set<String> registered = new HashSet<>();
+        Set<String> scanPackages = new HashSet<>();
+        for (String basePackage : basePackages) {
+            if (index.covers(basePackage)) {
+                registerFromIndex(registry, basePackage, index, registered);
+            } else {
+                scanPackages.add(basePackage);
+            }
+        }
+        if (scanPackages.isEmpty()) {
+            return;
+        }
         /**
          * 查找classpath下所有符合条件的对象
          */
         ClassPathScanningCandidateComponentProvider scanner = getScanner();
         scanner.addIncludeFilter(new AnnotationTypeFilter(RemoteService.class));
-        Set<String> basePackages = getBasePackages(annotationMetadata);
         Set<BeanDefinition> candidateComponents = new HashSet<>();
-        for (String basePackage : basePackages) {
+        for (String basePackage : scanPackages) {
             candidateComponents.addAll(scanner.findCandidateComponents(basePackage));
         }
         for (BeanDefinition candidateComponent : candidateComponents) {
@@ -49,14 +74,39 @@ public class RemoteServiceRegistrar implements ImportBeanDefinitionRegistrar {
                 AnnotationMetadata beanDefinitionMeta = beanDefinition.getMetadata();
                 String className = beanDefinitionMeta.getClassName();
                 Assert.isTrue(beanDefinitionMeta.isInterface(), "@RemoteService 只能标记 interface");
+                if (!registered.add(className)) {
+                    continue;
+                }
                 Map<String, Object> attributes = beanDefinitionMeta.getAnnotationAttributes(RemoteService.class.getCanonicalName());
                 attributes = attributes == null ? new HashMap<>() : attributes;
-                registerRemoteService(registry, className, attributes);
+                registerRemoteService(registry, className, index.getClientClassName(className), attributes);
             }
         }
     }
 
 
+    /**
+     * 根据编译期索引注册 basePackage 下 (含子包) 的远程服务
+     *
+     * @param registry    registry
+     * @param basePackage 扫描路径
+     * @param index       编译期索引
+     * @param registered  已注册的接口名
+     */
+    protected void registerFromIndex(BeanDefinitionRegistry registry, String basePackage, RemoteServiceIndex index,
+                                     Set<String> registered) {
+        index.getClients().forEach((className, clientClassName) -> {
+            if (!className.startsWith(basePackage + ".") || !registered.add(className)) {
+                return;
+            }
+            Class<?> resolveClass = ClassUtils.resolveClassName(className, this.getClass().getClassLoader());
+            RemoteService remoteService = resolveClass.getAnnotation(RemoteService.class);
+            Assert.notNull(remoteService, "indexed remote service is missing @RemoteService : " + className);
+            registerRemoteService(registry, className, clientClassName, AnnotationUtils.getAnnotationAttributes(remoteService));
+        });
+    }
+
+
     protected Set<String> getBasePackages(AnnotationMetadata importingClassMetadata) {
         Map<String, Object> attributes = importingClassMetadata
                 .getAnnotationAttributes(EnableRemoteService.class.getCanonicalName());
@@ -73,8 +123,19 @@ public class RemoteServiceRegistrar implements ImportBeanDefinitionRegistrar {
         return basePackages;
     }
 
+    protected Class<?> getProxyCreators(AnnotationMetadata importingClassMetadata) {
+        Map<String, Object> attributes = importingClassMetadata
+                .getAnnotationAttributes(EnableRemoteService.class.getCanonicalName());
+        Object proxyCreators = attributes == null ? null : attributes.get("proxyCreators");
+        return proxyCreators instanceof Class ? (Class<?>) proxyCreators : JdkProxyCreators.class;
+    }
+
+    /**
+     * @param clientClassName 编译期生成的实现类, 为 null 时使用动态代理
+     */
     protected void registerRemoteService(BeanDefinitionRegistry registry,
                                          String className,
+                                         String clientClassName,
                                          Map<String, Object> attributes) {
 
         // 获取beanName
@@ -90,6 +151,9 @@ public class RemoteServiceRegistrar implements ImportBeanDefinitionRegistrar {
         BeanDefinitionBuilder definition = BeanDefinitionBuilder
                 .genericBeanDefinition(RemoteServiceFactoryBean.class);
         definition.addConstructorArgValue(resolveClass);
+        definition.addConstructorArgValue(clientClassName == null ? null
+                : ClassUtils.resolveClassName(clientClassName, this.getClass().getClassLoader()));
+        definition.addConstructorArgValue(proxyCreators);
 
         AbstractBeanDefinition beanDefinition = definition.getBeanDefinition();
         BeanDefinitionHolder holder = new BeanDefinitionHolder(beanDefinition, serviceId, new String[]{});
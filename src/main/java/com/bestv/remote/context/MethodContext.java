@@ -1,22 +1,34 @@
 package com.bestv.remote.context;
 
+import com.bestv.remote.codec.BodyCodec;
+import com.bestv.remote.enums.CacheStoreType;
+import com.bestv.remote.enums.ResponseStreamType;
 import com.bestv.remote.interfaces.BlockHandler;
 import com.bestv.remote.interfaces.FallbackHandler;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.*;
 import org.springframework.http.HttpMethod;
 
+import java.lang.reflect.Type;
+import java.util.Map;
+
 /**
  * 请求方法上下文对象
  *
  * @author taojiacheng
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
 public class MethodContext {
 
+    /**
+     * 方法标识 类名$方法名
+     */
+    private String methodKey;
+
     /**
      * 请求url
      */
@@ -32,6 +44,22 @@ public class MethodContext {
      */
     private Class<?> returnType;
 
+    /**
+     * 返回对象的泛型类型
+     */
+    private Type genericReturnType;
+
+    /**
+     * 响应解码器, 流式响应时为元素的解码器; 字符串、字节数组等不经过 json 解码的类型为 null
+     */
+    @ToString.Exclude
+    private ObjectReader responseReader;
+
+    /**
+     * 请求体/响应体编解码器, json 时为 null
+     */
+    @ToString.Exclude
+    private BodyCodec codec;
 
     /**
      * 重试次数
@@ -86,6 +114,55 @@ public class MethodContext {
     private Class<? extends BlockHandler> blockHandler;
 
 
+    /**
+     * 是否单独维护自适应并发上限
+     */
+    private boolean adaptiveConcurrency;
+
+
+    /**
+     * 流式响应类型, 非流式时为 null
+     */
+    private ResponseStreamType responseStream;
+
+
+    /**
+     * 流式响应的元素类型
+     */
+    private Type streamElementType;
+
+
+    /**
+     * 表单字段名的编码缓存, 同一方法的调用共享
+     */
+    @ToString.Exclude
+    private Map<String, byte[]> formKeys;
+
+
+    /**
+     * 缓存时间 (秒)
+     */
+    private int cacheExpireIn;
+
+
+    /**
+     * 缓存存储
+     */
+    private CacheStoreType cacheStore;
+
+
+    /**
+     * 负缓存时间 (毫秒)
+     */
+    private long negativeCacheTtl;
+
+
+    /**
+     * 最近成功结果的最大陈旧时间 (毫秒)
+     */
+    private long lastKnownGoodMaxStaleness;
+
+
     /**
      * finalUrl
      */
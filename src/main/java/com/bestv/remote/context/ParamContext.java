@@ -4,6 +4,7 @@ import lombok.*;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 请求参数上下文
@@ -38,10 +39,20 @@ public class ParamContext {
     private Map<String, Object> pathParams = new LinkedHashMap<>();
 
     /**
-     * 请求体
+     * 请求体 (FORM 参数)
+     * <p>
+     * JSON_BODY 参数保存在 {@link #jsonBody}，发送时不再展开到这里; 执行 FallbackHandler、BlockHandler 前
+     * 按原来的规则展开，处理器中读取的请求体包含 JSON_BODY 参数。其他位置读取完整请求参数请使用 {@link #requestParams}
      */
     private Map<String, Object> requestBody = new LinkedHashMap<>();
 
+    /**
+     * json 请求体 {@link com.bestv.remote.enums.ParamType#JSON_BODY}, key: 参数名  val: 参数值
+     * 参数不展开为 map，发送时由 {@link com.bestv.remote.convert.JsonBody} 直接序列化
+     */
+    @Builder.Default
+    private Map<String, Object> jsonBody = new LinkedHashMap<>();
+
     /**
      * 缓存key
      */
@@ -54,4 +65,20 @@ public class ParamContext {
      */
     private Map<String, Object> requestParams = new LinkedHashMap<>();
 
+    /**
+     * 流式消费响应的回调 {@link com.bestv.remote.enums.ParamType#CONSUMER}
+     */
+    private Consumer<Object> responseConsumer;
+
+    /**
+     * multipart 文件 {@link com.bestv.remote.enums.ParamType#FILE}, key: 字段名  val: Path、File 或 FileChannel
+     */
+    @Builder.Default
+    private Map<String, Object> fileParts = new LinkedHashMap<>();
+
+    /**
+     * 下载文件的保存位置 {@link com.bestv.remote.enums.ParamType#DOWNLOAD_TARGET}, Path 或 File
+     */
+    private Object downloadTarget;
+
 }
@@ -1,5 +1,7 @@
 package com.bestv.remote.context;
 
+import com.bestv.remote.enums.BulkheadType;
+import com.bestv.remote.enums.RecordReplayMode;
 import lombok.*;
 
 /**
@@ -50,4 +52,134 @@ public class ServerContext {
      */
     private long keepAliveDuration;
 
+    /**
+     * 是否开启自适应并发限制
+     */
+    private boolean adaptiveConcurrency;
+
+    /**
+     * 自适应并发初始上限
+     */
+    private int initialConcurrency;
+
+    /**
+     * 自适应并发最小上限
+     */
+    private int minConcurrency;
+
+    /**
+     * 自适应并发最大上限
+     */
+    private int maxConcurrency;
+
+    /**
+     * 舱壁隔离类型
+     */
+    private BulkheadType bulkheadType;
+
+    /**
+     * 舱壁最大并发调用数
+     */
+    private int bulkheadMaxConcurrent;
+
+    /**
+     * 舱壁线程池队列长度
+     */
+    private int bulkheadQueueSize;
+
+    /**
+     * 舱壁排队超时时间 (ms)
+     */
+    private long bulkheadMaxWait;
+
+    /**
+     * trace_log 采样率
+     */
+    private double traceLogSampleRate;
+
+    /**
+     * trace_log 响应截断长度
+     */
+    private int traceLogMaxResponseLength;
+
+    /**
+     * 请求、响应内容日志采样率
+     */
+    private double payloadLogSampleRate;
+
+    /**
+     * 请求、响应内容日志截断长度
+     */
+    private int payloadLogMaxLength;
+
+    /**
+     * 是否启动预热
+     */
+    private boolean warmUp;
+
+    /**
+     * 预热建立的连接数
+     */
+    private int warmUpConnections;
+
+    /**
+     * 预热调用的接口路径
+     */
+    private String[] warmUpEndpoints;
+
+    /**
+     * 返回值校验采样率
+     */
+    private double responseValidationSampleRate;
+
+    /**
+     * 是否开启 http 语义的响应缓存
+     */
+    private boolean httpCache;
+
+    /**
+     * http 缓存内存上限 (字节)
+     */
+    private long httpCacheMaxSize;
+
+    /**
+     * http 缓存磁盘目录，为空时不使用磁盘缓存
+     */
+    private String httpCacheDirectory;
+
+    /**
+     * http 缓存磁盘上限 (字节)
+     */
+    private long httpCacheDiskMaxSize;
+
+    /**
+     * 堆外缓存容量 (字节)
+     */
+    private long offHeapCacheSize;
+
+    /**
+     * 堆外缓存的内存映射文件目录，为空时使用 direct 内存
+     */
+    private String offHeapCacheDirectory;
+
+    /**
+     * 录制/回放模式
+     */
+    private RecordReplayMode recordReplay;
+
+    /**
+     * 录制文件目录
+     */
+    private String recordReplayDirectory;
+
+    /**
+     * 回放时是否复现录制时的耗时
+     */
+    private boolean replayLatency;
+
+    /**
+     * 录制文件容量 (字节)
+     */
+    private long recordMaxSize;
+
 }
@@ -0,0 +1,62 @@
+package com.bestv.remote.convert;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * 以 FileChannel 为内容的请求体
+ * <p>
+ * 通过 transferTo 直接写入连接，不把文件读入堆内存；
+ * 从创建时的 position 开始按绝对位置读取，不修改 channel 的 position，重试时可重复写出
+ *
+ * @author taojiacheng
+ */
+public class FileChannelRequestBody extends RequestBody {
+
+    private final FileChannel channel;
+
+    private final MediaType contentType;
+
+    private final long position;
+
+    private final long count;
+
+    public FileChannelRequestBody(FileChannel channel, MediaType contentType) {
+        this.channel = channel;
+        this.contentType = contentType;
+        try {
+            this.position = channel.position();
+            this.count = channel.size() - position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return count;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        long written = 0;
+        while (written < count) {
+            long transferred = channel.transferTo(position + written, count - written, sink);
+            if (transferred <= 0) {
+                throw new IOException("file channel ended before " + count + " bytes were written");
+            }
+            written += transferred;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bestv.remote.convert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 表单请求体
+ * <p>
+ * 由绑定的 FORM 参数直接编码为 application/x-www-form-urlencoded 字节，不经过 MultiValueMap;
+ * 集合参数展开为多个同名字段，字段名的编码结果按方法缓存
+ *
+ * @author taojiacheng
+ */
+public class FormUrlEncodedBody {
+
+    /**
+     * 单个方法缓存的字段名上限，map 参数的 key 不固定时不再缓存
+     */
+    private final static int MAX_CACHED_KEYS = 256;
+
+    private final Map<String, Object> fields;
+
+    private final Map<String, byte[]> encodedKeys;
+
+    private byte[] encoded;
+
+    /**
+     * @param fields      表单字段
+     * @param encodedKeys 字段名编码缓存，为 null 时不缓存
+     */
+    public FormUrlEncodedBody(Map<String, Object> fields, Map<String, byte[]> encodedKeys) {
+        this.fields = fields;
+        this.encodedKeys = encodedKeys;
+    }
+
+    /**
+     * 编码后的请求体，只编码一次
+     */
+    public byte[] toByteArray() {
+        if (encoded == null) {
+            FormUrlEncoder encoder = new FormUrlEncoder(fields.size() * 16);
+            fields.forEach((key, val) -> {
+                byte[] encodedKey = encodedKey(key);
+                if (val instanceof Collection) {
+                    for (Object element : (Collection<?>) val) {
+                        appendField(encoder, encodedKey, element);
+                    }
+                } else {
+                    appendField(encoder, encodedKey, val);
+                }
+            });
+            encoded = encoder.toByteArray();
+        }
+        return encoded;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(toByteArray());
+    }
+
+    private void appendField(FormUrlEncoder encoder, byte[] encodedKey, Object val) {
+        if (encoder.size() > 0) {
+            encoder.appendRaw('&');
+        }
+        encoder.appendRaw(encodedKey).appendRaw('=').append(String.valueOf(val));
+    }
+
+    private byte[] encodedKey(String key) {
+        if (encodedKeys == null) {
+            return FormUrlEncoder.encode(key);
+        }
+        byte[] encodedKey = encodedKeys.get(key);
+        if (encodedKey == null) {
+            encodedKey = FormUrlEncoder.encode(key);
+            if (encodedKeys.size() < MAX_CACHED_KEYS) {
+                encodedKeys.put(key, encodedKey);
+            }
+        }
+        return encodedKey;
+    }
+}
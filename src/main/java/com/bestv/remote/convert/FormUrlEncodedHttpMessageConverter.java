@@ -0,0 +1,58 @@
+package com.bestv.remote.convert;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 将 {@link FormUrlEncodedBody} 编码后的字节直接写入请求体
+ *
+ * @author taojiacheng
+ */
+public class FormUrlEncodedHttpMessageConverter extends AbstractHttpMessageConverter<FormUrlEncodedBody> {
+
+    public FormUrlEncodedHttpMessageConverter() {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_FORM_URLENCODED);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FormUrlEncodedBody.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected FormUrlEncodedBody readInternal(Class<? extends FormUrlEncodedBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("FormUrlEncodedBody is write only", inputMessage);
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, FormUrlEncodedBody body, MediaType contentType) throws IOException {
+        super.addDefaultHeaders(headers, body, contentType);
+        // 与 FormHttpMessageConverter 一致声明字符集
+        MediaType headerContentType = headers.getContentType();
+        if (headerContentType != null && headerContentType.getCharset() == null) {
+            headers.setContentType(new MediaType(headerContentType, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    protected Long getContentLength(FormUrlEncodedBody body, MediaType contentType) {
+        return (long) body.toByteArray().length;
+    }
+
+    @Override
+    protected void writeInternal(FormUrlEncodedBody body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,124 @@
+package com.bestv.remote.convert;
+
+import java.util.Arrays;
+
+/**
+ * application/x-www-form-urlencoded 编码，直接写入字节缓冲区
+ * <p>
+ * 与 URLEncoder.encode(s, UTF-8) 结果一致: 字母、数字和 . - * _ 原样输出，空格为 +，其他字符按 UTF-8 百分号编码
+ *
+ * @author taojiacheng
+ */
+public final class FormUrlEncoder {
+
+    private final static boolean[] UNRESERVED = new boolean[128];
+
+    private final static byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['.'] = true;
+        UNRESERVED['-'] = true;
+        UNRESERVED['*'] = true;
+        UNRESERVED['_'] = true;
+    }
+
+    private byte[] buffer;
+
+    private int size;
+
+    public FormUrlEncoder(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * 编码单个字符串
+     */
+    public static byte[] encode(CharSequence value) {
+        FormUrlEncoder encoder = new FormUrlEncoder(value.length() + 8);
+        encoder.append(value);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * 追加已编码的字节
+     */
+    public FormUrlEncoder appendRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public FormUrlEncoder appendRaw(char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+        return this;
+    }
+
+    /**
+     * 编码并追加
+     */
+    public FormUrlEncoder append(CharSequence value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 128 && UNRESERVED[c]) {
+                ensureCapacity(1);
+                buffer[size++] = (byte) c;
+            } else if (c == ' ') {
+                ensureCapacity(1);
+                buffer[size++] = '+';
+            } else if (c < 0x80) {
+                percent(c);
+            } else if (c < 0x800) {
+                percent(0xC0 | (c >> 6));
+                percent(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                percent(0xF0 | (codePoint >> 18));
+                percent(0x80 | ((codePoint >> 12) & 0x3F));
+                percent(0x80 | ((codePoint >> 6) & 0x3F));
+                percent(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符，与 URLEncoder 一致编码为 ?
+                percent('?');
+            } else {
+                percent(0xE0 | (c >> 12));
+                percent(0x80 | ((c >> 6) & 0x3F));
+                percent(0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private void percent(int b) {
+        ensureCapacity(3);
+        buffer[size++] = '%';
+        buffer[size++] = HEX[(b >> 4) & 0xF];
+        buffer[size++] = HEX[b & 0xF];
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + additional));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bestv.remote.convert;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 逐个元素解码顶层 json 数组
+ * <p>
+ * 同一时刻只持有一个元素，读到数组结尾、解码失败或调用 close 时关闭底层资源 (释放连接)
+ *
+ * @author taojiacheng
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final ObjectReader elementReader;
+
+    private final JsonParser parser;
+
+    private final Closeable resource;
+
+    private T next;
+
+    /**
+     * next 是否已读取，数组元素可能为 null
+     */
+    private boolean fetched;
+
+    private boolean closed;
+
+    /**
+     * @param elementReader 数组元素的 ObjectReader
+     * @param inputStream   响应体
+     * @param resource      读取结束后需要关闭的资源
+     */
+    public JsonArrayIterator(ObjectReader elementReader, InputStream inputStream, Closeable resource) throws IOException {
+        this.elementReader = elementReader;
+        this.resource = resource;
+        try {
+            this.parser = elementReader.getFactory().createParser(inputStream);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                close();
+            } else if (token != JsonToken.START_ARRAY) {
+                throw new IOException("streaming response must be a json array, but was " + token);
+            }
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (fetched) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+            next = elementReader.readValue(parser);
+            fetched = true;
+            return true;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = next;
+        next = null;
+        fetched = false;
+        return element;
+    }
+
+    /**
+     * 转换为 Stream，关闭 Stream 时释放连接
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::closeQuietly);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        next = null;
+        fetched = false;
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } finally {
+            resource.close();
+        }
+    }
+
+    public void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // 连接已不可用
+        }
+    }
+}
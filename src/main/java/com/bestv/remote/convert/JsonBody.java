@@ -0,0 +1,95 @@
+package com.bestv.remote.convert;
+
+import com.bestv.remote.context.ParamContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import org.springframework.beans.BeanUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * json 请求体
+ * <p>
+ * JSON_BODY 参数不再经过 beanToMap 转换，序列化时直接写出:
+ * 只有一个对象参数时该对象即请求体; 多个参数时逐个写出字段，对象参数的属性展开到请求体顶层，
+ * 与原来合并 map 的结构一致，同时保留 jackson 注解
+ *
+ * @author taojiacheng
+ */
+@JsonSerialize(using = JsonBody.Serializer.class)
+public class JsonBody {
+
+    private final Map<String, Object> parts;
+
+    public JsonBody(Map<String, Object> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * 参数上下文中的 json 请求体: FORM 字段在前，JSON_BODY 参数在后
+     */
+    public static JsonBody of(ParamContext paramContext) {
+        if (paramContext.getRequestBody().isEmpty()) {
+            return new JsonBody(paramContext.getJsonBody());
+        }
+        Map<String, Object> parts = new LinkedHashMap<>(paramContext.getRequestBody());
+        parts.putAll(paramContext.getJsonBody());
+        return new JsonBody(parts);
+    }
+
+    /**
+     * 是否作为字段写出 (参数名: 参数值)，否则对象参数的属性展开写出
+     */
+    static boolean isField(Object value) {
+        return value == null || BeanUtils.isSimpleValueType(value.getClass()) || value instanceof Collection
+                || value.getClass().isArray();
+    }
+
+    public static class Serializer extends JsonSerializer<JsonBody> {
+
+        @Override
+        public void serialize(JsonBody body, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Map<String, Object> parts = body.parts;
+            if (parts.size() == 1) {
+                Object value = parts.values().iterator().next();
+                if (!isField(value)) {
+                    provider.findTypedValueSerializer(value.getClass(), true, null).serialize(value, gen, provider);
+                    return;
+                }
+            }
+            gen.writeStartObject();
+            for (Map.Entry<String, Object> part : parts.entrySet()) {
+                writePart(part.getKey(), part.getValue(), gen, provider);
+            }
+            gen.writeEndObject();
+        }
+
+        private void writePart(String name, Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (isField(value)) {
+                provider.defaultSerializeField(name, value, gen);
+                return;
+            }
+            if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    provider.defaultSerializeField(String.valueOf(entry.getKey()), entry.getValue(), gen);
+                }
+                return;
+            }
+            JsonSerializer<Object> serializer = provider.findValueSerializer(value.getClass());
+            JsonSerializer<Object> unwrapping = serializer.unwrappingSerializer(NameTransformer.NOP);
+            if (unwrapping.isUnwrappingSerializer()) {
+                unwrapping.serialize(value, gen, provider);
+            } else {
+                // 自定义序列化器无法展开，按字段写出
+                gen.writeFieldName(name);
+                serializer.serialize(value, gen, provider);
+            }
+        }
+    }
+}
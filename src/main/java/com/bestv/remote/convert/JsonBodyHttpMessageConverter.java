@@ -0,0 +1,58 @@
+package com.bestv.remote.convert;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 使用预先构建的 ObjectWriter 将 {@link JsonBody} 直接写入请求体
+ *
+ * @author taojiacheng
+ */
+public class JsonBodyHttpMessageConverter extends AbstractHttpMessageConverter<JsonBody> {
+
+    private final ObjectWriter writer;
+
+    /**
+     * @param objectMapper 与 restTemplate 的 json 消息转换器相同的 objectMapper
+     */
+    public JsonBodyHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.writer = objectMapper.writerFor(JsonBody.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * 写出请求体，不关闭输出流
+     */
+    public void write(JsonBody body, OutputStream outputStream) throws IOException {
+        writer.writeValue(outputStream, body);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonBody.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonBody readInternal(Class<? extends JsonBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonBody is write only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(JsonBody body, HttpOutputMessage outputMessage) throws IOException {
+        write(body, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,52 @@
+package com.bestv.remote.convert;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+
+/**
+ * 使用预先构建的 ObjectReader 解码响应体
+ * <p>
+ * 替代 restTemplate 按返回类型逐个匹配消息转换器的过程，泛型返回类型直接解码为目标类型;
+ * 响应体为空时结果为 null
+ *
+ * @author taojiacheng
+ */
+public class JsonReaderResponseExtractor implements ResponseExtractor<ResponseEntity<Object>> {
+
+    private final ObjectReader reader;
+
+    public JsonReaderResponseExtractor(ObjectReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ResponseEntity<Object> extractData(ClientHttpResponse response) throws IOException {
+        int rawStatus = response.getRawStatusCode();
+        Object body = null;
+        if (hasBody(rawStatus, response.getHeaders().getContentLength())) {
+            try (JsonParser parser = reader.getFactory().createParser(response.getBody())) {
+                if (parser.nextToken() != null) {
+                    body = reader.readValue(parser);
+                }
+            } catch (IOException e) {
+                throw new HttpMessageNotReadableException("JSON parse error: " + e.getMessage(), e, response);
+            }
+        }
+        return ResponseEntity.status(rawStatus).headers(response.getHeaders()).body(body);
+    }
+
+    /**
+     * 响应是否包含响应体: 1xx、204、304 以及 Content-Length 为 0 时没有
+     */
+    public static boolean hasBody(int rawStatus, long contentLength) {
+        return rawStatus >= 200 && rawStatus != HttpStatus.NO_CONTENT.value()
+                && rawStatus != HttpStatus.NOT_MODIFIED.value() && contentLength != 0;
+    }
+}
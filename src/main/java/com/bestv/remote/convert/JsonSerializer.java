@@ -3,43 +3,141 @@ package com.bestv.remote.convert;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.SpringProperties;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * objectMapper 单例工厂
+ * <p>
+ * 按类型缓存 ObjectReader，各服务的 restHandler 共用同一份反序列化器。
+ * <p>
+ * {@link #getInstance()} 用于缓存、录制等本地序列化; {@link #getHttpInstance()} 与 restTemplate 默认的 json 消息转换器配置一致，
+ * 用于 http 请求体和响应体，请求和响应使用同一份配置。两者的 Date 反序列化都同时接受 ISO-8601 和 yyyy-MM-dd HH:mm:ss
  *
  * @author taojiacheng
  */
+@Slf4j
 public class JsonSerializer {
 
+    /**
+     * 开启后注册字节码访问器模块 (blackbird 或 afterburner，需自行引入依赖)
+     */
+    public final static String BYTECODE_ACCESSORS_PROPERTY = "remote-service.jackson.bytecode-accessors";
+
+    private final static String[] BYTECODE_ACCESSOR_MODULES = {
+            "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+            "com.fasterxml.jackson.module.afterburner.AfterburnerModule"
+    };
+
     private final static ObjectMapper INSTANCE;
 
+    private final static ObjectMapper HTTP_INSTANCE;
+
+    private final static Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private final static Map<Type, ObjectReader> HTTP_READERS = new ConcurrentHashMap<>();
+
     static {
-        INSTANCE = new ObjectMapper();
+        INSTANCE = newObjectMapper(null);
+        HTTP_INSTANCE = Jackson2ObjectMapperBuilder.json()
+                .deserializerByType(Date.class, new LenientDateDeserializer())
+                .build();
+        if (SpringProperties.getFlag(BYTECODE_ACCESSORS_PROPERTY)) {
+            registerBytecodeAccessors(HTTP_INSTANCE);
+        }
+    }
+
+    private JsonSerializer() {
+    }
+
+    public static ObjectMapper getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * http 请求体、响应体使用的 objectMapper
+     */
+    public static ObjectMapper getHttpInstance() {
+        return HTTP_INSTANCE;
+    }
+
+    /**
+     * 使用统一配置创建 objectMapper
+     *
+     * @param jsonFactory 数据格式，如 smile、cbor; 为 null 时为 json
+     * @return 新的 objectMapper
+     */
+    public static ObjectMapper newObjectMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
         SimpleModule simpleModule = new SimpleModule();
         // 防止精度丢失 long 序列化为字符串
         simpleModule.addSerializer(Long.class, ToStringSerializer.instance);
-        INSTANCE.registerModule(simpleModule);
+        simpleModule.addDeserializer(Date.class, new LenientDateDeserializer());
+        objectMapper.registerModule(simpleModule);
         // Asia/Shanghai
-        INSTANCE.setTimeZone(TimeZone.getTimeZone("Asia/Shanghai"));
-        INSTANCE.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
-        INSTANCE.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        INSTANCE.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        INSTANCE.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        INSTANCE.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        objectMapper.setTimeZone(TimeZone.getTimeZone("Asia/Shanghai"));
+        objectMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        if (SpringProperties.getFlag(BYTECODE_ACCESSORS_PROPERTY)) {
+            registerBytecodeAccessors(objectMapper);
+        }
+        return objectMapper;
     }
 
-    private JsonSerializer() {
+    /**
+     * 获取指定类型 (支持泛型) 的 ObjectReader，根反序列化器在创建时构建
+     *
+     * @param type 目标类型，如 method.getGenericReturnType()
+     * @return 缓存的 ObjectReader
+     */
+    public static ObjectReader readerFor(Type type) {
+        return READERS.computeIfAbsent(type, key -> INSTANCE.readerFor(INSTANCE.getTypeFactory().constructType(key)));
     }
 
-    public static ObjectMapper getInstance() {
-        return INSTANCE;
+    /**
+     * 获取解码 http 响应体的 ObjectReader，与 json 请求体使用同一个 objectMapper
+     *
+     * @param type 目标类型，如 method.getGenericReturnType()
+     * @return 缓存的 ObjectReader
+     */
+    public static ObjectReader httpReaderFor(Type type) {
+        return HTTP_READERS.computeIfAbsent(type, key -> HTTP_INSTANCE.readerFor(HTTP_INSTANCE.getTypeFactory().constructType(key)));
+    }
+
+    private static void registerBytecodeAccessors(ObjectMapper objectMapper) {
+        ClassLoader classLoader = JsonSerializer.class.getClassLoader();
+        for (String moduleClass : BYTECODE_ACCESSOR_MODULES) {
+            if (!ClassUtils.isPresent(moduleClass, classLoader)) {
+                continue;
+            }
+            try {
+                objectMapper.registerModule((Module) ClassUtils.forName(moduleClass, classLoader).getDeclaredConstructor().newInstance());
+                log.info("event=remote.jackson module={}", moduleClass);
+                return;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("event=remote.jackson module={} failed : {}", moduleClass, e.getMessage());
+            }
+        }
+        log.warn("event=remote.jackson {} is set but neither blackbird nor afterburner is on the classpath", BYTECODE_ACCESSORS_PROPERTY);
     }
 }
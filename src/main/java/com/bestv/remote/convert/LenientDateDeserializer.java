@@ -0,0 +1,72 @@
+package com.bestv.remote.convert;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * 宽松的 Date 反序列化器
+ * <p>
+ * 先按 objectMapper 配置的日期格式解析，失败时依次尝试 ISO-8601 (StdDateFormat) 和 yyyy-MM-dd HH:mm:ss (Asia/Shanghai)，
+ * 服务端返回两种格式的日期都可以解码; 只影响反序列化，序列化格式不变
+ *
+ * @author taojiacheng
+ */
+public class LenientDateDeserializer extends DateDeserializers.DateDeserializer {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final TimeZone PATTERN_TIME_ZONE = TimeZone.getTimeZone("Asia/Shanghai");
+
+    public LenientDateDeserializer() {
+        super();
+    }
+
+    private LenientDateDeserializer(LenientDateDeserializer base, DateFormat df, String formatString) {
+        super(base, df, formatString);
+    }
+
+    /**
+     * 字段上通过 @JsonFormat 指定格式时同样保留回退解析
+     */
+    @Override
+    protected LenientDateDeserializer withDateFormat(DateFormat df, String formatString) {
+        return new LenientDateDeserializer(this, df, formatString);
+    }
+
+    @Override
+    protected Date _parseDate(String value, DeserializationContext ctxt) throws IOException {
+        try {
+            return super._parseDate(value, ctxt);
+        } catch (InvalidFormatException e) {
+            Date date = parseFallback(value.trim(), ctxt.getTimeZone());
+            if (date == null) {
+                throw e;
+            }
+            return date;
+        }
+    }
+
+    private static Date parseFallback(String value, TimeZone timeZone) {
+        StdDateFormat iso = new StdDateFormat().withTimeZone(timeZone);
+        SimpleDateFormat pattern = new SimpleDateFormat(PATTERN);
+        pattern.setTimeZone(PATTERN_TIME_ZONE);
+        pattern.setLenient(false);
+        for (DateFormat format : new DateFormat[]{iso, pattern}) {
+            try {
+                return format.parse(value);
+            } catch (ParseException ignored) {
+                // 尝试下一种格式
+            }
+        }
+        return null;
+    }
+}
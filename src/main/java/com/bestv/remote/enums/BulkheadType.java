@@ -0,0 +1,26 @@
+package com.bestv.remote.enums;
+
+/**
+ * 舱壁隔离类型
+ *
+ * @author taojiacheng
+ */
+public enum BulkheadType {
+
+    /**
+     * 不隔离，在调用方线程执行
+     */
+    NONE,
+
+    /**
+     * 信号量隔离
+     * 在调用方线程执行，限制同一服务的在途调用数
+     */
+    SEMAPHORE,
+
+    /**
+     * 线程池隔离
+     * 在服务独占的有界线程池中执行，调用方线程等待结果
+     */
+    THREAD_POOL;
+}
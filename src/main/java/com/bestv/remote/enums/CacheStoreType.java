@@ -0,0 +1,20 @@
+package com.bestv.remote.enums;
+
+/**
+ * 远程服务结果的缓存存储
+ *
+ * @author taojiacheng
+ */
+public enum CacheStoreType {
+
+    /**
+     * redis 缓存，多个节点共享
+     */
+    REDIS,
+
+    /**
+     * 本地堆外缓存，结果序列化后保存在堆外内存，不占用堆空间
+     * 容量由 {@link com.bestv.remote.annotation.RemoteService#offHeapCacheSize()} 指定
+     */
+    OFF_HEAP;
+}
@@ -58,5 +58,29 @@ public enum ParamType {
      * 如果开启缓存，未指定CACHE_KEY，默认会取入参全字段的摘要值作为缓存key
      * 指定 CACHE_KEY 时,取指定CACHE_KEY 的参数值作为缓存key
      */
-    CACHE_KEY;
+    CACHE_KEY,
+
+    /**
+     * 流式消费响应
+     * <p>
+     * 参数类型为 Consumer&lt;T&gt;，响应体为顶层 json 数组，逐个元素解码后回调，内存占用与数组长度无关
+     * <p>
+     * 注: 方法返回值须为 void; 不支持缓存; 配置重试时失败后会从头重新回调
+     */
+    CONSUMER,
+
+    /**
+     * multipart 文件
+     * <p>
+     * 参数类型为 Path、File 或 FileChannel，请求以 multipart/form-data 发出，文件内容直接写入连接，不读入堆内存;
+     * 同一方法中的 FORM 参数作为文本字段一并发出
+     */
+    FILE,
+
+    /**
+     * 下载文件的保存位置
+     * <p>
+     * 参数类型为 Path 或 File，方法返回值须为 Path 或 File; 未指定时保存到临时文件
+     */
+    DOWNLOAD_TARGET;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.bestv.remote.enums;
+
+/**
+ * 远程调用的录制/回放模式
+ *
+ * @author taojiacheng
+ */
+public enum RecordReplayMode {
+
+    /**
+     * 不录制也不回放
+     */
+    OFF,
+
+    /**
+     * 正常调用远程服务，并把请求和结果追加到录制文件
+     */
+    RECORD,
+
+    /**
+     * 不访问网络，从录制文件返回结果
+     * 按 {@link com.bestv.remote.annotation.RemoteService#replayLatency()} 决定是否复现录制时的耗时
+     */
+    REPLAY;
+}
@@ -0,0 +1,38 @@
+package com.bestv.remote.enums;
+
+/**
+ * 流式响应类型
+ * <p>
+ * 响应体不整体解码，连接在流关闭 (或读取完毕) 时释放
+ *
+ * @author taojiacheng
+ */
+public enum ResponseStreamType {
+
+    /**
+     * 返回 InputStream，调用方读取原始响应体
+     */
+    INPUT_STREAM,
+
+    /**
+     * 返回 Stream&lt;T&gt;，顶层 json 数组逐个元素解码
+     * <p>
+     * 注: 需要在 try-with-resources 中使用或读取完毕，否则连接不会释放
+     */
+    STREAM,
+
+    /**
+     * 返回 Iterator&lt;T&gt;，顶层 json 数组逐个元素解码，读取完毕后自动释放连接
+     */
+    ITERATOR,
+
+    /**
+     * 通过 {@link ParamType#CONSUMER} 参数回调，顶层 json 数组逐个元素解码，调用返回前释放连接
+     */
+    CONSUMER,
+
+    /**
+     * 返回 Path 或 File，响应体通过 FileChannel 直接写入磁盘 {@link ParamType#DOWNLOAD_TARGET}
+     */
+    FILE
+}
@@ -0,0 +1,21 @@
+package com.bestv.remote.exceptions;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * 舱壁已满，调用被拒绝
+ * <p>
+ * 不参与 sentinel 异常统计，直接进入降级流程
+ *
+ * @author taojiacheng
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    public BulkheadFullException(String messageTemplate, Object... params) {
+        super(StrUtil.format(messageTemplate, params));
+    }
+}
@@ -0,0 +1,17 @@
+package com.bestv.remote.exceptions;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+/**
+ * 内置熔断器处于打开状态，请求被拒绝
+ * <p>
+ * 继承 BlockException，与 sentinel 熔断一样进入 BlockHandler 处理流程
+ *
+ * @author taojiacheng
+ */
+public class CircuitBreakerOpenException extends BlockException {
+
+    public CircuitBreakerOpenException(String breakerName) {
+        super("default", "circuit breaker is open : " + breakerName);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bestv.remote.exceptions;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+/**
+ * 超出自适应并发上限，请求被拒绝
+ * <p>
+ * 继承 BlockException，与 sentinel 熔断一样进入 BlockHandler 处理流程
+ *
+ * @author taojiacheng
+ */
+public class ConcurrencyLimitException extends BlockException {
+
+    public ConcurrencyLimitException(String limiterName, int limit) {
+        super("default", "concurrency limit exceeded, limiter: " + limiterName + ", limit: " + limit);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bestv.remote.exceptions;
 
 import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
 
 /**
  * http 客户端异常，不走熔断降级
@@ -9,23 +10,44 @@ import cn.hutool.core.util.StrUtil;
  */
 public class Http4xxException extends RuntimeException {
 
+    /**
+     * 响应状态码，未知时为 0
+     */
+    @Getter
+    private final int statusCode;
+
+    public Http4xxException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public Http4xxException(int statusCode, String message, Throwable throwable) {
+        super(message, throwable);
+        this.statusCode = statusCode;
+    }
+
     public Http4xxException(Throwable e) {
         super(e.getMessage(), e);
+        this.statusCode = 0;
     }
 
     public Http4xxException(String message) {
         super(message);
+        this.statusCode = 0;
     }
 
     public Http4xxException(String messageTemplate, Object... params) {
         super(StrUtil.format(messageTemplate, params));
+        this.statusCode = 0;
     }
 
     public Http4xxException(String message, Throwable throwable) {
         super(message, throwable);
+        this.statusCode = 0;
     }
 
     public Http4xxException(String message, Throwable throwable, boolean enableSuppression, boolean writableStackTrace) {
         super(message, throwable, enableSuppression, writableStackTrace);
+        this.statusCode = 0;
     }
 }
@@ -0,0 +1,90 @@
+package com.bestv.remote.exceptions;
+
+import cn.hutool.core.util.StrUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import java.nio.charset.Charset;
+
+/**
+ * 命中负缓存，未调用远程服务
+ * <p>
+ * 每次命中创建新的异常，堆栈为本次调用方，缓存的原始失败作为 cause。
+ * 能够重建的类型 ({@link Http4xxException}、{@link RestClientResponseException}、{@link ResourceAccessException})
+ * 按缓存的状态码、消息和响应体创建同类型的异常，调用方 catch 原始类型的逻辑在命中与未命中时一致;
+ * 其他类型抛出本异常，降级时按 cause 的类型匹配 fallbackFor
+ *
+ * @author taojiacheng
+ */
+public class NegativeCacheHitException extends RuntimeException {
+
+    public NegativeCacheHitException(String cacheName, Throwable cachedFailure) {
+        super(StrUtil.format("negative cache [{}] hit : {}", cacheName, cachedFailure), cachedFailure);
+    }
+
+    /**
+     * 创建命中负缓存时抛出的异常
+     *
+     * @param cacheName     负缓存名称
+     * @param cachedFailure 缓存的原始失败
+     * @return 与原始失败同类型的新异常，无法重建时为 NegativeCacheHitException
+     */
+    public static RuntimeException of(String cacheName, Throwable cachedFailure) {
+        RuntimeException rebuilt = rebuild(cachedFailure);
+        return rebuilt != null ? rebuilt : new NegativeCacheHitException(cacheName, cachedFailure);
+    }
+
+    /**
+     * 负缓存命中时返回缓存的原始失败，否则返回自身
+     *
+     * @param e 调用异常
+     * @return 用于判断异常类型的失败
+     */
+    public static Throwable unwrap(Throwable e) {
+        return e instanceof NegativeCacheHitException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static RuntimeException rebuild(Throwable failure) {
+        if (failure instanceof Http4xxException) {
+            Http4xxException e = (Http4xxException) failure;
+            return new Http4xxException(e.getStatusCode(), e.getMessage(), e);
+        }
+        if (failure instanceof RestClientResponseException) {
+            RestClientResponseException rebuilt = httpError((RestClientResponseException) failure);
+            rebuilt.initCause(failure);
+            return rebuilt;
+        }
+        if (failure instanceof ResourceAccessException) {
+            ResourceAccessException rebuilt = new ResourceAccessException(failure.getMessage());
+            rebuilt.initCause(failure);
+            return rebuilt;
+        }
+        return null;
+    }
+
+    private static RestClientResponseException httpError(RestClientResponseException e) {
+        HttpHeaders headers = e.getResponseHeaders() == null ? HttpHeaders.EMPTY : e.getResponseHeaders();
+        MediaType contentType = headers.getContentType();
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        byte[] body = e.getResponseBodyAsByteArray();
+        HttpStatus status = HttpStatus.resolve(e.getRawStatusCode());
+        if (e instanceof HttpClientErrorException && status != null) {
+            return HttpClientErrorException.create(e.getMessage(), status, e.getStatusText(), headers, body, charset);
+        }
+        if (e instanceof HttpServerErrorException && status != null) {
+            return HttpServerErrorException.create(e.getMessage(), status, e.getStatusText(), headers, body, charset);
+        }
+        if (e instanceof UnknownHttpStatusCodeException) {
+            return new UnknownHttpStatusCodeException(e.getMessage(), e.getRawStatusCode(), e.getStatusText(), headers,
+                    body, charset);
+        }
+        return new RestClientResponseException(e.getMessage(), e.getRawStatusCode(), e.getStatusText(), headers, body,
+                charset);
+    }
+}
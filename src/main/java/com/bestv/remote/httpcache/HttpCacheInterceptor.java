@@ -0,0 +1,354 @@
+package com.bestv.remote.httpcache;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 http 语义缓存 GET 响应的内存缓存 (okHttp 应用拦截器)
+ * <p>
+ * 新鲜度由 Cache-Control (max-age、no-cache、no-store)、Expires、Age、Date 决定，没有显式过期时间时按
+ * Last-Modified 的 10% 估算; 过期后携带 If-None-Match / If-Modified-Since 重新验证，304 时合并响应头并返回缓存的响应体。
+ * 非 GET 请求使对应 url 的缓存失效。
+ * <p>
+ * 每个服务一个缓存，由所有用户的请求共用，按共享缓存处理 (RFC 7234 3、3.2): 不缓存 Cache-Control: private 的响应;
+ * 请求携带 Authorization、Cookie 或其他按调用传入的请求头 (不在 Vary 中) 时，只有响应声明 public、s-maxage 或
+ * must-revalidate 才缓存，避免把一个用户的响应返回给其他用户。
+ * <p>
+ * 按 LRU 淘汰，总大小不超过 maxSize，单个响应不超过 maxSize 的 1/8;
+ * 磁盘缓存由 okHttp 的 Cache 在本拦截器之后处理
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class HttpCacheInterceptor implements Interceptor {
+
+    /**
+     * 内容协商、缓存控制等不区分用户的请求头，其余请求头视为按用户传入
+     */
+    private static final Set<String> SHARED_REQUEST_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        Collections.addAll(SHARED_REQUEST_HEADERS, "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language",
+                "Content-Type", "Content-Length", "Cache-Control", "Pragma", "If-None-Match", "If-Modified-Since",
+                "User-Agent");
+    }
+
+    private final String serviceName;
+
+    private final long maxSize;
+
+    private final long maxEntrySize;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    public HttpCacheInterceptor(String serviceName, long maxSize) {
+        this.serviceName = serviceName;
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxSize / 8;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = request.url().toString();
+        if (!"GET".equals(request.method())) {
+            Response response = chain.proceed(request);
+            if (!"HEAD".equals(request.method())) {
+                remove(key);
+            }
+            return response;
+        }
+        CacheControl requestCacheControl = request.cacheControl();
+        if (requestCacheControl.noStore()) {
+            return chain.proceed(request);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = get(key);
+        if (entry != null && !entry.matchesVary(request)) {
+            entry = null;
+        }
+        if (entry != null && !requestCacheControl.noCache() && entry.isFresh(now, requestCacheControl)) {
+            log.debug("event=remote.http_cache service={} url={} result=hit", serviceName, key);
+            return entry.toResponse(request, now, now);
+        }
+        Request networkRequest = request;
+        if (entry != null && entry.hasValidators() && request.header("If-None-Match") == null
+                && request.header("If-Modified-Since") == null) {
+            Request.Builder conditional = request.newBuilder();
+            if (entry.etag != null) {
+                conditional.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                conditional.header("If-Modified-Since", entry.lastModified);
+            }
+            networkRequest = conditional.build();
+        }
+        Response response = chain.proceed(networkRequest);
+        if (networkRequest != request && response.code() == 304) {
+            Entry revalidated = entry.revalidate(response);
+            response.close();
+            put(key, revalidated);
+            log.debug("event=remote.http_cache service={} url={} result=revalidated", serviceName, key);
+            return revalidated.toResponse(request, revalidated.sentAt, revalidated.receivedAt);
+        }
+        return store(key, request, response);
+    }
+
+    /**
+     * 缓存可以缓存的响应，响应体通过 peek 读取，不影响调用方继续读取
+     */
+    private Response store(String key, Request request, Response response) throws IOException {
+        if (response.code() != 200) {
+            return response;
+        }
+        CacheControl cacheControl = response.cacheControl();
+        boolean cacheable = !cacheControl.noStore() && !"*".equals(response.header("Vary"))
+                && (cacheControl.maxAgeSeconds() >= 0 || cacheControl.sMaxAgeSeconds() >= 0 || cacheControl.noCache()
+                || response.header("Expires") != null || response.header("ETag") != null
+                || response.header("Last-Modified") != null);
+        if (cacheable && !sharedCacheable(request, response)) {
+            // 按用户的响应不缓存，也不淘汰已缓存的公共响应
+            log.debug("event=remote.http_cache service={} url={} result=skip reason=private", serviceName, key);
+            return response;
+        }
+        ResponseBody body = response.body();
+        if (!cacheable || body == null || body.contentLength() > maxEntrySize) {
+            remove(key);
+            return response;
+        }
+        byte[] bytes = response.peekBody(maxEntrySize + 1).bytes();
+        if (bytes.length > maxEntrySize) {
+            remove(key);
+            return response;
+        }
+        put(key, new Entry(request, response, bytes));
+        log.debug("event=remote.http_cache service={} url={} result=stored size={}", serviceName, key, bytes.length);
+        return response;
+    }
+
+    /**
+     * RFC 7234 3、3.2: 共享缓存不能缓存 private 响应，带认证信息的请求只有响应显式允许时才缓存
+     */
+    private static boolean sharedCacheable(Request request, Response response) {
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.isPrivate()) {
+            return false;
+        }
+        if (cacheControl.isPublic() || cacheControl.sMaxAgeSeconds() >= 0 || cacheControl.mustRevalidate()) {
+            return true;
+        }
+        Set<String> varyNames = Entry.varyNames(response.headers());
+        for (String name : request.headers().names()) {
+            if (!SHARED_REQUEST_HEADERS.contains(name) && !varyNames.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.weight();
+        }
+        size += entry.weight();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getValue().weight();
+            iterator.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.weight();
+        }
+    }
+
+    /**
+     * 缓存的响应
+     */
+    private static class Entry {
+
+        private final String url;
+
+        /**
+         * Vary 中列出的请求头名称
+         */
+        private final Set<String> varyNames;
+
+        /**
+         * 缓存时这些请求头的值
+         */
+        private final Headers varyHeaders;
+
+        private final Headers headers;
+
+        private final byte[] body;
+
+        private final long sentAt;
+
+        private final long receivedAt;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        Entry(Request request, Response response, byte[] body) {
+            this(request.url().toString(), varyNames(response.headers()), request.headers(), response.headers(), body,
+                    response.sentRequestAtMillis(), response.receivedResponseAtMillis());
+        }
+
+        private Entry(String url, Set<String> varyNames, Headers requestHeaders, Headers headers, byte[] body,
+                      long sentAt, long receivedAt) {
+            this.url = url;
+            this.varyNames = varyNames;
+            Headers.Builder varyHeaders = new Headers.Builder();
+            for (String name : varyNames) {
+                for (String value : requestHeaders.values(name)) {
+                    varyHeaders.add(name, value);
+                }
+            }
+            this.varyHeaders = varyHeaders.build();
+            this.headers = headers;
+            this.body = body;
+            this.sentAt = sentAt;
+            this.receivedAt = receivedAt;
+            this.etag = headers.get("ETag");
+            this.lastModified = headers.get("Last-Modified");
+        }
+
+        boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        boolean matchesVary(Request request) {
+            for (String name : varyNames) {
+                if (!varyHeaders.values(name).equals(request.headers(name))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * RFC 7234 4.2: 当前年龄小于新鲜期
+         */
+        boolean isFresh(long now, CacheControl requestCacheControl) {
+            CacheControl cacheControl = CacheControl.parse(headers);
+            if (cacheControl.noCache()) {
+                return false;
+            }
+            Date servedDate = headers.getDate("Date");
+            long served = servedDate == null ? receivedAt : servedDate.getTime();
+            long age = Math.max(0, receivedAt - served) + (now - receivedAt);
+            String ageHeader = headers.get("Age");
+            if (ageHeader != null && ageHeader.matches("\\d{1,9}")) {
+                age += TimeUnit.SECONDS.toMillis(Long.parseLong(ageHeader));
+            }
+            long lifetime = freshnessLifetime(cacheControl, served);
+            if (requestCacheControl.maxAgeSeconds() >= 0) {
+                lifetime = Math.min(lifetime, TimeUnit.SECONDS.toMillis(requestCacheControl.maxAgeSeconds()));
+            }
+            if (requestCacheControl.minFreshSeconds() >= 0) {
+                age += TimeUnit.SECONDS.toMillis(requestCacheControl.minFreshSeconds());
+            }
+            return age < lifetime;
+        }
+
+        private long freshnessLifetime(CacheControl cacheControl, long served) {
+            // 共享缓存优先使用 s-maxage
+            if (cacheControl.sMaxAgeSeconds() >= 0) {
+                return TimeUnit.SECONDS.toMillis(cacheControl.sMaxAgeSeconds());
+            }
+            if (cacheControl.maxAgeSeconds() >= 0) {
+                return TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds());
+            }
+            Date expires = headers.getDate("Expires");
+            if (expires != null) {
+                return Math.max(0, expires.getTime() - served);
+            }
+            Date lastModifiedDate = headers.getDate("Last-Modified");
+            if (lastModifiedDate != null && !url.contains("?")) {
+                // 启发式新鲜期: 距上次修改时间的 10%
+                return Math.max(0, (served - lastModifiedDate.getTime()) / 10);
+            }
+            return 0;
+        }
+
+        /**
+         * 304 响应: 使用新的响应头 (内容相关的头除外) 更新缓存
+         */
+        Entry revalidate(Response notModified) {
+            Headers.Builder merged = headers.newBuilder();
+            for (String name : notModified.headers().names()) {
+                if ("Content-Length".equalsIgnoreCase(name) || "Content-Encoding".equalsIgnoreCase(name)
+                        || "Content-Type".equalsIgnoreCase(name) || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                    continue;
+                }
+                merged.removeAll(name);
+                for (String value : notModified.headers(name)) {
+                    merged.add(name, value);
+                }
+            }
+            return new Entry(url, varyNames, varyHeaders, merged.build(), body,
+                    notModified.sentRequestAtMillis(), notModified.receivedResponseAtMillis());
+        }
+
+        Response toResponse(Request request, long sentAt, long receivedAt) {
+            String contentType = headers.get("Content-Type");
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .headers(headers)
+                    .body(ResponseBody.create(body, contentType == null ? null : MediaType.parse(contentType)))
+                    .sentRequestAtMillis(sentAt)
+                    .receivedResponseAtMillis(receivedAt)
+                    .build();
+        }
+
+        long weight() {
+            return body.length + headers.byteCount() + url.length();
+        }
+
+        private static Set<String> varyNames(Headers responseHeaders) {
+            Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (String vary : responseHeaders.values("Vary")) {
+                for (String name : vary.split(",")) {
+                    if (!name.trim().isEmpty()) {
+                        names.add(name.trim());
+                    }
+                }
+            }
+            return names;
+        }
+    }
+}
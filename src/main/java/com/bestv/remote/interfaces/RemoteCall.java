@@ -0,0 +1,20 @@
+package com.bestv.remote.interfaces;
+
+/**
+ * 一次远程调用
+ * <p>
+ * 舱壁、熔断器等保护策略通过包装此接口组合在一起
+ *
+ * @author taojiacheng
+ */
+@FunctionalInterface
+public interface RemoteCall<T> {
+
+    /**
+     * 执行调用
+     *
+     * @return 调用结果
+     * @throws Throwable 调用异常
+     */
+    T call() throws Throwable;
+}
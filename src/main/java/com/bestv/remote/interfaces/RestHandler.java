@@ -4,6 +4,8 @@ import com.bestv.remote.context.MethodContext;
 import com.bestv.remote.context.ParamContext;
 import com.bestv.remote.context.ServerContext;
 
+import java.util.List;
+
 /**
  * @author taojiacheng
  */
@@ -23,4 +25,24 @@ public interface RestHandler {
      * @return 远程服务返回结果
      */
     Object invokeRest(MethodContext methodContext, ParamContext paramContext);
+
+    /**
+     * 启动预热: 建立连接、构建编解码器
+     * <p>
+     * 在应用就绪前调用一次，默认不做处理
+     *
+     * @param methodContexts 该服务所有方法的上下文
+     */
+    default void warmUp(List<MethodContext> methodContexts) {
+    }
+
+    /**
+     * 配置变更后替换远程服务信息
+     * <p>
+     * 默认不做处理
+     *
+     * @param serverContext 重新解析后的远程服务信息
+     */
+    default void refresh(ServerContext serverContext) {
+    }
 }
@@ -0,0 +1,105 @@
+package com.bestv.remote.interfaces.impl.creators;
+
+import com.bestv.remote.context.ParamContext;
+import lombok.SneakyThrows;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+
+/**
+ * 生成的远程服务实现类的基类 (编译期生成或运行时字节码生成)
+ * <p>
+ * 生成的实现类在每个接口方法中直接组装 ParamContext，不再通过反射解析参数注解；
+ * 方法上下文在构造时解析一次 (配置变更时重新解析)，调用时复制一份，之后与 JDK 代理走同一条调用链路
+ *
+ * @author taojiacheng
+ */
+public abstract class AbstractRemoteClient {
+
+    private final JdkProxyCreators creators;
+
+    private final ServiceRuntime runtime;
+
+    private final InvocationPlan[] plans;
+
+    /**
+     * @param creators 代理创建器，提供调用链路
+     * @param type     远程服务接口
+     * @param methods  接口方法，下标与生成代码中的方法下标一致
+     */
+    protected AbstractRemoteClient(JdkProxyCreators creators, Class<?> type, Method... methods) {
+        this.creators = creators;
+        this.runtime = creators.createServiceRuntime(type);
+        this.plans = new InvocationPlan[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            plans[i] = new InvocationPlan(creators, type, methods[i]);
+            // 启动时解析方法上下文，占位符缺失时尽早失败
+            creators.newMethodContext(runtime, methods[i]);
+        }
+    }
+
+    /**
+     * 第 index 个方法的调用计划
+     */
+    protected final InvocationPlan plan(int index) {
+        return plans[index];
+    }
+
+    /**
+     * 提取非简单类型的参数
+     */
+    protected final void bindParam(Map<String, Object> params, String name, Object arg) {
+        creators.extractParamsToMap(params, name, arg);
+    }
+
+    /**
+     * 执行远程调用
+     *
+     * @param index        方法下标
+     * @param paramContext 参数上下文
+     * @param args         方法参数
+     * @return 远程服务结果
+     */
+    protected final Object invoke(int index, ParamContext paramContext, Object[] args) {
+        return invoke(plans[index], paramContext, args);
+    }
+
+    /**
+     * 执行远程调用
+     * <p>
+     * 与 JDK 代理保持一致: 接口未声明的受检异常包装为 UndeclaredThrowableException
+     *
+     * @param plan         调用计划
+     * @param paramContext 参数上下文
+     * @param args         方法参数, 调用计划不需要时为 null
+     * @return 远程服务结果
+     */
+    @SneakyThrows
+    protected final Object invoke(InvocationPlan plan, ParamContext paramContext, Object[] args) {
+        Method method = plan.getMethod();
+        try {
+            return creators.invoke(runtime, method, creators.newMethodContext(runtime, method), paramContext, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            for (Class<?> exceptionType : method.getExceptionTypes()) {
+                if (exceptionType.isInstance(e)) {
+                    throw e;
+                }
+            }
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * 查找接口方法
+     */
+    protected static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("generated remote client is out of date with " + type.getName(), e);
+        }
+    }
+}
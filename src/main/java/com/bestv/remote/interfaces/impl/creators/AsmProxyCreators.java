@@ -0,0 +1,296 @@
+package com.bestv.remote.interfaces.impl.creators;
+
+import com.bestv.remote.context.ParamContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 使用 ASM 在运行时为每个远程服务接口生成实现类
+ * <p>
+ * 每个接口方法有独立的方法体，直接持有自己的 {@link InvocationPlan}，按参数下标绑定，
+ * 不经过 InvocationHandler 的统一分发，也不再用反射遍历参数注解；
+ * 只有方法需要参数校验时才构造参数数组
+ * <p>
+ * 通过 {@code @EnableRemoteService(proxyCreators = AsmProxyCreators.class)} 启用
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class AsmProxyCreators extends JdkProxyCreators {
+
+    private static final String CLASS_SUFFIX = "$$RemoteAsm";
+
+    private static final String PLAN_FIELD_PREFIX = "plan";
+
+    private static final String BASE_CLASS = Type.getInternalName(AbstractRemoteClient.class);
+
+    private static final String PLAN_CLASS = Type.getInternalName(InvocationPlan.class);
+
+    private static final String PARAM_CONTEXT_CLASS = Type.getInternalName(ParamContext.class);
+
+    private static final String PLAN_DESCRIPTOR = Type.getDescriptor(InvocationPlan.class);
+
+    /**
+     * 生成的实现类，同一个接口只生成一次
+     */
+    private static final ClassValue<Class<?>> CLIENT_CLASSES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            try {
+                byte[] bytecode = generate(type, abstractMethods(type));
+                return ReflectUtils.defineClass(type.getName() + CLASS_SUFFIX, bytecode, type.getClassLoader(),
+                        type.getProtectionDomain(), type);
+            } catch (Exception e) {
+                throw new IllegalStateException("failed to generate remote client for " + type.getName(), e);
+            }
+        }
+    };
+
+    /**
+     * @param type 代理对象类型
+     */
+    @Override
+    public Object createProxy(Class<?> type) {
+        log.info("create asm proxy :{}", type);
+        return createClient(this, type);
+    }
+
+    /**
+     * 使用指定的代理创建器生成实现类实例，调用链路 (服务端上下文、调用处理器等) 由 creators 提供
+     *
+     * @param creators 代理创建器
+     * @param type     远程服务接口
+     * @return 实现类实例
+     */
+    public static Object createClient(JdkProxyCreators creators, Class<?> type) {
+        Class<?> clientClass = CLIENT_CLASSES.get(type);
+        try {
+            return BeanUtils.instantiateClass(clientClass.getConstructor(JdkProxyCreators.class, Class.class, Method[].class),
+                    creators, type, abstractMethods(type));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 需要实现的接口方法，按签名排序保证下标稳定; default、static 方法除外
+     */
+    static Method[] abstractMethods(Class<?> type) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        Method[] candidates = type.getMethods();
+        Arrays.sort(candidates, Comparator.comparing(method -> method.getName() + Type.getMethodDescriptor(method)));
+        for (Method method : candidates) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                methods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+            }
+        }
+        return methods.values().toArray(new Method[0]);
+    }
+
+    private static byte[] generate(Class<?> type, Method[] methods) {
+        String className = (type.getName() + CLASS_SUFFIX).replace('.', '/');
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+                BASE_CLASS, new String[]{Type.getInternalName(type)});
+        for (int i = 0; i < methods.length; i++) {
+            classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, PLAN_FIELD_PREFIX + i, PLAN_DESCRIPTOR, null, null)
+                    .visitEnd();
+        }
+        generateConstructor(classWriter, className, methods.length);
+        for (int i = 0; i < methods.length; i++) {
+            generateMethod(classWriter, type, className, i, methods[i]);
+        }
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * super(creators, type, methods); this.plan0 = plan(0); ...
+     */
+    private static void generateConstructor(ClassWriter classWriter, String className, int methodCount) {
+        String descriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(JdkProxyCreators.class),
+                Type.getType(Class.class), Type.getType(Method[].class));
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", descriptor, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_CLASS, "<init>", descriptor, false);
+        for (int i = 0; i < methodCount; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            pushInt(mv, i);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_CLASS, "plan",
+                    Type.getMethodDescriptor(Type.getType(InvocationPlan.class), Type.INT_TYPE), false);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, className, PLAN_FIELD_PREFIX + i, PLAN_DESCRIPTOR);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * ParamContext paramContext = new ParamContext();
+     * plan.bind(paramContext, 0, arg0); ...
+     * plan.complete(paramContext);
+     * return (R) invoke(plan, paramContext, needsArgs ? new Object[]{...} : null);
+     */
+    private static void generateMethod(ClassWriter classWriter, Class<?> type, String className, int index, Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method),
+                null, exceptionNames(method));
+        mv.visitCode();
+        int[] slots = new int[parameterTypes.length];
+        int nextSlot = 1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            slots[i] = nextSlot;
+            nextSlot += Type.getType(parameterTypes[i]).getSize();
+        }
+        int paramContextSlot = nextSlot;
+        String planField = PLAN_FIELD_PREFIX + index;
+
+        mv.visitTypeInsn(Opcodes.NEW, PARAM_CONTEXT_CLASS);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, PARAM_CONTEXT_CLASS, "<init>", "()V", false);
+        mv.visitVarInsn(Opcodes.ASTORE, paramContextSlot);
+
+        String bindDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(ParamContext.class),
+                Type.INT_TYPE, Type.getType(Object.class));
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, className, planField, PLAN_DESCRIPTOR);
+            mv.visitVarInsn(Opcodes.ALOAD, paramContextSlot);
+            pushInt(mv, i);
+            loadArg(mv, parameterTypes[i], slots[i]);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PLAN_CLASS, "bind", bindDescriptor, false);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, planField, PLAN_DESCRIPTOR);
+        mv.visitVarInsn(Opcodes.ALOAD, paramContextSlot);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, PLAN_CLASS, "complete",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(ParamContext.class)), false);
+
+        // invoke(plan, paramContext, args)
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, className, planField, PLAN_DESCRIPTOR);
+        mv.visitVarInsn(Opcodes.ALOAD, paramContextSlot);
+        if (needsArgs(type, method)) {
+            pushInt(mv, parameterTypes.length);
+            mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(Object.class));
+            for (int i = 0; i < parameterTypes.length; i++) {
+                mv.visitInsn(Opcodes.DUP);
+                pushInt(mv, i);
+                loadArg(mv, parameterTypes[i], slots[i]);
+                mv.visitInsn(Opcodes.AASTORE);
+            }
+        } else {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_CLASS, "invoke", Type.getMethodDescriptor(Type.getType(Object.class),
+                Type.getType(InvocationPlan.class), Type.getType(ParamContext.class), Type.getType(Object[].class)), false);
+        returnValue(mv, method.getReturnType());
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * 与 InvocationPlan#isNeedsArgs 一致，生成字节码时调用计划尚未创建
+     */
+    private static boolean needsArgs(Class<?> type, Method method) {
+        if (type.isAnnotationPresent(Validated.class)
+                || method.isAnnotationPresent(Validated.class)) {
+            return true;
+        }
+        return Arrays.stream(method.getParameters())
+                .anyMatch(parameter -> parameter.isAnnotationPresent(Validated.class));
+    }
+
+    /**
+     * 加载参数，基本类型通过 valueOf 装箱 (小整数走缓存)
+     */
+    private static void loadArg(MethodVisitor mv, Class<?> parameterType, int slot) {
+        Type type = Type.getType(parameterType);
+        mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), slot);
+        if (parameterType.isPrimitive()) {
+            Type boxed = boxedType(type);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, boxed.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(boxed, type), false);
+        }
+    }
+
+    private static void returnValue(MethodVisitor mv, Class<?> returnType) {
+        Type type = Type.getType(returnType);
+        if (returnType == void.class) {
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+            return;
+        }
+        if (returnType.isPrimitive()) {
+            // 与 JDK 代理一致，返回 null 时拆箱抛出 NullPointerException
+            Type boxed = boxedType(type);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, boxed.getInternalName());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxed.getInternalName(), type.getClassName() + "Value",
+                    Type.getMethodDescriptor(type), false);
+        } else {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+        }
+        mv.visitInsn(type.getOpcode(Opcodes.IRETURN));
+    }
+
+    private static Type boxedType(Type primitive) {
+        switch (primitive.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                throw new IllegalArgumentException("not a primitive type " + primitive);
+        }
+    }
+
+    private static String[] exceptionNames(Method method) {
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] names = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            names[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+        return names;
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+}
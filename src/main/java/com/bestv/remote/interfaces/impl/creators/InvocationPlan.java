@@ -0,0 +1,165 @@
+package com.bestv.remote.interfaces.impl.creators;
+
+import com.bestv.remote.annotation.RemoteFunction;
+import com.bestv.remote.annotation.RemoteParam;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.enums.ParamType;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+
+/**
+ * 单个接口方法预先解析的调用计划
+ * <p>
+ * 参数注解、Content-Type 和缓存 key 规则在创建时解析一次，
+ * 调用时按下标绑定参数，与 JdkProxyCreators#generateParamContext 的结果一致
+ *
+ * @author taojiacheng
+ */
+public final class InvocationPlan {
+
+    private final JdkProxyCreators creators;
+
+    @Getter
+    private final Method method;
+
+    /**
+     * 参数名, 没有 @RemoteParam 的参数为 null
+     */
+    private final String[] names;
+
+    private final ParamType[] paramTypes;
+
+    /**
+     * 基本类型及其包装类、字符串直接放入 map，不经过 beanToMap
+     */
+    private final boolean[] simple;
+
+    private final String mediaType;
+
+    private final boolean cacheable;
+
+    /**
+     * 是否需要参数数组 (存在 @Validated 校验)
+     */
+    @Getter
+    private final boolean needsArgs;
+
+    InvocationPlan(JdkProxyCreators creators, Class<?> type, Method method) {
+        this.creators = creators;
+        this.method = method;
+        Parameter[] parameters = method.getParameters();
+        this.names = new String[parameters.length];
+        this.paramTypes = new ParamType[parameters.length];
+        this.simple = new boolean[parameters.length];
+        String contentType = MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+        boolean file = false;
+        boolean jsonBody = false;
+        boolean validated = method.isAnnotationPresent(Validated.class) || type.isAnnotationPresent(Validated.class);
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            validated |= parameter.isAnnotationPresent(Validated.class);
+            RemoteParam remoteParam = parameter.getAnnotation(RemoteParam.class);
+            if (remoteParam == null) {
+                continue;
+            }
+            names[i] = StringUtils.isNotEmpty(remoteParam.name()) ? remoteParam.name() : parameter.getName();
+            paramTypes[i] = remoteParam.type();
+            simple[i] = isSimple(parameter.getType());
+            if (remoteParam.type() == ParamType.FILE) {
+                file = true;
+            } else if (remoteParam.type() == ParamType.JSON_BODY) {
+                jsonBody = true;
+                contentType = MediaType.APPLICATION_JSON_VALUE;
+            } else if (remoteParam.type() == ParamType.FORM) {
+                contentType = MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+            }
+        }
+        if (file && jsonBody) {
+            throw new IllegalArgumentException("ParamType.FILE can not be mixed with ParamType.JSON_BODY : " + method);
+        }
+        // 存在文件参数时为 multipart，与参数顺序无关
+        this.mediaType = file ? MediaType.MULTIPART_FORM_DATA_VALUE : contentType;
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        this.cacheable = remoteFunction != null && remoteFunction.cacheable();
+        this.needsArgs = validated;
+    }
+
+    /**
+     * 绑定第 index 个参数
+     */
+    public void bind(ParamContext paramContext, int index, Object arg) {
+        ParamType paramType = paramTypes[index];
+        if (paramType == null) {
+            return;
+        }
+        String name = names[index];
+        switch (paramType) {
+            case BASE_URL:
+                paramContext.setBaseUrl((String) arg);
+                break;
+            case CONSUMER:
+                paramContext.setResponseConsumer(JdkProxyCreators.responseConsumer(arg));
+                // 回调不作为请求参数
+                return;
+            case FILE:
+                paramContext.getFileParts().put(name, arg);
+                break;
+            case DOWNLOAD_TARGET:
+                paramContext.setDownloadTarget(arg);
+                break;
+            case PATH:
+                bindToMap(paramContext.getPathParams(), index, name, arg);
+                break;
+            case HEADER:
+                bindToMap(paramContext.getHeaders(), index, name, arg);
+                break;
+            case FORM:
+                bindToMap(paramContext.getRequestBody(), index, name, arg);
+                break;
+            case JSON_BODY:
+                paramContext.getJsonBody().put(name, arg);
+                break;
+            case URL_PARAM:
+                bindToMap(paramContext.getUrlParams(), index, name, arg);
+                break;
+            case CACHE_KEY:
+                bindToMap(paramContext.getCacheKey(), index, name, arg);
+                break;
+            default:
+                break;
+        }
+        paramContext.getRequestParams().put(name, arg);
+    }
+
+    /**
+     * 参数绑定完成后的处理: Content-Type 和缓存 key
+     */
+    public void complete(ParamContext paramContext) {
+        paramContext.getHeaders().putIfAbsent(HttpHeaders.CONTENT_TYPE, mediaType);
+        if (cacheable && paramContext.getCacheKey().isEmpty()) {
+            paramContext.getCacheKey().putAll(paramContext.getRequestParams());
+        }
+    }
+
+    private void bindToMap(Map<String, Object> params, int index, String name, Object arg) {
+        if (simple[index]) {
+            params.put(name, arg);
+        } else {
+            creators.extractParamsToMap(params, name, arg);
+        }
+    }
+
+    private static boolean isSimple(Class<?> parameterType) {
+        return parameterType.isPrimitive() || parameterType == String.class || parameterType == Integer.class
+                || parameterType == Long.class || parameterType == Short.class || parameterType == Byte.class
+                || parameterType == Double.class || parameterType == Float.class || parameterType == Boolean.class
+                || parameterType == Character.class;
+    }
+}
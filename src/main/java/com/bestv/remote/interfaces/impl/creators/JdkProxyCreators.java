@@ -3,51 +3,99 @@ package com.bestv.remote.interfaces.impl.creators;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.NumberUtil;
 import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.Env;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.bestv.remote.annotation.RemoteFunction;
 import com.bestv.remote.annotation.RemoteParam;
 import com.bestv.remote.annotation.RemoteService;
+import com.bestv.remote.breaker.CircuitBreaker;
+import com.bestv.remote.breaker.CircuitBreakers;
+import com.bestv.remote.bulkhead.Bulkhead;
+import com.bestv.remote.bulkhead.Bulkheads;
+import com.bestv.remote.cache.LastKnownGoodStore;
+import com.bestv.remote.cache.LastKnownGoodStores;
+import com.bestv.remote.cache.NegativeCache;
+import com.bestv.remote.cache.NegativeCaches;
+import com.bestv.remote.cache.OffHeapCache;
+import com.bestv.remote.cache.OffHeapCaches;
+import com.bestv.remote.codec.BodyCodec;
+import com.bestv.remote.codec.BodyCodecs;
 import com.bestv.remote.context.MethodContext;
 import com.bestv.remote.context.ParamContext;
 import com.bestv.remote.context.ServerContext;
 import com.bestv.remote.convert.JsonSerializer;
+import com.bestv.remote.enums.CacheStoreType;
+import com.bestv.remote.enums.ParamType;
+import com.bestv.remote.enums.RecordReplayMode;
+import com.bestv.remote.enums.ResponseStreamType;
+import com.bestv.remote.exceptions.BulkheadFullException;
+import com.bestv.remote.exceptions.CircuitBreakerOpenException;
+import com.bestv.remote.exceptions.ConcurrencyLimitException;
 import com.bestv.remote.exceptions.Http4xxException;
+import com.bestv.remote.exceptions.NegativeCacheHitException;
 import com.bestv.remote.interfaces.BlockHandler;
 import com.bestv.remote.interfaces.FallbackHandler;
 import com.bestv.remote.interfaces.ProxyCreators;
+import com.bestv.remote.interfaces.RemoteCall;
 import com.bestv.remote.interfaces.RestHandler;
+import com.bestv.remote.interfaces.impl.restHandler.RecordReplayRestHandler;
 import com.bestv.remote.interfaces.impl.restHandler.RestTemplateHandler;
+import com.bestv.remote.limiter.AdaptiveConcurrencyLimiter;
+import com.bestv.remote.limiter.ConcurrencyLimiters;
+import com.bestv.remote.metrics.MethodMetrics;
+import com.bestv.remote.metrics.MetricsRegistry;
+import com.bestv.remote.refresh.RemoteServiceRefresher;
 import com.bestv.remote.retry.AbstractRetry;
 import com.bestv.remote.utils.SpringContextHolder;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bestv.remote.warmup.RemoteServiceWarmUp;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.util.CollectionUtils;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.ValidationException;
 import javax.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
-import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * 使用JDK动态代理创建代理对象
@@ -59,83 +107,414 @@ public class JdkProxyCreators implements ProxyCreators {
 
     final static Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
 
+    /**
+     * 类型是否存在约束
+     */
+    final static ClassValue<Boolean> CONSTRAINED = ValidationPlan.constrained(VALIDATOR);
+
+    /**
+     * 远程服务接口 -> 各方法的校验计划
+     */
+    final static ClassValue<Map<Method, ValidationPlan>> VALIDATION_PLANS = new ClassValue<Map<Method, ValidationPlan>>() {
+        @Override
+        protected Map<Method, ValidationPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     final static String PLACE_HOLDER_REGEX = "\\$\\{([^}]*)\\}";
 
     final static String PLACE_HOLDER_PREFIX = "${";
 
     final static Pattern REGEX = Pattern.compile(PLACE_HOLDER_REGEX);
 
+    final static char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 参数摘要使用的 MD5，每个线程复用一个实例
+     */
+    final static ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     /**
      * @param type 代理对象类型
      */
     @Override
     public Object createProxy(Class<?> type) {
         log.info("create proxy :{}", type);
-        ServerContext serverContext = generateServerContext(type);
-        log.info("remote server info:{}", serverContext);
-
-        RestHandler restHandler = new RestTemplateHandler();
-        restHandler.init(serverContext);
+        ServiceRuntime runtime = createServiceRuntime(type);
         return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
             // 提取远程接口信息
-            MethodContext methodContext = generateMethodContext(method);
+            MethodContext methodContext = newMethodContext(runtime, method);
             // 提取参数信息
             ParamContext paramContext = generateParamContext(method, args);
-            // 熔断处理
-            Entry entry = null;
-            try {
-                if (StringUtils.isNotEmpty(methodContext.getSentinelResource())) {
-                    entry = SphU.entry(methodContext.getSentinelResource());
-                }
-                // 缓存校验
-                Object cacheResult = attemptLoadCache(type, method, paramContext.getCacheKey());
-                if (cacheResult != null) {
-                    return cacheResult;
+            return invoke(runtime, method, methodContext, paramContext, args);
+        });
+    }
+
+
+    /**
+     * 创建远程服务的运行时组件，每个远程服务一份
+     *
+     * @param type 远程服务接口
+     * @return 运行时组件
+     */
+    protected ServiceRuntime createServiceRuntime(Class<?> type) {
+        ServerContext serverContext = generateServerContext(type);
+        log.info("remote server info:{}", serverContext);
+        RestHandler restHandler = createRestHandler(serverContext);
+        // 自适应并发限制
+        ConcurrencyLimiters concurrencyLimiters = new ConcurrencyLimiters(serverContext);
+        // 舱壁隔离
+        Bulkhead bulkhead = Bulkheads.create(serverContext);
+        // 内置熔断器
+        CircuitBreakers circuitBreakers = new CircuitBreakers(serverContext);
+        // 负缓存
+        NegativeCaches negativeCaches = new NegativeCaches(serverContext);
+        // 最近成功结果
+        LastKnownGoodStores lastKnownGoodStores = new LastKnownGoodStores(serverContext);
+        // 堆外缓存
+        OffHeapCache offHeapCache = createOffHeapCache(type, serverContext);
+        ServiceRuntime runtime = new ServiceRuntime(type, serverContext, restHandler, concurrencyLimiters, bulkhead,
+                circuitBreakers, negativeCaches, lastKnownGoodStores, offHeapCache);
+        // 启动预热
+        if (serverContext.isWarmUp()) {
+            RemoteServiceWarmUp.register(serverContext.getServiceName(), () -> warmUp(runtime));
+        }
+        // 配置变更时刷新
+        RemoteServiceRefresher.register(type, serverContext.getServiceName(), () -> refresh(runtime));
+        return runtime;
+    }
+
+
+    /**
+     * 本次调用的方法上下文
+     * <p>
+     * 从运行时组件缓存的模板复制，占位符只在首次调用和配置变更时解析
+     *
+     * @param runtime 远程服务运行时组件
+     * @param method  接口方法
+     * @return 方法上下文
+     */
+    protected MethodContext newMethodContext(ServiceRuntime runtime, Method method) {
+        MethodContext template = runtime.getMethodContexts().get()
+                .computeIfAbsent(method, key -> generateMethodContext(runtime.getType(), key));
+        return template.toBuilder().build();
+    }
+
+
+    /**
+     * 配置变更后重新解析服务配置和方法上下文
+     * <p>
+     * 全部解析成功后再整体替换，解析失败时抛出异常并保留原快照;
+     * 超时时间由调用处理器就地重建 http 客户端，舱壁、并发限制等组件沿用创建时的配置
+     *
+     * @param runtime 远程服务运行时组件
+     */
+    protected void refresh(ServiceRuntime runtime) {
+        Class<?> type = runtime.getType();
+        ServerContext latest = generateServerContext(type);
+        Map<Method, MethodContext> methodContexts = new ConcurrentHashMap<>();
+        for (Method method : runtime.getMethodContexts().get().keySet()) {
+            methodContexts.put(method, generateMethodContext(type, method));
+        }
+        if (!latest.equals(runtime.getServerContext())) {
+            log.info("event=remote.refresh service={} config={}", latest.getServiceName(), latest);
+            runtime.getRestHandler().refresh(latest);
+            runtime.setServerContext(latest);
+        }
+        runtime.getMethodContexts().set(methodContexts);
+    }
+
+
+    /**
+     * 启动预热
+     * <p>
+     * 解析各方法的元数据、构建参数和返回值的校验元数据、初始化 sentinel 和方法指标，
+     * 再由调用处理器建立连接、构建编解码器
+     *
+     * @param runtime 远程服务运行时组件
+     */
+    protected void warmUp(ServiceRuntime runtime) {
+        Class<?> type = runtime.getType();
+        log.debug("event=remote.warmup sentinel={}", Env.sph.getClass().getSimpleName());
+        List<MethodContext> methodContexts = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())) {
+                continue;
+            }
+            MethodContext methodContext = newMethodContext(runtime, method);
+            methodContexts.add(methodContext);
+            MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey());
+            validationPlan(type, method);
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                warmUpConstraints(parameterType);
+            }
+            warmUpConstraints(method.getReturnType());
+        }
+        runtime.getRestHandler().warmUp(methodContexts);
+    }
+
+    private void warmUpConstraints(Class<?> beanType) {
+        if (BeanUtils.isSimpleValueType(beanType) || beanType.isArray() || beanType == void.class
+                || Iterable.class.isAssignableFrom(beanType) || Map.class.isAssignableFrom(beanType)) {
+            return;
+        }
+        CONSTRAINED.get(beanType);
+    }
+
+
+    /**
+     * 执行一次远程调用: 熔断、缓存、参数校验、远程请求、降级
+     *
+     * @param runtime       远程服务运行时组件
+     * @param method        接口方法
+     * @param methodContext 方法上下文，每次调用一份
+     * @param paramContext  参数上下文
+     * @param args          方法参数
+     * @return 远程服务结果
+     */
+    protected Object invoke(ServiceRuntime runtime, Method method, MethodContext methodContext,
+                            ParamContext paramContext, Object[] args) throws Throwable {
+        Class<?> type = runtime.getType();
+        ServerContext serverContext = runtime.getServerContext();
+        MethodMetrics metrics = MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey());
+        NegativeCache negativeCache = runtime.getNegativeCaches().get(method);
+        LastKnownGoodStore lastKnownGood = runtime.getLastKnownGoodStores().get(method);
+        // 负缓存和最近成功结果按参数摘要保存
+        String localKey = negativeCache != null || lastKnownGood != null ? extractLocalCacheKey(paramContext) : null;
+        boolean negativeHit = false;
+        // 熔断处理
+        Entry entry = null;
+        try {
+            if (StringUtils.isNotEmpty(methodContext.getSentinelResource())) {
+                entry = SphU.entry(methodContext.getSentinelResource());
+            }
+            // 缓存校验
+            Object cacheResult = methodContext.getCacheStore() == CacheStoreType.OFF_HEAP
+                    ? attemptLoadOffHeapCache(runtime.getOffHeapCache(), type, method, methodContext, paramContext.getCacheKey(), metrics)
+                    : attemptLoadCache(type, method, paramContext.getCacheKey(), metrics);
+            if (cacheResult != null) {
+                return cacheResult;
+            }
+            // 负缓存校验
+            if (negativeCache != null && StringUtils.isNotEmpty(localKey)) {
+                NegativeCache.Entry negativeEntry = negativeCache.get(localKey);
+                if (negativeEntry != null) {
+                    log.debug("event=remote.negative_cache.hit method={} failure={}", methodContext.getMethodKey(),
+                            negativeEntry.getFailure() != null);
+                    if (negativeEntry.getFailure() == null) {
+                        return negativeEntry.getResult();
+                    }
+                    negativeHit = true;
+                    // 每次命中抛出与缓存的失败同类型的新异常，不复用缓存的异常实例
+                    throw NegativeCacheHitException.of(negativeCache.getName(), negativeEntry.getFailure());
                 }
-                // 参数校验
-                validParams(type, method, args);
-                log.info("remote methodInfo : {}, paramInfo : {}", methodContext, paramContext);
-                // 调用rest请求，获取远程服务结果
-                Object result = doInvokeRest(methodContext, paramContext, restHandler);
-                // 返回结果校验
+            }
+            // 参数校验
+            validParams(type, method, args);
+            log.debug("event=remote.invoke method={} httpMethod={} uri={}",
+                    methodContext.getMethodKey(), methodContext.getHttpMethod(), methodContext.getUri());
+            // 调用rest请求，获取远程服务结果
+            AdaptiveConcurrencyLimiter limiter = runtime.getConcurrencyLimiters().get(method, methodContext);
+            CircuitBreaker circuitBreaker = runtime.getCircuitBreakers().get(method);
+            RestHandler restHandler = runtime.getRestHandler();
+            long callTimeout = bulkheadCallTimeout(serverContext, methodContext, paramContext);
+            Object result;
+            try {
+                // 耗时在准入控制之内记录，被拒绝的调用单独计数
+                result = invokeWithCircuitBreaker(circuitBreaker,
+                        () -> invokeWithBulkhead(runtime.getBulkhead(), callTimeout,
+                                () -> invokeWithConcurrencyLimit(limiter,
+                                        () -> invokeWithMetrics(metrics, () -> doInvokeRest(methodContext, paramContext, restHandler, limiter)))));
+            } catch (Throwable e) {
+                recordNegativeCache(negativeCache, localKey, methodContext, null, e);
+                throw e;
+            }
+            // 返回结果校验，按采样率执行
+            double sampleRate = serverContext.getResponseValidationSampleRate();
+            if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
                 validResponse(type, method, result);
-                // 生成缓存
-                generateServiceCache(type, method, paramContext.getCacheKey(), result, methodContext.getHasFallback());
-                return result;
-            } catch (BlockException blockException) {
-                // 熔断处理
-                return invokeBlock(serverContext, methodContext, paramContext, blockException);
-            } catch (Throwable bizException) {
-                if (bizException instanceof Http4xxException) {
-                    // 4xx 异常不参与熔断统计
-                    log.info("http4xxException abnormal does not participate in fuse statistics");
-                } else {
-                    // sentinel 异常信息统计
-                    Tracer.trace(bizException);
-                }
-                // 执行降级
-                return invokeFallback(serverContext, methodContext, paramContext, bizException);
-            } finally {
-                if (entry != null) {
-                    entry.exit();
+            }
+            // 生成缓存
+            if (methodContext.getCacheStore() == CacheStoreType.OFF_HEAP) {
+                generateOffHeapCache(runtime.getOffHeapCache(), type, method, methodContext, paramContext.getCacheKey(), result);
+            } else {
+                generateServiceCache(type, method, methodContext, paramContext.getCacheKey(), result);
+            }
+            recordNegativeCache(negativeCache, localKey, methodContext, result, null);
+            if (lastKnownGood != null && StringUtils.isNotEmpty(localKey) && methodContext.getResponseStream() == null) {
+                lastKnownGood.put(localKey, result);
+            }
+            return result;
+        } catch (BlockException blockException) {
+            if (!negativeHit) {
+                metrics.recordRejection();
+            }
+            // 优先返回最近成功的结果
+            Object lastKnownGoodResult = attemptLoadLastKnownGood(lastKnownGood, localKey, methodContext, metrics, blockException);
+            if (lastKnownGoodResult != null) {
+                return lastKnownGoodResult;
+            }
+            // 熔断处理
+            return invokeBlock(serverContext, methodContext, paramContext, blockException);
+        } catch (Throwable bizException) {
+            if (negativeHit) {
+                // 命中负缓存未调用远程服务，不参与熔断统计
+                log.debug("negative cache hit does not participate in fuse statistics");
+            } else if (bizException instanceof Http4xxException) {
+                // 4xx 异常不参与熔断统计
+                log.debug("http4xxException abnormal does not participate in fuse statistics");
+            } else if (bizException instanceof BulkheadFullException) {
+                // 舱壁拒绝未调用远程服务，不参与熔断统计
+                metrics.recordRejection();
+                log.warn("bulkheadFullException does not participate in fuse statistics : {}", bizException.getMessage());
+            } else if (entry != null) {
+                // sentinel 异常信息统计
+                Tracer.trace(bizException);
+            }
+            // 优先返回最近成功的结果
+            Throwable failure = NegativeCacheHitException.unwrap(bizException);
+            if (!(failure instanceof Http4xxException) && !(failure instanceof ValidationException)) {
+                Object lastKnownGoodResult = attemptLoadLastKnownGood(lastKnownGood, localKey, methodContext, metrics, bizException);
+                if (lastKnownGoodResult != null) {
+                    return lastKnownGoodResult;
                 }
             }
-        });
+            // 执行降级
+            return invokeFallback(serverContext, methodContext, paramContext, bizException);
+        } finally {
+            if (entry != null) {
+                entry.exit();
+            }
+        }
+    }
+
+
+    /**
+     * 负缓存和最近成功结果使用的参数摘要: 指定了缓存 key 时取缓存 key，否则取全部参数
+     *
+     * @param paramContext 参数上下文
+     * @return 参数摘要，序列化失败时为空字符串
+     */
+    protected String extractLocalCacheKey(ParamContext paramContext) {
+        return extractParamsDigest(paramContext.getCacheKey().isEmpty()
+                ? paramContext.getRequestParams() : paramContext.getCacheKey());
+    }
+
+
+    /**
+     * 尝试返回最近成功的结果
+     *
+     * @param lastKnownGood 最近成功结果，未开启时为 null
+     * @param localKey      参数摘要
+     * @param methodContext 方法上下文
+     * @param metrics       方法指标
+     * @param e             调用异常
+     * @return 最近成功的结果，没有可用结果时返回 null
+     */
+    protected Object attemptLoadLastKnownGood(LastKnownGoodStore lastKnownGood, String localKey, MethodContext methodContext,
+                                              MethodMetrics metrics, Throwable e) {
+        if (lastKnownGood == null || StringUtils.isEmpty(localKey)) {
+            return null;
+        }
+        Object result = lastKnownGood.get(localKey, methodContext.getGenericReturnType(), methodContext.getLastKnownGoodMaxStaleness());
+        if (result != null) {
+            log.info("event=remote.last_known_good.serve method={} cause={}", methodContext.getMethodKey(), e.toString());
+            methodContext.setHasFallback(true);
+            metrics.recordFallback();
+        }
+        return result;
+    }
+
+
+    /**
+     * 记录负缓存: 失败或空结果
+     *
+     * @param negativeCache 负缓存，未开启时为 null
+     * @param negativeKey   参数摘要
+     * @param methodContext 方法上下文
+     * @param result        远程服务结果
+     * @param e             调用异常，成功时为 null
+     */
+    protected void recordNegativeCache(NegativeCache negativeCache, String negativeKey, MethodContext methodContext,
+                                       Object result, Throwable e) {
+        if (negativeCache == null || StringUtils.isEmpty(negativeKey)) {
+            return;
+        }
+        boolean recorded;
+        if (e != null) {
+            recorded = negativeCache.putFailure(negativeKey, e, methodContext.getNegativeCacheTtl());
+        } else if (methodContext.getResponseStream() == null && methodContext.getReturnType() != void.class) {
+            // 流式响应只能读取一次，不缓存
+            recorded = negativeCache.putResult(negativeKey, result, methodContext.getNegativeCacheTtl());
+        } else {
+            recorded = false;
+        }
+        if (recorded) {
+            log.debug("event=remote.negative_cache.put method={} ttl={} failure={}", methodContext.getMethodKey(),
+                    methodContext.getNegativeCacheTtl(), e != null);
+        }
+    }
+
+
+    /**
+     * 创建堆外缓存，没有方法使用堆外缓存时返回 null
+     *
+     * @param type          远程服务接口
+     * @param serverContext 远程服务信息
+     * @return 堆外缓存
+     */
+    protected OffHeapCache createOffHeapCache(Class<?> type, ServerContext serverContext) {
+        for (Method method : type.getMethods()) {
+            RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+            if (remoteFunction != null && remoteFunction.cacheable() && remoteFunction.cacheStore() == CacheStoreType.OFF_HEAP) {
+                OffHeapCache offHeapCache = new OffHeapCache(serverContext.getServiceName(),
+                        serverContext.getOffHeapCacheSize(), serverContext.getOffHeapCacheDirectory());
+                OffHeapCaches.register(offHeapCache);
+                return offHeapCache;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * 创建并初始化远程服务调用处理器
+     *
+     * @param serverContext 远程服务信息
+     * @return 远程服务调用处理器
+     */
+    protected RestHandler createRestHandler(ServerContext serverContext) {
+        RestHandler restHandler = new RestTemplateHandler();
+        if (serverContext.getRecordReplay() != RecordReplayMode.OFF) {
+            // 录制/回放
+            restHandler = new RecordReplayRestHandler(restHandler);
+        }
+        restHandler.init(serverContext);
+        return restHandler;
     }
 
 
     /**
      * 生成缓存
      *
-     * @param type        类
-     * @param method      方法
-     * @param cacheKeyMap cacheKeyMap
-     * @param result      远程服务结果
+     * @param type          类
+     * @param method        方法
+     * @param methodContext 方法上下文
+     * @param cacheKeyMap   cacheKeyMap
+     * @param result        远程服务结果
      */
-    protected void generateServiceCache(Class<?> type, Method method, Map<String, Object> cacheKeyMap, Object result, boolean isFallback) {
+    protected void generateServiceCache(Class<?> type, Method method, MethodContext methodContext,
+                                        Map<String, Object> cacheKeyMap, Object result) {
         RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
         // fallback 后结果不入缓存
-        if (remoteFunction != null && remoteFunction.cacheable() && !isFallback) {
+        if (remoteFunction != null && remoteFunction.cacheable() && !methodContext.getHasFallback()) {
             // 校验缓存是否存在 , 缓存策略：取 类 + 方法 + 参数 的 hash 值 作为缓存key
             String paramsDigest = extractParamsDigest(cacheKeyMap);
             if (StringUtils.isEmpty(paramsDigest)) {
@@ -144,16 +523,7 @@ public class JdkProxyCreators implements ProxyCreators {
             String cacheKey = type.getSimpleName() + "$" + method.getName() + "@" + paramsDigest;
             @SuppressWarnings("unchecked")
             RedisTemplate<Object, Object> redisTemplate = SpringContextHolder.getBean(RedisTemplate.class);
-            String expireIn = remoteFunction.expireIn().trim();
-            if (expireIn.startsWith(PLACE_HOLDER_PREFIX)) {
-                String propertiesKey = extractPlaceHolder(expireIn);
-                expireIn = StringUtils.trim(SpringContextHolder.getRequiredProperty(propertiesKey));
-                if (!NumberUtil.isNumber(expireIn)) {
-                    throw new IllegalArgumentException("expireIn must be number");
-                }
-            }
-            int expire = Integer.parseInt(expireIn);
-            redisTemplate.opsForValue().set(cacheKey, result, expire, TimeUnit.SECONDS);
+            redisTemplate.opsForValue().set(cacheKey, result, methodContext.getCacheExpireIn(), TimeUnit.SECONDS);
         }
     }
 
@@ -163,8 +533,9 @@ public class JdkProxyCreators implements ProxyCreators {
      * @param type        类
      * @param method      方法
      * @param cacheKeyMap 缓存key
+     * @param metrics     方法指标
      */
-    protected Object attemptLoadCache(Class<?> type, Method method, Map<String, Object> cacheKeyMap) {
+    protected Object attemptLoadCache(Class<?> type, Method method, Map<String, Object> cacheKeyMap, MethodMetrics metrics) {
         RemoteFunction annotation = method.getAnnotation(RemoteFunction.class);
         if (annotation != null && annotation.cacheable()) {
             // 校验缓存是否存在,缓存策略：取 类 + 方法 + 参数 的 摘要 值 作为缓存 key
@@ -177,48 +548,233 @@ public class JdkProxyCreators implements ProxyCreators {
             RedisTemplate<Object, Object> redisTemplate = SpringContextHolder.getBean(RedisTemplate.class);
             Object cachedResult = redisTemplate.opsForValue().get(cacheKey);
             if (cachedResult != null) {
-                log.info("{} Hit the cache and return the result in the cache ", type.getSimpleName() + "$" + method.getName());
+                metrics.recordCacheHit();
+                log.debug("{}${} Hit the cache and return the result in the cache ", type.getSimpleName(), method.getName());
+            } else {
+                metrics.recordCacheMiss();
             }
             return cachedResult;
         }
         return null;
     }
 
+    /**
+     * 尝试从堆外缓存获取数据
+     *
+     * @param offHeapCache  堆外缓存
+     * @param type          类
+     * @param method        方法
+     * @param methodContext 方法上下文
+     * @param cacheKeyMap   缓存key
+     * @param metrics       方法指标
+     */
+    protected Object attemptLoadOffHeapCache(OffHeapCache offHeapCache, Class<?> type, Method method, MethodContext methodContext,
+                                             Map<String, Object> cacheKeyMap, MethodMetrics metrics) {
+        String paramsDigest = extractParamsDigest(cacheKeyMap);
+        if (StringUtils.isEmpty(paramsDigest)) {
+            return null;
+        }
+        String cacheKey = type.getSimpleName() + "$" + method.getName() + "@" + paramsDigest;
+        Object cachedResult = offHeapCache.get(cacheKey, methodContext.getGenericReturnType());
+        if (cachedResult != null) {
+            metrics.recordCacheHit();
+            log.debug("{}${} Hit the off-heap cache and return the result in the cache ", type.getSimpleName(), method.getName());
+        } else {
+            metrics.recordCacheMiss();
+        }
+        return cachedResult;
+    }
+
+    /**
+     * 生成堆外缓存
+     *
+     * @param offHeapCache  堆外缓存
+     * @param type          类
+     * @param method        方法
+     * @param methodContext 方法上下文
+     * @param cacheKeyMap   cacheKeyMap
+     * @param result        远程服务结果
+     */
+    protected void generateOffHeapCache(OffHeapCache offHeapCache, Class<?> type, Method method, MethodContext methodContext,
+                                        Map<String, Object> cacheKeyMap, Object result) {
+        // fallback 后和流式响应的结果不入缓存
+        if (methodContext.getHasFallback() || methodContext.getResponseStream() != null) {
+            return;
+        }
+        String paramsDigest = extractParamsDigest(cacheKeyMap);
+        if (StringUtils.isEmpty(paramsDigest)) {
+            return;
+        }
+        String cacheKey = type.getSimpleName() + "$" + method.getName() + "@" + paramsDigest;
+        offHeapCache.put(cacheKey, result, TimeUnit.SECONDS.toMillis(methodContext.getCacheExpireIn()));
+    }
+
     /**
      * 提取参数的摘要值
+     * <p>
+     * 参数直接序列化进 MD5，不生成中间的 json 字符串和字节数组，结果与 md5(json) 一致
      *
      * @param cacheKey 缓存key
      * @return 参数摘要
-     * @throws JsonProcessingException  序列化错误
-     * @throws NoSuchAlgorithmException 可忽略
      */
     protected String extractParamsDigest(Map<String, Object> cacheKey) {
+        MessageDigest m = MD5.get();
+        m.reset();
         try {
-            String strArgs = JsonSerializer.getInstance().writeValueAsString(cacheKey);
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            m.reset();
-            m.update(strArgs.getBytes(StandardCharsets.UTF_8));
-            byte[] digest = m.digest();
-            StringBuilder result = new StringBuilder();
-            for (byte b : digest) {
-                result.append(Integer.toHexString((0x000000FF & b) | 0xFFFFFF00).substring(6));
-            }
-            return result.toString();
-        } catch (NoSuchAlgorithmException ignored) {
-        } catch (JsonProcessingException e) {
+            JsonSerializer.getInstance().writeValue(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    m.update((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    m.update(b, off, len);
+                }
+            }, cacheKey);
+        } catch (IOException e) {
             log.error("Failed to serialize parameter key ,{}", e.getMessage(), e);
+            return "";
         }
-        return "";
+        byte[] digest = m.digest();
+        char[] result = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            result[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0F];
+            result[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0F];
+        }
+        return new String(result);
     }
-
     /**
      * 返回结果校验
      *
      * @param result 返回值
      */
     protected void validResponse(Class<?> type, Method method, Object result) {
-        Validated validated = Optional.ofNullable(method.getAnnotation(Validated.class)).orElse(type.getAnnotation(Validated.class));
-        doValidated(method, validated, result);
+        doValidated(method, validationPlan(type, method).response(result), result);
+    }
+
+    /**
+     * 方法的校验计划，首次调用时解析
+     */
+    private ValidationPlan validationPlan(Class<?> type, Method method) {
+        Map<Method, ValidationPlan> plans = VALIDATION_PLANS.get(type);
+        ValidationPlan plan = plans.get(method);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(method, key -> new ValidationPlan(type, key, CONSTRAINED));
+        }
+        return plan;
+    }
+
+    /**
+     * 记录远程调用的次数、耗时和结果
+     *
+     * @param metrics 方法指标
+     * @param call    远程调用
+     * @return 调用结果
+     */
+    protected Object invokeWithMetrics(MethodMetrics metrics, RemoteCall<Object> call) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = call.call();
+            success = true;
+            return result;
+        } finally {
+            metrics.recordCall(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * 在内置熔断器保护下执行远程调用
+     * <p>
+     * 熔断器打开时抛出 {@link CircuitBreakerOpenException}, 进入熔断流程
+     *
+     * @param circuitBreaker 熔断器，为 null 时不熔断
+     * @param call           远程调用
+     * @return 调用结果
+     */
+    protected Object invokeWithCircuitBreaker(CircuitBreaker circuitBreaker, RemoteCall<Object> call) throws Throwable {
+        if (circuitBreaker == null) {
+            return call.call();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(circuitBreaker.getName());
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = call.call();
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Http4xxException e) {
+            // 4xx 异常不参与熔断统计
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            throw e;
+        } catch (BulkheadFullException | ConcurrencyLimitException e) {
+            // 本地拒绝，未调用远程服务
+            circuitBreaker.onIgnore();
+            throw e;
+        } catch (Throwable e) {
+            circuitBreaker.onError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 在舱壁内执行远程调用
+     *
+     * @param bulkhead    舱壁，为 null 时在调用方线程直接执行
+     * @param callTimeout 调用本身的最长耗时 (毫秒)，小于等于 0 不限制
+     * @param call        远程调用
+     * @return 调用结果
+     */
+    protected Object invokeWithBulkhead(Bulkhead bulkhead, long callTimeout, RemoteCall<Object> call) throws Throwable {
+        if (bulkhead == null) {
+            return call.call();
+        }
+        return bulkhead.execute(call, callTimeout);
+    }
+
+    /**
+     * 调用本身的最长耗时: 每次执行的连接、读取超时加重试间隔
+     * <p>
+     * 流式响应、文件上传下载的读取超时按单次读取计算，总耗时不可预估，不限制
+     *
+     * @param serverContext 远程服务信息
+     * @param methodContext 方法上下文
+     * @param paramContext  参数上下文
+     * @return 最长耗时 (毫秒)，0 表示不限制
+     */
+    protected long bulkheadCallTimeout(ServerContext serverContext, MethodContext methodContext, ParamContext paramContext) {
+        if (methodContext.getResponseStream() != null || paramContext.getDownloadTarget() != null
+                || !paramContext.getFileParts().isEmpty()) {
+            return 0;
+        }
+        long attempt = (long) serverContext.getConnectTimeout() + serverContext.getSocketTimeOut() + methodContext.getRetryInterval();
+        return Math.max(1, methodContext.getRetryTimes()) * attempt;
+    }
+
+    /**
+     * 在自适应并发限制下执行远程调用
+     * <p>
+     * 超出并发上限时抛出 {@link ConcurrencyLimitException}, 进入熔断流程;
+     * 一次调用 (含重试) 占用一个名额，上限按每次请求的结果在 {@link #doInvokeRest} 中调整
+     *
+     * @param limiter 并发限制器，为 null 时不限制
+     * @param call    远程调用
+     * @return 调用结果
+     */
+    protected Object invokeWithConcurrencyLimit(AdaptiveConcurrencyLimiter limiter, RemoteCall<Object> call) throws Throwable {
+        if (limiter == null) {
+            return call.call();
+        }
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitException(limiter.getName(), limiter.getLimit());
+        }
+        try {
+            return call.call();
+        } finally {
+            limiter.release();
+        }
     }
 
     /**
@@ -227,14 +783,35 @@ public class JdkProxyCreators implements ProxyCreators {
      * @param methodContext 方法上下文
      * @param paramContext  参数上下文
      * @param restHandler   远程服务调用处理器
+     * @param limiter       并发限制器，为 null 时不限制; 每次请求单独计算 RT，不含重试间隔
      * @return 调用结果
      */
-    protected Object doInvokeRest(MethodContext methodContext, ParamContext paramContext, RestHandler restHandler) throws Throwable {
+    protected Object doInvokeRest(MethodContext methodContext, ParamContext paramContext, RestHandler restHandler,
+                                  AdaptiveConcurrencyLimiter limiter) throws Throwable {
         // 重试执行
         return new AbstractRetry<Object>() {
+
+            private int executions;
+
             @Override
-            protected Object retry() {
-                return restHandler.invokeRest(methodContext, paramContext);
+            protected Object retry() throws Throwable {
+                if (executions++ > 0) {
+                    MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordRetries(1);
+                }
+                if (limiter == null) {
+                    return restHandler.invokeRest(methodContext, paramContext);
+                }
+                long start = System.nanoTime();
+                try {
+                    Object result = restHandler.invokeRest(methodContext, paramContext);
+                    limiter.onSuccess(System.nanoTime() - start);
+                    return result;
+                } catch (Throwable e) {
+                    if (isOverloaded(e)) {
+                        limiter.onDropped();
+                    }
+                    throw e;
+                }
             }
         }.setRetryInterval(methodContext.getRetryInterval())
                 .setRetryFor(methodContext.getRetryFor())
@@ -242,6 +819,22 @@ public class JdkProxyCreators implements ProxyCreators {
                 .execute();
     }
 
+    /**
+     * 请求失败是否说明后端过载: 超时、io 异常和 5xx
+     * <p>
+     * 4xx、参数校验、解码失败等与后端负载无关
+     *
+     * @param e 请求异常
+     * @return 是否收缩并发上限
+     */
+    protected boolean isOverloaded(Throwable e) {
+        if (e instanceof RestClientResponseException) {
+            return ((RestClientResponseException) e).getRawStatusCode() >= 500;
+        }
+        return e instanceof ResourceAccessException || e instanceof IOException || e instanceof UncheckedIOException
+                || e instanceof TimeoutException;
+    }
+
     /**
      * 熔断流程
      *
@@ -261,10 +854,12 @@ public class JdkProxyCreators implements ProxyCreators {
             throw blockException;
         }
         BlockHandler blockHandler = SpringContextHolder.getBean(blockHandlerClass);
+        exposeJsonBody(paramContext);
         try {
             // 执行降级方法
             log.info("Execute the fuse processing method : {}", blockHandlerClass.getSimpleName());
             methodContext.setHasFallback(true);
+            MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordBlock();
             return blockHandler.handlerBlock(serverContext, methodContext, paramContext, blockException);
         } catch (Throwable throwable) {
             log.error("Fuse method execution failed : {}", throwable.getMessage(), throwable);
@@ -272,6 +867,16 @@ public class JdkProxyCreators implements ProxyCreators {
         }
     }
 
+    /**
+     * JSON_BODY 参数发送时不展开到 requestBody，执行降级、熔断处理器前按原来的规则展开，
+     * 处理器从 requestBody 读取的请求体与之前一致; 只在执行处理器时展开，不影响正常调用
+     *
+     * @param paramContext 参数上下文
+     */
+    protected void exposeJsonBody(ParamContext paramContext) {
+        paramContext.getJsonBody().forEach((name, arg) -> extractParamsToMap(paramContext.getRequestBody(), name, arg));
+    }
+
     /**
      * 降级流程
      *
@@ -290,17 +895,21 @@ public class JdkProxyCreators implements ProxyCreators {
             throw e;
         }
         // 没有指定降级异常 则捕获所有异常进行降级
-        log.info("Perform the downgrade process : {},{},{}", serverContext, methodContext, e.getMessage(), e);
+        log.info("Perform the downgrade process : {},{}", methodContext.getMethodKey(), e.getMessage(), e);
         // 执行降级方法
         FallbackHandler<?> fallbackHandler = SpringContextHolder.getBean(fallbackClass);
+        exposeJsonBody(paramContext);
+        // 命中负缓存时按缓存的原始失败匹配
+        Class<?> failureType = NegativeCacheHitException.unwrap(e).getClass();
         for (Class<? extends Throwable> fallbackException : methodContext.getFallbackFor()) {
-            if (!fallbackException.isAssignableFrom(e.getClass())) {
+            if (!fallbackException.isAssignableFrom(failureType)) {
                 continue;
             }
             try {
                 // 执行降级方法
                 log.info("Execute the downgrade method : {}", fallbackClass.getSimpleName());
                 methodContext.setHasFallback(true);
+                MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordFallback();
                 return fallbackHandler.handlerFallback(serverContext, methodContext, paramContext, e);
             } catch (Throwable throwable) {
                 log.error("Failed to execute the degraded method : {}", throwable.getMessage(), throwable);
@@ -334,6 +943,17 @@ public class JdkProxyCreators implements ProxyCreators {
                 case BASE_URL:
                     paramContext.setBaseUrl((String) args[i]);
                     break;
+                case CONSUMER:
+                    paramContext.setResponseConsumer(responseConsumer(args[i]));
+                    // 回调不作为请求参数
+                    continue;
+                case FILE:
+                    mediaType = MediaType.MULTIPART_FORM_DATA_VALUE;
+                    paramContext.getFileParts().put(name, args[i]);
+                    break;
+                case DOWNLOAD_TARGET:
+                    paramContext.setDownloadTarget(args[i]);
+                    break;
                 case PATH:
                     extractParamsToMap(paramContext.getPathParams(), name, args[i]);
                     break;
@@ -341,12 +961,15 @@ public class JdkProxyCreators implements ProxyCreators {
                     extractParamsToMap(paramContext.getHeaders(), name, args[i]);
                     break;
                 case FORM:
-                    mediaType = MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+                    // 文件参数之后的表单字段同属 multipart 请求体
+                    if (!MediaType.MULTIPART_FORM_DATA_VALUE.equals(mediaType)) {
+                        mediaType = MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+                    }
                     extractParamsToMap(paramContext.getRequestBody(), name, args[i]);
                     break;
                 case JSON_BODY:
                     mediaType = MediaType.APPLICATION_JSON_VALUE;
-                    extractParamsToMap(paramContext.getRequestBody(), name, args[i]);
+                    paramContext.getJsonBody().put(name, args[i]);
                     break;
                 case URL_PARAM:
                     extractParamsToMap(paramContext.getUrlParams(), name, args[i]);
@@ -366,6 +989,15 @@ public class JdkProxyCreators implements ProxyCreators {
     }
 
 
+    /**
+     * 流式消费响应的回调
+     */
+    @SuppressWarnings("unchecked")
+    static Consumer<Object> responseConsumer(Object arg) {
+        return (Consumer<Object>) arg;
+    }
+
+
     private void paramContextPostHandler(Method method, ParamContext paramContext, String mediaType) {
         // contentType 后置处理
         paramContext.getHeaders().putIfAbsent(HttpHeaders.CONTENT_TYPE, mediaType);
@@ -399,6 +1031,20 @@ public class JdkProxyCreators implements ProxyCreators {
         params.putAll(beanToMap);
     }
 
+    /**
+     * 根据方法和参数获取调用信息，并生成方法标识
+     *
+     * @param type   代理对象类型
+     * @param method 请求方法
+     */
+    protected MethodContext generateMethodContext(Class<?> type, Method method) {
+        MethodContext methodContext = generateMethodContext(method);
+        methodContext.setMethodKey(type.getSimpleName() + "$" + method.getName());
+        // 提取编解码器配置
+        extractCodec(methodContext, type, method);
+        return methodContext;
+    }
+
     /**
      * 根据方法和参数获取调用信息
      *
@@ -416,9 +1062,43 @@ public class JdkProxyCreators implements ProxyCreators {
         extractFallback(methodContext, method);
         // 提取sentinel配置
         extractSentinelConfig(methodContext, method);
+        // 提取并发限制配置
+        extractConcurrencyLimit(methodContext, method);
+        // 提取缓存配置
+        extractCache(methodContext, method);
+        // 提取负缓存配置
+        extractNegativeCache(methodContext, method);
+        // 提取最近成功结果配置
+        extractLastKnownGood(methodContext, method);
+        // 提取流式响应配置
+        extractResponseStream(methodContext, method);
+        // 校验文件上传参数
+        validFileParams(method);
+        // 表单字段名编码缓存
+        methodContext.setFormKeys(new ConcurrentHashMap<>());
         return methodContext;
     }
 
+    /**
+     * 校验文件上传参数: multipart 请求体只包含表单字段和文件，FILE 不能与 JSON_BODY 同时使用
+     *
+     * @param method method
+     */
+    protected void validFileParams(Method method) {
+        boolean file = false;
+        boolean jsonBody = false;
+        for (Parameter parameter : method.getParameters()) {
+            RemoteParam remoteParam = parameter.getAnnotation(RemoteParam.class);
+            if (remoteParam != null) {
+                file |= remoteParam.type() == ParamType.FILE;
+                jsonBody |= remoteParam.type() == ParamType.JSON_BODY;
+            }
+        }
+        if (file && jsonBody) {
+            throw new IllegalArgumentException("ParamType.FILE can not be mixed with ParamType.JSON_BODY : " + method);
+        }
+    }
+
     /**
      * 提取sentinel 配置信息
      *
@@ -434,6 +1114,147 @@ public class JdkProxyCreators implements ProxyCreators {
     }
 
 
+    /**
+     * 提取方法级自适应并发配置
+     *
+     * @param methodContext methodContext
+     * @param method        method
+     */
+    protected void extractConcurrencyLimit(MethodContext methodContext, Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction != null) {
+            methodContext.setAdaptiveConcurrency(remoteFunction.adaptiveConcurrency());
+        }
+    }
+
+
+    /**
+     * 提取缓存时间
+     *
+     * @param methodContext methodContext
+     * @param method        method
+     */
+    protected void extractCache(MethodContext methodContext, Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.cacheable()) {
+            return;
+        }
+        methodContext.setCacheExpireIn(resolveInt(remoteFunction.expireIn(), "expireIn"));
+        methodContext.setCacheStore(remoteFunction.cacheStore());
+    }
+
+    /**
+     * 提取负缓存时间
+     *
+     * @param methodContext methodContext
+     * @param method        method
+     */
+    protected void extractNegativeCache(MethodContext methodContext, Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.negativeCache()) {
+            return;
+        }
+        methodContext.setNegativeCacheTtl(resolveLong(remoteFunction.negativeCacheTtl(), "negativeCacheTtl"));
+    }
+
+    /**
+     * 提取最近成功结果的最大陈旧时间
+     *
+     * @param methodContext methodContext
+     * @param method        method
+     */
+    protected void extractLastKnownGood(MethodContext methodContext, Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction == null || !remoteFunction.lastKnownGood()) {
+            return;
+        }
+        long maxStaleness = resolveLong(remoteFunction.lastKnownGoodMaxStaleness(), "lastKnownGoodMaxStaleness");
+        methodContext.setLastKnownGoodMaxStaleness(TimeUnit.SECONDS.toMillis(maxStaleness));
+    }
+
+    /**
+     * 提取编解码器，方法上未指定时沿用服务的配置
+     *
+     * @param methodContext methodContext
+     * @param type          远程服务接口
+     * @param method        method
+     */
+    protected void extractCodec(MethodContext methodContext, Class<?> type, Method method) {
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        String codecName = remoteFunction == null ? "" : remoteFunction.codec().trim();
+        if (StringUtils.isEmpty(codecName)) {
+            RemoteService remoteService = type.getAnnotation(RemoteService.class);
+            codecName = remoteService == null ? BodyCodecs.JSON : remoteService.codec().trim();
+        }
+        codecName = resolve(codecName);
+        BodyCodec codec = BodyCodecs.get(codecName);
+        if (codec != null && methodContext.getResponseReader() != null && methodContext.getResponseStream() == null
+                && !codec.canRead(methodContext.getGenericReturnType())) {
+            throw new IllegalArgumentException("codec " + codecName + " can not read " + methodContext.getGenericReturnType() + " : " + method);
+        }
+        methodContext.setCodec(codec);
+    }
+
+    /**
+     * 提取流式响应类型及元素类型
+     *
+     * @param methodContext methodContext
+     * @param method        method
+     */
+    protected void extractResponseStream(MethodContext methodContext, Method method) {
+        Class<?> returnType = method.getReturnType();
+        Type elementType = null;
+        if (returnType == InputStream.class) {
+            methodContext.setResponseStream(ResponseStreamType.INPUT_STREAM);
+        } else if (returnType == Stream.class) {
+            methodContext.setResponseStream(ResponseStreamType.STREAM);
+            elementType = typeArgument(method.getGenericReturnType());
+        } else if (returnType == Iterator.class) {
+            methodContext.setResponseStream(ResponseStreamType.ITERATOR);
+            elementType = typeArgument(method.getGenericReturnType());
+        } else if (returnType == Path.class || returnType == File.class) {
+            methodContext.setResponseStream(ResponseStreamType.FILE);
+        }
+        for (Parameter parameter : method.getParameters()) {
+            RemoteParam remoteParam = parameter.getAnnotation(RemoteParam.class);
+            if (remoteParam != null && remoteParam.type() == ParamType.DOWNLOAD_TARGET
+                    && methodContext.getResponseStream() != ResponseStreamType.FILE) {
+                throw new IllegalArgumentException("ParamType.DOWNLOAD_TARGET requires a Path or File return type : " + method);
+            }
+            if (remoteParam == null || remoteParam.type() != ParamType.CONSUMER) {
+                continue;
+            }
+            if (!Consumer.class.isAssignableFrom(parameter.getType()) || returnType != void.class
+                    || methodContext.getResponseStream() != null) {
+                throw new IllegalArgumentException("ParamType.CONSUMER requires a single Consumer parameter on a void method : " + method);
+            }
+            methodContext.setResponseStream(ResponseStreamType.CONSUMER);
+            elementType = typeArgument(parameter.getParameterizedType());
+        }
+        if (methodContext.getResponseStream() == null) {
+            return;
+        }
+        RemoteFunction remoteFunction = method.getAnnotation(RemoteFunction.class);
+        if (remoteFunction != null && remoteFunction.cacheable()) {
+            throw new IllegalArgumentException("streaming response can not be cacheable : " + method);
+        }
+        methodContext.setStreamElementType(elementType == null ? Object.class : elementType);
+        boolean elements = methodContext.getResponseStream() != ResponseStreamType.INPUT_STREAM
+                && methodContext.getResponseStream() != ResponseStreamType.FILE;
+        methodContext.setResponseReader(elements ? JsonSerializer.httpReaderFor(methodContext.getStreamElementType()) : null);
+    }
+
+    private static Type typeArgument(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof WildcardType) {
+                return ((WildcardType) argument).getUpperBounds()[0];
+            }
+            return argument;
+        }
+        return null;
+    }
+
     /**
      * 处理响应参数
      * 声明响应类型
@@ -441,6 +1262,11 @@ public class JdkProxyCreators implements ProxyCreators {
     protected void extractReturnType(MethodContext methodContext, Method method) {
         Class<?> returnType = method.getReturnType();
         methodContext.setReturnType(returnType);
+        methodContext.setGenericReturnType(method.getGenericReturnType());
+        // 泛型返回类型 (如 List<Item>) 直接解码为目标类型, 解码器按类型共享
+        if (returnType != void.class && returnType != Void.class && returnType != String.class && returnType != byte[].class) {
+            methodContext.setResponseReader(JsonSerializer.httpReaderFor(method.getGenericReturnType()));
+        }
     }
 
     /**
@@ -451,16 +1277,17 @@ public class JdkProxyCreators implements ProxyCreators {
      * @param args   方法参数
      */
     protected void validParams(Class<?> type, Method method, Object[] args) {
-        Parameter[] parameters = method.getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
+        // 预编译的调用计划在没有 @Validated 时不传参数数组
+        if (args == null) {
+            return;
+        }
+        ValidationPlan plan = validationPlan(type, method);
+        if (!plan.isValidateParams()) {
+            return;
+        }
+        for (int i = 0; i < args.length; i++) {
             // 优先级 参数 > 方法 > 类
-            Validated validated = Optional.ofNullable(parameter.getAnnotation(Validated.class))
-                    .orElse(
-                            Optional.ofNullable(method.getAnnotation(Validated.class))
-                                    .orElse(type.getAnnotation(Validated.class))
-                    );
-            doValidated(method, validated, args[i]);
+            doValidated(method, plan.param(i, args[i]), args[i]);
         }
     }
 
@@ -477,11 +1304,11 @@ public class JdkProxyCreators implements ProxyCreators {
             return;
         }
         Set<ConstraintViolation<Object>> constraintViolations = VALIDATOR.validate(arg, validated.value());
-        Map<String, String> validatedMsg = new HashMap<>(25);
-        for (ConstraintViolation<Object> valid : constraintViolations) {
-            validatedMsg.put(valid.getPropertyPath().toString(), valid.getMessage());
-        }
         if (!CollectionUtils.isEmpty(constraintViolations)) {
+            Map<String, String> validatedMsg = new HashMap<>(constraintViolations.size() * 2);
+            for (ConstraintViolation<Object> valid : constraintViolations) {
+                validatedMsg.put(valid.getPropertyPath().toString(), valid.getMessage());
+            }
             StringBuilder stringBuilder = new StringBuilder();
             stringBuilder.append("Method ").append(method.getDeclaringClass())
                     .append("$")
@@ -526,14 +1353,7 @@ public class JdkProxyCreators implements ProxyCreators {
      * @param remoteFunction 注解
      */
     protected void extractUri(MethodContext methodContext, RemoteFunction remoteFunction) {
-        String uri = remoteFunction.value();
-        if (uri.startsWith(PLACE_HOLDER_PREFIX)) {
-            String propertiesKey = extractPlaceHolder(uri);
-            uri = StringUtils.trim(SpringContextHolder.getRequiredProperty(propertiesKey));
-        } else {
-            uri = StringUtils.trim(remoteFunction.value());
-        }
-        methodContext.setUri(uri);
+        methodContext.setUri(resolve(remoteFunction.value()));
     }
 
 
@@ -552,6 +1372,24 @@ public class JdkProxyCreators implements ProxyCreators {
         extractConnectionInfo(serverContext, remoteService);
         // 提取服务信息
         extractServerInfo(serverContext, remoteService, type);
+        // 提取自适应并发配置
+        extractConcurrencyLimit(serverContext, remoteService);
+        // 提取舱壁配置
+        extractBulkhead(serverContext, remoteService);
+        // 提取 trace_log 配置
+        extractTraceLog(serverContext, remoteService);
+        // 提取内容日志配置
+        extractPayloadLog(serverContext, remoteService);
+        // 提取预热配置
+        extractWarmUp(serverContext, remoteService);
+        // 提取返回值校验配置
+        extractResponseValidation(serverContext, remoteService);
+        // 提取 http 缓存配置
+        extractHttpCache(serverContext, remoteService);
+        // 提取堆外缓存配置
+        extractOffHeapCache(serverContext, remoteService);
+        // 提取录制/回放配置
+        extractRecordReplay(serverContext, remoteService);
         return serverContext;
     }
 
@@ -572,31 +1410,141 @@ public class JdkProxyCreators implements ProxyCreators {
     }
 
     /**
-     * 提取连接信息，封装到 serverContext
+     * 提取自适应并发配置，封装到 serverContext
      *
      * @param serverContext serverContext
      * @param remoteService @RemoteService
      */
-    protected void extractConnectionInfo(ServerContext serverContext, RemoteService remoteService) {
-        String connectTimeout = remoteService.connectTimeout().trim();
-        if (connectTimeout.startsWith(PLACE_HOLDER_PREFIX)) {
-            String propertiesKey = extractPlaceHolder(connectTimeout);
-            connectTimeout = StringUtils.trim(SpringContextHolder.getRequiredProperty(propertiesKey));
+    protected void extractConcurrencyLimit(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setAdaptiveConcurrency(remoteService.adaptiveConcurrency());
+        serverContext.setInitialConcurrency(remoteService.initialConcurrency());
+        serverContext.setMinConcurrency(remoteService.minConcurrency());
+        serverContext.setMaxConcurrency(remoteService.maxConcurrency());
+    }
+
+    /**
+     * 提取舱壁配置，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractBulkhead(ServerContext serverContext, RemoteService remoteService) {
+        if (remoteService.bulkheadMaxConcurrent() < 1) {
+            throw new IllegalArgumentException("bulkheadMaxConcurrent must be greater than 0");
         }
-        if (!NumberUtil.isNumber(connectTimeout)) {
-            throw new IllegalArgumentException("connectTimeout must be a number");
+        serverContext.setBulkheadType(remoteService.bulkhead());
+        serverContext.setBulkheadMaxConcurrent(remoteService.bulkheadMaxConcurrent());
+        serverContext.setBulkheadQueueSize(remoteService.bulkheadQueueSize());
+        serverContext.setBulkheadMaxWait(resolveLong(remoteService.bulkheadMaxWait(), "bulkheadMaxWait"));
+    }
+
+    /**
+     * 提取 trace_log 配置，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractTraceLog(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setTraceLogSampleRate(resolveDouble(remoteService.traceLogSampleRate(), "traceLogSampleRate"));
+        serverContext.setTraceLogMaxResponseLength(resolveInt(remoteService.traceLogMaxResponseLength(), "traceLogMaxResponseLength"));
+    }
+
+    /**
+     * 提取请求、响应内容日志配置，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractPayloadLog(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setPayloadLogSampleRate(resolveDouble(remoteService.payloadLogSampleRate(), "payloadLogSampleRate"));
+        serverContext.setPayloadLogMaxLength(resolveInt(remoteService.payloadLogMaxLength(), "payloadLogMaxLength"));
+    }
+
+    /**
+     * 提取返回值校验采样率，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractResponseValidation(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setResponseValidationSampleRate(resolveDouble(remoteService.responseValidationSampleRate(), "responseValidationSampleRate"));
+    }
+
+    /**
+     * 提取启动预热配置，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractWarmUp(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setWarmUp(remoteService.warmUp());
+        serverContext.setWarmUpEndpoints(remoteService.warmUpEndpoints());
+        serverContext.setWarmUpConnections(resolveInt(remoteService.warmUpConnections(), "warmUpConnections"));
+    }
+
+    /**
+     * 提取 http 缓存配置，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractHttpCache(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setHttpCache(remoteService.httpCache());
+        if (!remoteService.httpCache()) {
+            return;
         }
-        serverContext.setConnectTimeout(Integer.parseInt(connectTimeout));
+        serverContext.setHttpCacheMaxSize(resolveLong(remoteService.httpCacheMaxSize(), "httpCacheMaxSize"));
+        serverContext.setHttpCacheDirectory(resolve(remoteService.httpCacheDirectory()));
+        serverContext.setHttpCacheDiskMaxSize(resolveLong(remoteService.httpCacheDiskMaxSize(), "httpCacheDiskMaxSize"));
+    }
+
+    /**
+     * 提取堆外缓存配置
+     *
+     * @param serverContext serverContext
+     * @param remoteService remoteService
+     */
+    protected void extractOffHeapCache(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setOffHeapCacheSize(resolveLong(remoteService.offHeapCacheSize(), "offHeapCacheSize"));
+        serverContext.setOffHeapCacheDirectory(resolve(remoteService.offHeapCacheDirectory()));
+    }
 
-        String socketTimeout = remoteService.socketTimeout().trim();
-        if (socketTimeout.startsWith(PLACE_HOLDER_PREFIX)) {
-            String propertiesKey = extractPlaceHolder(socketTimeout);
-            socketTimeout = StringUtils.trim(SpringContextHolder.getRequiredProperty(propertiesKey));
+    /**
+     * 提取录制/回放配置
+     *
+     * @param serverContext serverContext
+     * @param remoteService remoteService
+     */
+    protected void extractRecordReplay(ServerContext serverContext, RemoteService remoteService) {
+        String mode = resolve(remoteService.recordReplay());
+        RecordReplayMode recordReplay;
+        try {
+            recordReplay = RecordReplayMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("recordReplay must be one of " + Arrays.toString(RecordReplayMode.values()));
+        }
+        serverContext.setRecordReplay(recordReplay);
+        if (recordReplay == RecordReplayMode.OFF) {
+            return;
         }
-        if (!NumberUtil.isNumber(socketTimeout)) {
-            throw new IllegalArgumentException("socketTimeout must be a number");
+        String directory = resolve(remoteService.recordReplayDirectory());
+        if (StringUtils.isEmpty(directory)) {
+            throw new IllegalArgumentException("recordReplayDirectory must not be empty when recordReplay is " + recordReplay);
         }
-        serverContext.setSocketTimeOut(Integer.parseInt(socketTimeout));
+        serverContext.setRecordReplayDirectory(directory);
+        serverContext.setReplayLatency(Boolean.parseBoolean(resolve(remoteService.replayLatency())));
+        serverContext.setRecordMaxSize(resolveLong(remoteService.recordMaxSize(), "recordMaxSize"));
+    }
+
+    /**
+     * 提取连接信息，封装到 serverContext
+     *
+     * @param serverContext serverContext
+     * @param remoteService @RemoteService
+     */
+    protected void extractConnectionInfo(ServerContext serverContext, RemoteService remoteService) {
+        serverContext.setConnectTimeout(resolveInt(remoteService.connectTimeout(), "connectTimeout"));
+        serverContext.setSocketTimeOut(resolveInt(remoteService.socketTimeout(), "socketTimeout"));
         serverContext.setMaxIdleConnections(remoteService.maxIdleConnections());
         serverContext.setKeepAliveDuration(remoteService.keepAliveDuration());
     }
@@ -638,14 +1586,66 @@ public class JdkProxyCreators implements ProxyCreators {
      */
     protected void extractBaseUrl(ServerContext serverContext, RemoteService remoteService) {
         // 读取url, 优先从配置文件读取
-        String baseUrl = remoteService.baseUrl().trim();
-        if (baseUrl.startsWith(PLACE_HOLDER_PREFIX)) {
-            String propertiesKey = extractPlaceHolder(baseUrl);
-            baseUrl = StringUtils.trim(SpringContextHolder.getRequiredProperty(propertiesKey));
-        } else {
-            baseUrl = StringUtils.trim(remoteService.baseUrl());
+        serverContext.setBaseUrl(resolve(remoteService.baseUrl()));
+    }
+
+    /**
+     * 解析注解属性值: 去除首尾空白，${} 占位符从配置文件读取
+     *
+     * @param value 注解属性值
+     * @return 解析后的值
+     */
+    protected String resolve(String value) {
+        String resolved = StringUtils.trim(value);
+        if (resolved.startsWith(PLACE_HOLDER_PREFIX)) {
+            resolved = StringUtils.trim(SpringContextHolder.getRequiredProperty(extractPlaceHolder(resolved)));
+        }
+        return resolved;
+    }
+
+    /**
+     * 解析 long 类型的注解属性值
+     *
+     * @param value     注解属性值
+     * @param attribute 属性名，用于错误提示
+     * @return 解析后的值
+     */
+    protected long resolveLong(String value, String attribute) {
+        String resolved = resolve(value);
+        if (!NumberUtil.isLong(resolved)) {
+            throw new IllegalArgumentException(attribute + " must be an integer");
+        }
+        return Long.parseLong(resolved);
+    }
+
+    /**
+     * 解析 int 类型的注解属性值
+     *
+     * @param value     注解属性值
+     * @param attribute 属性名，用于错误提示
+     * @return 解析后的值
+     */
+    protected int resolveInt(String value, String attribute) {
+        String resolved = resolve(value);
+        if (!NumberUtil.isInteger(resolved)) {
+            throw new IllegalArgumentException(attribute + " must be an integer");
+        }
+        return Integer.parseInt(resolved);
+    }
+
+    /**
+     * 解析 double 类型的注解属性值
+     *
+     * @param value     注解属性值
+     * @param attribute 属性名，用于错误提示
+     * @return 解析后的值
+     */
+    protected double resolveDouble(String value, String attribute) {
+        String resolved = resolve(value);
+        if (!NumberUtil.isNumber(resolved)) {
+            throw new IllegalArgumentException(attribute + " must be a number");
         }
-        serverContext.setBaseUrl(baseUrl);
+        return Double.parseDouble(resolved);
     }
 
     /**
@@ -0,0 +1,66 @@
+package com.bestv.remote.interfaces.impl.creators;
+
+import com.bestv.remote.breaker.CircuitBreakers;
+import com.bestv.remote.cache.LastKnownGoodStores;
+import com.bestv.remote.cache.NegativeCaches;
+import com.bestv.remote.cache.OffHeapCache;
+import com.bestv.remote.bulkhead.Bulkhead;
+import com.bestv.remote.context.ServerContext;
+import com.bestv.remote.interfaces.RestHandler;
+import com.bestv.remote.limiter.ConcurrencyLimiters;
+import com.bestv.remote.context.MethodContext;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 远程服务的运行时组件
+ * <p>
+ * 在创建代理时构建一次，由该服务的所有方法共享;
+ * 服务配置和方法上下文是解析好占位符的快照，配置变更时整体替换
+ *
+ * @author taojiacheng
+ */
+@Getter
+@AllArgsConstructor
+public class ServiceRuntime {
+
+    /**
+     * 远程服务接口
+     */
+    private final Class<?> type;
+
+    @Setter(AccessLevel.PACKAGE)
+    private volatile ServerContext serverContext;
+
+    private final RestHandler restHandler;
+
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    /**
+     * 舱壁, 未开启时为 null
+     */
+    private final Bulkhead bulkhead;
+
+    private final CircuitBreakers circuitBreakers;
+
+    private final NegativeCaches negativeCaches;
+
+    private final LastKnownGoodStores lastKnownGoodStores;
+
+    /**
+     * 堆外缓存, 没有方法使用时为 null
+     */
+    private final OffHeapCache offHeapCache;
+
+    /**
+     * 方法上下文模板，调用时复制一份
+     */
+    private final AtomicReference<Map<Method, MethodContext>> methodContexts = new AtomicReference<>(new ConcurrentHashMap<>());
+}
@@ -0,0 +1,104 @@
+package com.bestv.remote.interfaces.impl.creators;
+
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Validator;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * 单个接口方法预先解析的校验计划
+ * <p>
+ * 在首次调用时解析参数、方法、类上的 @Validated (优先级 参数 > 方法 > 类)，
+ * 没有 @Validated 的参数和返回值直接跳过；运行时类型没有任何约束时也不进入校验器
+ *
+ * @author taojiacheng
+ */
+final class ValidationPlan {
+
+    /**
+     * 类型是否存在约束，复用校验器构建的 bean 元数据
+     */
+    private final ClassValue<Boolean> constrained;
+
+    /**
+     * 各参数的 @Validated, 不校验时为 null
+     */
+    private final Validated[] params;
+
+    /**
+     * 返回值的 @Validated, 不校验时为 null
+     */
+    private final Validated response;
+
+    /**
+     * 是否存在需要校验的参数
+     */
+    private final boolean validateParams;
+
+    ValidationPlan(Class<?> type, Method method, ClassValue<Boolean> constrained) {
+        this.constrained = constrained;
+        Validated fallback = method.getAnnotation(Validated.class);
+        if (fallback == null) {
+            fallback = type.getAnnotation(Validated.class);
+        }
+        Parameter[] parameters = method.getParameters();
+        this.params = new Validated[parameters.length];
+        boolean any = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Validated validated = parameters[i].getAnnotation(Validated.class);
+            params[i] = validated != null ? validated : fallback;
+            any |= params[i] != null;
+        }
+        this.validateParams = any;
+        this.response = fallback;
+    }
+
+    /**
+     * 需要校验的参数的 @Validated
+     *
+     * @param index 参数下标
+     * @param arg   参数
+     * @return 不需要校验时返回 null
+     */
+    Validated param(int index, Object arg) {
+        return required(params[index], arg);
+    }
+
+    /**
+     * 需要校验的返回值的 @Validated
+     *
+     * @param result 返回值
+     * @return 不需要校验时返回 null
+     */
+    Validated response(Object result) {
+        return required(response, result);
+    }
+
+    boolean isValidateParams() {
+        return validateParams;
+    }
+
+    private Validated required(Validated validated, Object target) {
+        if (validated == null) {
+            return null;
+        }
+        // null 交给校验器处理，与原有行为一致
+        if (target != null && !constrained.get(target.getClass())) {
+            return null;
+        }
+        return validated;
+    }
+
+    /**
+     * 类型是否存在约束
+     */
+    static ClassValue<Boolean> constrained(Validator validator) {
+        return new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return validator.getConstraintsForClass(type).isBeanConstrained();
+            }
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.bestv.remote.interfaces.impl.restHandler;
+
+import com.bestv.remote.buffer.ChunkedOutputStream;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * 基于 okHttp 的请求工厂，替代 OkHttp3ClientHttpRequestFactory
+ * <p>
+ * OkHttp3ClientHttpRequestFactory 先把请求体写入 ByteArrayOutputStream，再 toByteArray 复制一份交给 okHttp;
+ * 这里请求体写入 {@link ChunkedOutputStream} 借来的块，直接从块写入连接，请求完成后归还，
+ * 请求体大小已知，仍然使用 Content-Length 而不是分块传输。响应体直接交给消息转换器读取
+ *
+ * @author taojiacheng
+ */
+public class PooledOkHttpClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final OkHttpClient client;
+
+    public PooledOkHttpClientHttpRequestFactory(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @NotNull
+    @Override
+    public ClientHttpRequest createRequest(@NotNull URI uri, @NotNull HttpMethod httpMethod) {
+        return new PooledOkHttpClientHttpRequest(client, uri, httpMethod);
+    }
+
+    private static class PooledOkHttpClientHttpRequest extends AbstractClientHttpRequest {
+
+        private final OkHttpClient client;
+
+        private final URI uri;
+
+        private final HttpMethod method;
+
+        private ChunkedOutputStream body;
+
+        private PooledOkHttpClientHttpRequest(OkHttpClient client, URI uri, HttpMethod method) {
+            this.client = client;
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @NotNull
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @NotNull
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @NotNull
+        @Override
+        protected OutputStream getBodyInternal(@NotNull HttpHeaders headers) {
+            if (body == null) {
+                body = new ChunkedOutputStream();
+            }
+            return body;
+        }
+
+        @NotNull
+        @Override
+        protected ClientHttpResponse executeInternal(@NotNull HttpHeaders headers) throws IOException {
+            try {
+                Request.Builder builder = new Request.Builder().url(uri.toURL()).method(method.name(), requestBody(headers));
+                headers.forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+                // 响应头返回时请求体已全部写出 (包括 okHttp 的重试)，可以归还
+                return new PooledOkHttpClientHttpResponse(client.newCall(builder.build()).execute());
+            } finally {
+                if (body != null) {
+                    body.close();
+                }
+            }
+        }
+
+        private RequestBody requestBody(HttpHeaders headers) {
+            ChunkedOutputStream content = body;
+            if ((content == null || content.size() == 0) && method != HttpMethod.POST && method != HttpMethod.PUT
+                    && method != HttpMethod.PATCH) {
+                return null;
+            }
+            String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+            okhttp3.MediaType mediaType = contentType == null ? null : okhttp3.MediaType.parse(contentType);
+            if (content == null) {
+                return RequestBody.create(new byte[0], mediaType);
+            }
+            return new RequestBody() {
+                @Override
+                public okhttp3.MediaType contentType() {
+                    return mediaType;
+                }
+
+                @Override
+                public long contentLength() {
+                    return content.size();
+                }
+
+                @Override
+                public void writeTo(@NotNull BufferedSink sink) throws IOException {
+                    content.writeTo(sink.outputStream());
+                }
+            };
+        }
+    }
+
+    private static class PooledOkHttpClientHttpResponse extends AbstractClientHttpResponse {
+
+        private static final InputStream EMPTY = new InputStream() {
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+
+        private final Response response;
+
+        private HttpHeaders headers;
+
+        private PooledOkHttpClientHttpResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return response.code();
+        }
+
+        @NotNull
+        @Override
+        public String getStatusText() {
+            return response.message();
+        }
+
+        @NotNull
+        @Override
+        public InputStream getBody() {
+            ResponseBody body = response.body();
+            return body == null ? EMPTY : body.byteStream();
+        }
+
+        @NotNull
+        @Override
+        public HttpHeaders getHeaders() {
+            if (headers == null) {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                for (String name : response.headers().names()) {
+                    httpHeaders.put(name, response.headers(name));
+                }
+                headers = httpHeaders;
+            }
+            return headers;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
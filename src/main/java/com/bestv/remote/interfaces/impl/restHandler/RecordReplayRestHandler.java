@@ -0,0 +1,223 @@
+package com.bestv.remote.interfaces.impl.restHandler;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ParamContext;
+import com.bestv.remote.context.ServerContext;
+import com.bestv.remote.convert.JsonSerializer;
+import com.bestv.remote.enums.RecordReplayMode;
+import com.bestv.remote.exceptions.Http4xxException;
+import com.bestv.remote.interfaces.RestHandler;
+import com.bestv.remote.interfaces.impl.restHandler.RecordingFile.Recording;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 录制/回放调用处理器，装饰实际的调用处理器
+ * <p>
+ * 录制: 正常调用远程服务，把 方法 + 规范化后的请求 对应的结果 (或 4xx、5xx、io 异常) 和实测耗时追加到录制文件;
+ * 回放: 不访问网络，从录制文件返回结果或抛出录制时的异常，可以按录制时的耗时等待后返回，没有录制时抛出 ResourceAccessException。
+ * <p>
+ * 规范化请求包括 baseUrl、路径参数、url 参数和请求体，map 按 key 排序; 请求头不参与匹配 (通常包含 trace id、时间戳)。
+ * 流式响应、文件上传和下载不录制，回放时同样抛出 ResourceAccessException
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class RecordReplayRestHandler implements RestHandler {
+
+    /**
+     * 录制文件的扩展名，文件名为 服务名 + 扩展名
+     */
+    public static final String FILE_SUFFIX = ".replay";
+
+    /**
+     * 规范化请求: map 按 key 排序
+     */
+    private static final ObjectWriter REQUEST_WRITER = JsonSerializer.getInstance()
+            .writer(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private final RestHandler delegate;
+
+    private RecordReplayMode mode;
+
+    private boolean replayLatency;
+
+    private RecordingFile recordingFile;
+
+    public RecordReplayRestHandler(RestHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void init(ServerContext serverContext) {
+        delegate.init(serverContext);
+        this.mode = serverContext.getRecordReplay();
+        this.replayLatency = serverContext.isReplayLatency();
+        File file = new File(serverContext.getRecordReplayDirectory(), serverContext.getServiceName() + FILE_SUFFIX);
+        this.recordingFile = mode == RecordReplayMode.REPLAY ? RecordingFile.forReplay(file)
+                : RecordingFile.forRecord(file, serverContext.getRecordMaxSize());
+        log.info("event=remote.record_replay.open service={} mode={} file={} records={}", serverContext.getServiceName(),
+                mode, file, recordingFile.size());
+    }
+
+    @Override
+    public Object invokeRest(MethodContext methodContext, ParamContext paramContext) {
+        String key = recordable(methodContext, paramContext) ? recordingKey(methodContext, paramContext) : null;
+        if (mode == RecordReplayMode.REPLAY) {
+            return replay(methodContext, key);
+        }
+        if (key == null) {
+            return delegate.invokeRest(methodContext, paramContext);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = delegate.invokeRest(methodContext, paramContext);
+            byte[] body = null;
+            if (result != null) {
+                try {
+                    body = JsonSerializer.getInstance().writeValueAsBytes(result);
+                } catch (IOException e) {
+                    log.debug("event=remote.record.skip method={} reason={}", methodContext.getMethodKey(), e.getMessage());
+                    return result;
+                }
+            }
+            recordingFile.append(new Recording(Recording.RESULT, key, latencyMicros(start), 0, null, body));
+            return result;
+        } catch (Http4xxException e) {
+            recordingFile.append(new Recording(Recording.HTTP_4XX, key, latencyMicros(start), e.getStatusCode(), e.getMessage(), null));
+            throw e;
+        } catch (RestClientResponseException e) {
+            recordingFile.append(new Recording(Recording.HTTP_ERROR, key, latencyMicros(start), e.getRawStatusCode(),
+                    e.getMessage(), e.getResponseBodyAsByteArray()));
+            throw e;
+        } catch (ResourceAccessException e) {
+            recordingFile.append(new Recording(Recording.IO_ERROR, key, latencyMicros(start), 0, e.getMessage(), null));
+            throw e;
+        }
+    }
+
+    /**
+     * 回放时不访问网络，不建立连接
+     */
+    @Override
+    public void warmUp(List<MethodContext> methodContexts) {
+        if (mode != RecordReplayMode.REPLAY) {
+            delegate.warmUp(methodContexts);
+        }
+    }
+
+    /**
+     * 录制/回放模式和录制文件在创建时确定，配置变更只刷新实际的调用处理器
+     */
+    @Override
+    public void refresh(ServerContext serverContext) {
+        delegate.refresh(serverContext);
+    }
+
+    /**
+     * 从录制文件返回结果
+     *
+     * @param methodContext 方法上下文
+     * @param key           录制 key，不可录制的调用为 null
+     * @return 录制的结果
+     */
+    protected Object replay(MethodContext methodContext, String key) {
+        Recording recording = key == null ? null : recordingFile.next(key);
+        if (recording == null) {
+            log.warn("event=remote.replay.miss method={} key={}", methodContext.getMethodKey(), key);
+            throw new ResourceAccessException("no recording for " + methodContext.getMethodKey() + " key=" + key);
+        }
+        if (replayLatency) {
+            sleep(recording.getLatencyMicros());
+        }
+        switch (recording.getKind()) {
+            case Recording.RESULT:
+                if (recording.getBody() == null) {
+                    return null;
+                }
+                try {
+                    return JsonSerializer.readerFor(methodContext.getGenericReturnType()).readValue(recording.getBody());
+                } catch (IOException e) {
+                    throw new ResourceAccessException("failed to decode recording of " + methodContext.getMethodKey()
+                            + " : " + e.getMessage(), e);
+                }
+            case Recording.HTTP_4XX:
+                throw new Http4xxException(recording.getStatus(), recording.getMessage());
+            case Recording.HTTP_ERROR:
+                throw httpError(recording);
+            default:
+                throw new ResourceAccessException(recording.getMessage());
+        }
+    }
+
+    /**
+     * 方法 + 规范化请求的摘要
+     */
+    protected String recordingKey(MethodContext methodContext, ParamContext paramContext) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("baseUrl", paramContext.getBaseUrl());
+        request.put("path", paramContext.getPathParams());
+        request.put("query", paramContext.getUrlParams());
+        request.put("form", paramContext.getRequestBody());
+        request.put("json", paramContext.getJsonBody());
+        try {
+            return methodContext.getMethodKey() + "#" + DigestUtils.md5DigestAsHex(REQUEST_WRITER.writeValueAsBytes(request));
+        } catch (IOException e) {
+            log.debug("event=remote.record.skip method={} reason={}", methodContext.getMethodKey(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean recordable(MethodContext methodContext, ParamContext paramContext) {
+        return methodContext.getResponseStream() == null && paramContext.getResponseConsumer() == null
+                && paramContext.getDownloadTarget() == null && paramContext.getFileParts().isEmpty();
+    }
+
+    private static RestClientResponseException httpError(Recording recording) {
+        HttpStatus status = HttpStatus.resolve(recording.getStatus());
+        String message = recording.getMessage();
+        byte[] body = recording.getBody();
+        if (status == null) {
+            return new UnknownHttpStatusCodeException(message, recording.getStatus(), "", HttpHeaders.EMPTY, body,
+                    StandardCharsets.UTF_8);
+        }
+        if (status.is4xxClientError()) {
+            return HttpClientErrorException.create(message, status, status.getReasonPhrase(), HttpHeaders.EMPTY, body,
+                    StandardCharsets.UTF_8);
+        }
+        return HttpServerErrorException.create(message, status, status.getReasonPhrase(), HttpHeaders.EMPTY, body,
+                StandardCharsets.UTF_8);
+    }
+
+    private static int latencyMicros(long start) {
+        return (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    private static void sleep(int latencyMicros) {
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.bestv.remote.interfaces.impl.restHandler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 录制文件
+ * <p>
+ * 录制的调用依次追加到内存映射文件中，文件格式:
+ * <pre>
+ * 文件头: magic (int)
+ * 录制项: 长度 (int) | 类型 (byte) | 耗时 微秒 (int) | 状态码 (int) | key | 消息 | 响应体
+ * </pre>
+ * key 和消息为 2 字节长度 + utf-8 字节，响应体为 4 字节长度 (-1 表示 null) + 字节; 长度为 0 表示文件结束。
+ * 录制时文件按容量预先映射 (稀疏文件，按实际写入占用磁盘)，写满后不再录制; 已有的录制文件继续追加。
+ * <p>
+ * 回放时建立 key 到录制项的索引，同一个 key 录制了多次时依次轮流返回，复现录制时的耗时分布
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class RecordingFile {
+
+    private static final int MAGIC = 0x52525031;
+
+    private static final int HEADER_SIZE = 4;
+
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    @Getter
+    private final File file;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * 回放索引，录制时为 null
+     */
+    private final Map<String, Samples> index;
+
+    /**
+     * 下一个录制项的位置
+     */
+    private int position;
+
+    private int count;
+
+    private boolean full;
+
+    private RecordingFile(File file, MappedByteBuffer buffer, boolean replay) {
+        this.file = file;
+        this.buffer = buffer;
+        this.index = replay ? new HashMap<>() : null;
+        scan();
+    }
+
+    /**
+     * 打开录制文件用于录制，文件不存在时创建
+     *
+     * @param file     录制文件
+     * @param capacity 文件容量 (字节)，不超过 2GB
+     * @return 录制文件
+     */
+    public static RecordingFile forRecord(File file, long capacity) {
+        File dir = file.getAbsoluteFile().getParentFile();
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("can not create directory " + dir);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                long size = Math.min(Integer.MAX_VALUE, Math.max(capacity, channel.size()));
+                // 映射在 channel 关闭后仍然有效
+                return new RecordingFile(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), false);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to open recording file " + file, e);
+        }
+    }
+
+    /**
+     * 打开录制文件用于回放
+     *
+     * @param file 录制文件
+     * @return 录制文件
+     */
+    public static RecordingFile forReplay(File file) {
+        if (!file.isFile()) {
+            throw new IllegalStateException("recording file not found: " + file);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            long size = Math.min(Integer.MAX_VALUE, channel.size());
+            return new RecordingFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), true);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to open recording file " + file, e);
+        }
+    }
+
+    /**
+     * 追加录制项，文件写满时忽略
+     *
+     * @param recording 录制项
+     * @return 是否写入
+     */
+    public synchronized boolean append(Recording recording) {
+        if (full) {
+            return false;
+        }
+        byte[] key = recording.getKey().getBytes(StandardCharsets.UTF_8);
+        String message = recording.getMessage() == null ? "" : recording.getMessage();
+        if (message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        byte[] body = recording.getBody();
+        long length = 1 + 4 + 4 + 2 + key.length + 2 + messageBytes.length + 4 + (body == null ? 0 : body.length);
+        if (key.length > Short.MAX_VALUE) {
+            return false;
+        }
+        // 末尾保留长度 0 的结束标记
+        if (position + 4 + length + 4 > buffer.capacity()) {
+            full = true;
+            log.warn("event=remote.record.full file={} records={}", file, count);
+            return false;
+        }
+        ByteBuffer out = buffer.duplicate();
+        out.position(position + 4);
+        out.put(recording.getKind());
+        out.putInt(recording.getLatencyMicros());
+        out.putInt(recording.getStatus());
+        out.putShort((short) key.length);
+        out.put(key);
+        out.putShort((short) messageBytes.length);
+        out.put(messageBytes);
+        if (body == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(body.length);
+            out.put(body);
+        }
+        // 最后写入长度，之前的内容对回放不可见
+        buffer.putInt(position, (int) length);
+        position += 4 + (int) length;
+        count++;
+        return true;
+    }
+
+    /**
+     * 轮流返回 key 的录制项
+     *
+     * @param key 录制 key
+     * @return 录制项，没有录制时返回 null
+     */
+    public Recording next(String key) {
+        Samples samples = index.get(key);
+        if (samples == null) {
+            return null;
+        }
+        int offset = samples.offsets[Math.floorMod(samples.next.getAndIncrement(), samples.offsets.length)];
+        return read(offset);
+    }
+
+    /**
+     * 录制项数量
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 检查文件头，定位文件结束位置，回放时建立索引
+     */
+    private void scan() {
+        if (buffer.capacity() < HEADER_SIZE + 4) {
+            throw new IllegalStateException("invalid recording file: " + file);
+        }
+        int magic = buffer.getInt(0);
+        if (magic == 0 && index == null) {
+            buffer.putInt(0, MAGIC);
+        } else if (magic != MAGIC) {
+            throw new IllegalStateException("invalid recording file: " + file);
+        }
+        Map<String, List<Integer>> offsets = new HashMap<>();
+        int offset = HEADER_SIZE;
+        while (offset + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + 4L + length > buffer.capacity()) {
+                break;
+            }
+            if (index != null) {
+                offsets.computeIfAbsent(read(offset).getKey(), k -> new ArrayList<>()).add(offset);
+            }
+            offset += 4 + length;
+            count++;
+        }
+        position = offset;
+        if (index != null) {
+            offsets.forEach((key, list) -> index.put(key, new Samples(list.stream().mapToInt(Integer::intValue).toArray())));
+        }
+    }
+
+    private Recording read(int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + 4);
+        byte kind = in.get();
+        int latencyMicros = in.getInt();
+        int status = in.getInt();
+        String key = readString(in);
+        String message = readString(in);
+        int bodyLength = in.getInt();
+        byte[] body = null;
+        if (bodyLength >= 0) {
+            body = new byte[bodyLength];
+            in.get(body);
+        }
+        return new Recording(kind, key, latencyMicros, status, message, body);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 录制项
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Recording {
+
+        /**
+         * 调用结果
+         */
+        public static final byte RESULT = 0;
+
+        /**
+         * {@link com.bestv.remote.exceptions.Http4xxException}
+         */
+        public static final byte HTTP_4XX = 1;
+
+        /**
+         * 其他 http 错误状态码, {@link org.springframework.web.client.RestClientResponseException}
+         */
+        public static final byte HTTP_ERROR = 2;
+
+        /**
+         * 连接失败、超时等 io 异常, {@link org.springframework.web.client.ResourceAccessException}
+         */
+        public static final byte IO_ERROR = 3;
+
+        private final byte kind;
+
+        private final String key;
+
+        private final int latencyMicros;
+
+        private final int status;
+
+        private final String message;
+
+        private final byte[] body;
+    }
+
+    /**
+     * 同一个 key 的录制项
+     */
+    private static class Samples {
+
+        private final int[] offsets;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Samples(int[] offsets) {
+            this.offsets = offsets;
+        }
+    }
+}
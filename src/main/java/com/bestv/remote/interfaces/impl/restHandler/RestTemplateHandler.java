@@ -1,39 +1,77 @@
 package com.bestv.remote.interfaces.impl.restHandler;
 
+import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.net.url.UrlBuilder;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.core.util.URLUtil;
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
+import com.bestv.remote.codec.BodyCodec;
+import com.bestv.remote.codec.BodyCodecResponseExtractor;
 import com.bestv.remote.context.MethodContext;
 import com.bestv.remote.context.ParamContext;
 import com.bestv.remote.context.ServerContext;
 import com.bestv.remote.convert.CustomerMappingJackson2HttpMessageConverter;
+import com.bestv.remote.convert.FileChannelRequestBody;
+import com.bestv.remote.convert.FormUrlEncodedBody;
+import com.bestv.remote.convert.FormUrlEncodedHttpMessageConverter;
+import com.bestv.remote.convert.JsonArrayIterator;
+import com.bestv.remote.convert.JsonBody;
+import com.bestv.remote.convert.JsonBodyHttpMessageConverter;
+import com.bestv.remote.convert.JsonReaderResponseExtractor;
+import com.bestv.remote.convert.JsonSerializer;
+import com.bestv.remote.enums.ResponseStreamType;
 import com.bestv.remote.exceptions.Http4xxException;
+import com.bestv.remote.httpcache.HttpCacheInterceptor;
 import com.bestv.remote.interfaces.RestHandler;
-import com.bestv.remote.trace.TraceLogContext;
+import com.bestv.remote.metrics.MetricsRegistry;
+import com.bestv.remote.trace.AsyncTraceLogWriter;
+import com.bestv.remote.trace.ResponseCodeExtractor;
 import com.bestv.remote.trace.TraceLogContextHolder;
-import com.bestv.trace.bean.TraceLogBean;
-import com.bestv.trace.log.TraceLogPrinter;
+import com.bestv.remote.utils.PayloadLog;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
 import okhttp3.ConnectionPool;
+import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.http.*;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.util.StopWatch;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * restTemplate 实现远程服务调用
@@ -47,7 +85,62 @@ public class RestTemplateHandler implements RestHandler {
 
     protected RestTemplate restTemplate;
 
-    protected ServerContext serverContext;
+    /**
+     * 流式响应在日志中的占位内容
+     */
+    protected final static String STREAMING_BODY = "[streaming]";
+
+    /**
+     * 下载文件时每次 transferFrom 的最大字节数
+     */
+    protected final static long TRANSFER_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * 流式请求中表单请求体的 Content-Type
+     */
+    protected final static okhttp3.MediaType FORM_URLENCODED = okhttp3.MediaType.get(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+
+    /**
+     * json 请求体转换器，与 restTemplate 的 json 消息转换器、响应解码器使用同一个 ObjectMapper
+     */
+    protected final static JsonBodyHttpMessageConverter JSON_BODY_CONVERTER;
+
+    /**
+     * 各服务共用的消息转换器，避免每个 restTemplate 重复创建 ObjectMapper
+     */
+    protected final static List<HttpMessageConverter<?>> MESSAGE_CONVERTERS;
+
+    static {
+        List<HttpMessageConverter<?>> messageConverters = new ArrayList<>(new RestTemplate().getMessageConverters());
+        ObjectMapper objectMapper = JsonSerializer.getHttpInstance();
+        messageConverters.stream()
+                .filter(converter -> converter instanceof MappingJackson2HttpMessageConverter)
+                .forEach(converter -> ((MappingJackson2HttpMessageConverter) converter).setObjectMapper(objectMapper));
+        JSON_BODY_CONVERTER = new JsonBodyHttpMessageConverter(objectMapper);
+        messageConverters.add(0, JSON_BODY_CONVERTER);
+        messageConverters.add(0, new FormUrlEncodedHttpMessageConverter());
+        // 添加自定义的消息转换器
+        CustomerMappingJackson2HttpMessageConverter customerConverter = new CustomerMappingJackson2HttpMessageConverter();
+        customerConverter.setObjectMapper(objectMapper);
+        messageConverters.add(customerConverter);
+        MESSAGE_CONVERTERS = Collections.unmodifiableList(messageConverters);
+    }
+
+    protected volatile ServerContext serverContext;
+
+    protected volatile OkHttpClient okHttpClient;
+
+    protected ConnectionPool connectionPool;
+
+    /**
+     * http 语义的内存缓存，未开启时为 null
+     */
+    protected HttpCacheInterceptor httpCacheInterceptor;
+
+    /**
+     * http 缓存的磁盘层，未配置目录时为 null
+     */
+    protected Cache diskCache;
 
     /**
      * 初始化 restTemplate
@@ -58,30 +151,127 @@ public class RestTemplateHandler implements RestHandler {
     public void init(ServerContext serverContext) {
         log.info("init restTemplate request : {}", serverContext);
         this.serverContext = serverContext;
-        ConnectionPool connectionPool = new ConnectionPool(serverContext.getMaxIdleConnections(),
+        this.connectionPool = new ConnectionPool(serverContext.getMaxIdleConnections(),
                 serverContext.getKeepAliveDuration(), TimeUnit.MILLISECONDS);
+        if (serverContext.isHttpCache()) {
+            this.httpCacheInterceptor = new HttpCacheInterceptor(serverContext.getServiceName(), serverContext.getHttpCacheMaxSize());
+            if (StringUtils.isNotEmpty(serverContext.getHttpCacheDirectory())) {
+                // okHttp 的 Cache 需要独占目录，每个服务一个子目录
+                this.diskCache = new Cache(new File(serverContext.getHttpCacheDirectory(), serverContext.getServiceName()),
+                        serverContext.getHttpCacheDiskMaxSize());
+            }
+        }
         // TODO: 2022/9/13 对 https 的支持
-        OkHttpClient okHttpClient = okHttpClient(serverContext, connectionPool);
-
-        ClientHttpRequestFactory okHttp3ClientHttpRequestFactory =
-                new OkHttp3ClientHttpRequestFactory(okHttpClient);
-        this.restTemplate = new RestTemplate(okHttp3ClientHttpRequestFactory);
+        this.okHttpClient = okHttpClient(serverContext, connectionPool);
 
-        // 添加自定义的消息转换器
-        List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
-        messageConverters.add(new CustomerMappingJackson2HttpMessageConverter());
+        // 请求体写入池化的块，不经过 ByteArrayOutputStream 和 toByteArray 复制
+        ClientHttpRequestFactory requestFactory = new PooledOkHttpClientHttpRequestFactory(okHttpClient);
+        this.restTemplate = new RestTemplate(MESSAGE_CONVERTERS);
+        restTemplate.setRequestFactory(requestFactory);
     }
 
 
     @NotNull
     protected OkHttpClient okHttpClient(ServerContext serverContext, ConnectionPool connectionPool) {
-        return new OkHttpClient().newBuilder()
+        OkHttpClient.Builder builder = new OkHttpClient().newBuilder()
                 .connectionPool(connectionPool)
                 .connectTimeout(serverContext.getConnectTimeout(), TimeUnit.MILLISECONDS)
                 .readTimeout(serverContext.getSocketTimeOut(), TimeUnit.MILLISECONDS)
                 .writeTimeout(serverContext.getSocketTimeOut(), TimeUnit.MILLISECONDS)
-                .hostnameVerifier((hostname, session) -> true)
-                .build();
+                .hostnameVerifier((hostname, session) -> true);
+        if (httpCacheInterceptor != null) {
+            // 内存缓存在前，未命中时由磁盘缓存处理
+            builder.addInterceptor(httpCacheInterceptor).cache(diskCache);
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * 配置变更
+     * <p>
+     * 超时时间变化时重建 okHttpClient 并替换 restTemplate 的请求工厂，连接池沿用原来的
+     *
+     * @param serverContext 重新解析后的远程服务信息
+     */
+    @Override
+    public void refresh(ServerContext serverContext) {
+        ServerContext previous = this.serverContext;
+        if (previous.getConnectTimeout() != serverContext.getConnectTimeout()
+                || previous.getSocketTimeOut() != serverContext.getSocketTimeOut()) {
+            OkHttpClient client = okHttpClient(serverContext, connectionPool);
+            restTemplate.setRequestFactory(new PooledOkHttpClientHttpRequestFactory(client));
+            this.okHttpClient = client;
+            log.info("event=remote.refresh service={} connectTimeout={} socketTimeout={}", serverContext.getServiceName(),
+                    serverContext.getConnectTimeout(), serverContext.getSocketTimeOut());
+        }
+        this.serverContext = serverContext;
+    }
+
+    /**
+     * 启动预热
+     * <p>
+     * 各方法返回类型的反序列化器在解析方法上下文时已构建，这里按配置并发建立连接，并调用预热接口;
+     * 预热请求直接通过 okHttp 发出，不计入指标和 trace_log
+     *
+     * @param methodContexts 该服务所有方法的上下文
+     */
+    @Override
+    public void warmUp(List<MethodContext> methodContexts) {
+        String baseUrl = serverContext.getBaseUrl();
+        if (StringUtils.isEmpty(baseUrl)) {
+            // 调用时才指定 baseUrl，无法预先建立连接
+            return;
+        }
+        preConnect(baseUrl, Math.min(serverContext.getWarmUpConnections(), serverContext.getMaxIdleConnections()));
+        String[] endpoints = serverContext.getWarmUpEndpoints();
+        if (endpoints != null) {
+            for (String endpoint : endpoints) {
+                String url = UrlBuilder.of(baseUrl).addPath(endpoint).build();
+                try (Response response = okHttpClient.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                    log.info("event=remote.warmup service={} url={} status={}", serverContext.getServiceName(), url, response.code());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("event=remote.warmup service={} url={} failed : {}", serverContext.getServiceName(), url, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 并发发出 HEAD 请求，使连接池中保留 connections 个连接
+     * <p>
+     * 请求同时在途时 okHttp 才会新建连接，因此每个请求使用独立线程
+     */
+    protected void preConnect(String baseUrl, int connections) {
+        if (connections <= 0) {
+            return;
+        }
+        Request request = new Request.Builder().url(baseUrl).head().build();
+        CountDownLatch ready = new CountDownLatch(connections);
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            threads[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    ready.await();
+                    okHttpClient.newCall(request).execute().close();
+                } catch (IOException | RuntimeException e) {
+                    log.debug("event=remote.warmup service={} preconnect failed : {}", serverContext.getServiceName(), e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "remote-warmup-" + serverContext.getServiceName() + "-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("event=remote.warmup service={} connections={}", serverContext.getServiceName(), connectionPool.connectionCount());
     }
 
 
@@ -90,84 +280,80 @@ public class RestTemplateHandler implements RestHandler {
         // 构建请求头信息
         HttpHeaders httpHeaders = buildRequestHeaders(paramContext);
         String finalUrl = buildFinalUrl(methodContext, paramContext);
-        log.info("do http request, finalUrl : {}", finalUrl);
         // 执行请求
         HttpMethod httpMethod = methodContext.getHttpMethod();
-        // 请求链路
-        TraceLogBean traceLogBean = generateTraceLogBean(serverContext, methodContext, paramContext);
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        // 内容日志按方法采样，debug 级别未开启时不渲染
+        boolean logPayload = log.isDebugEnabled()
+                && PayloadLog.sample(methodContext.getMethodKey(), serverContext.getPayloadLogSampleRate());
+        if (logPayload) {
+            log.debug("event=remote.request method={} httpMethod={} url={} headers={} body={}",
+                    methodContext.getMethodKey(), httpMethod, finalUrl, httpHeaders,
+                    PayloadLog.lazy(paramContext.getJsonBody().isEmpty() ? paramContext.getRequestBody() : JsonBody.of(paramContext),
+                            serverContext.getPayloadLogMaxLength()));
+        } else {
+            log.debug("event=remote.request method={} httpMethod={} url={}", methodContext.getMethodKey(), httpMethod, finalUrl);
+        }
+        long start = System.nanoTime();
+        int httpStatus = 0;
+        Object responseBody = null;
+        boolean success = false;
         try {
             // 执行远程服务调用
             ResponseEntity<?> responseEntity = doInvokeRest(finalUrl, httpMethod, httpHeaders, methodContext, paramContext);
-            log.info("Remote service response results :{}", responseEntity);
-            // 填充 trace_log bean
-            fillTraceLogBean(traceLogBean, responseEntity);
             HttpStatus statusCode = responseEntity.getStatusCode();
+            httpStatus = statusCode.value();
+            Object result = responseEntity.getBody();
+            // 流式响应只能读取一次，不输出到日志
+            responseBody = methodContext.getResponseStream() != null ? STREAMING_BODY : result;
+            if (logPayload) {
+                log.debug("event=remote.response method={} status={} body={}", methodContext.getMethodKey(), httpStatus,
+                        PayloadLog.lazy(responseBody, serverContext.getPayloadLogMaxLength()));
+            }
+            MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordStatus(httpStatus);
             // 4xx 参数错误或者未通过鉴权异常 不走降级
             if (statusCode.is4xxClientError()) {
-                throw new Http4xxException(statusCode.getReasonPhrase());
+                throw new Http4xxException(httpStatus, statusCode.getReasonPhrase());
             }
-            return responseEntity.getBody();
+            success = true;
+            return result;
         } catch (HttpClientErrorException e) {
             log.error("execute remote service exceptions:「{}」", e.getMessage(), e);
             HttpStatus statusCode = e.getStatusCode();
+            httpStatus = statusCode.value();
+            responseBody = e.getResponseBodyAsString();
+            MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordStatus(httpStatus);
             if (statusCode.is4xxClientError()) {
-                throw new Http4xxException(e.getMessage());
+                throw new Http4xxException(httpStatus, e.getMessage());
             }
             throw e;
+        } catch (HttpServerErrorException e) {
+            httpStatus = e.getRawStatusCode();
+            responseBody = e.getResponseBodyAsString();
+            MetricsRegistry.getInstance().methodMetrics(methodContext.getMethodKey()).recordStatus(httpStatus);
+            throw e;
         } finally {
-            stopWatch.stop();
-            traceLogBean.setCost(stopWatch.getLastTaskTimeMillis() + "");
-            TraceLogPrinter.printTraceInfo(traceLogBean);
+            long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            publishTraceLog(methodContext, paramContext, httpStatus, responseBody, cost, success);
         }
     }
 
 
     /**
-     * 填充trace_log bean
+     * 发布 trace_log
+     * <p>
+     * 按采样率采样，失败的调用始终输出；参数和响应在请求线程渲染为限长字符串，输出在后台线程完成
      */
-    protected void fillTraceLogBean(TraceLogBean traceLogBean, ResponseEntity<?> responseEntity) {
-        Object responseBody = responseEntity.getBody();
-        // traceLog 日志打印
-        traceLogBean.setHttpStatus(responseEntity.getStatusCodeValue() + "");
-        try {
-            JSONObject entries = JSONUtil.parseObj(responseBody);
-            traceLogBean.setTpResponseCode(entries.getStr("code"));
-            traceLogBean.setResponse(entries.toJSONString(0));
-        } catch (Exception ignored) {
-            traceLogBean.setResponse(String.valueOf(responseBody));
-            traceLogBean.setTpResponseCode("-1");
+    protected void publishTraceLog(MethodContext methodContext, ParamContext paramContext,
+                                   int httpStatus, Object responseBody, long cost, boolean success) {
+        double sampleRate = serverContext.getTraceLogSampleRate();
+        if (success && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
         }
-    }
-
-
-    /**
-     * 日志追踪Bean
-     *
-     * @param serverContext 远程服务上下文信息
-     * @param methodContext 方法上下文
-     * @param paramContext  参数上下文
-     * @return traceLogBean
-     */
-    protected TraceLogBean generateTraceLogBean(ServerContext serverContext,
-                                                MethodContext methodContext, ParamContext paramContext) {
-        HttpMethod httpMethod = methodContext.getHttpMethod();
-        TraceLogBean traceLogBean = new TraceLogBean();
-        traceLogBean.setMethod(httpMethod.name());
-
-        TraceLogContext traceLogContext = TraceLogContextHolder.getTraceLogContext();
-        if (traceLogContext == null) {
-            traceLogContext = new TraceLogContext();
-        }
-        traceLogBean.setSn(traceLogContext.getSn());
-        traceLogBean.setTargetServerIp(serverContext.getBaseUrl());
-        traceLogBean.setTargetApi(URLUtil.getPath(URLUtil.normalize(methodContext.getFinalUrl())));
-        traceLogBean.setTargetServerName(serverContext.getTargetServerName());
-        traceLogBean.setUserId(traceLogContext.getUserId());
-        traceLogBean.setExtra(traceLogContext.getExtra());
-        traceLogBean.setParams(paramContext.getRequestParams().toString());
-        return traceLogBean;
+        String responseCode = httpStatus > 0 ? ResponseCodeExtractor.extract(responseBody) : null;
+        AsyncTraceLogWriter.getInstance().publish(TraceLogContextHolder.getTraceLogContext(),
+                methodContext.getHttpMethod().name(), serverContext.getBaseUrl(), serverContext.getTargetServerName(),
+                methodContext.getFinalUrl(), paramContext.getRequestParams(), httpStatus, responseCode, responseBody,
+                serverContext.getTraceLogMaxResponseLength(), cost);
     }
 
     /**
@@ -178,12 +364,11 @@ public class RestTemplateHandler implements RestHandler {
      * @return url
      */
     protected String buildFinalUrl(MethodContext methodContext, ParamContext paramContext) {
+        // 优先取参数中传递的baseUrl, 不修改共享的 serverContext
         String baseUrl = paramContext.getBaseUrl();
         if (StringUtils.isEmpty(baseUrl)) {
-            // 优先取参数中传递的baseUrl
-            serverContext.setBaseUrl(baseUrl);
+            baseUrl = serverContext.getBaseUrl();
         }
-        baseUrl = serverContext.getBaseUrl();
         if (StringUtils.isEmpty(baseUrl)) {
             throw new Http4xxException("baseUrl is empty");
         }
@@ -223,18 +408,263 @@ public class RestTemplateHandler implements RestHandler {
      */
     protected ResponseEntity<?> doInvokeRest(String finalUrl, HttpMethod httpMethod, HttpHeaders headers,
                                              MethodContext methodContext, ParamContext paramContext) {
+        BodyCodec codec = methodContext.getCodec();
+        if (codec != null && headers.getAccept().isEmpty()) {
+            // 优先使用编解码器的格式，服务端不支持时返回 json
+            headers.setAccept(Arrays.asList(codec.mediaType(), MediaType.APPLICATION_JSON));
+        }
+        if (methodContext.getResponseStream() != null || !paramContext.getFileParts().isEmpty()) {
+            return doInvokeStream(finalUrl, httpMethod, headers, methodContext, paramContext);
+        }
         MediaType contentType = headers.getContentType();
         HttpEntity<Object> httpEntity;
-        if (MediaType.APPLICATION_JSON.includes(contentType)) {
-            httpEntity = new HttpEntity<>(paramContext.getRequestBody(), headers);
+        if (codec != null && MediaType.APPLICATION_JSON.includes(contentType)) {
+            httpEntity = new HttpEntity<>(encodeRequestBody(codec, headers, paramContext), headers);
+        } else if (MediaType.APPLICATION_JSON.includes(contentType)) {
+            // 由 JsonBodyHttpMessageConverter 直接序列化参数
+            httpEntity = new HttpEntity<>(JsonBody.of(paramContext), headers);
         } else {
-            MultiValueMap<String, String> multiValueMap = convertMultiValueMap(paramContext.getRequestBody());
-            httpEntity = new HttpEntity<>(multiValueMap, headers);
+            // 由 FormUrlEncodedHttpMessageConverter 直接写出编码后的字节
+            httpEntity = new HttpEntity<>(new FormUrlEncodedBody(formFields(paramContext), methodContext.getFormKeys()), headers);
+        }
+        ObjectReader responseReader = methodContext.getResponseReader();
+        if (responseReader == null) {
+            return restTemplate.exchange(finalUrl, httpMethod, httpEntity, methodContext.getReturnType());
+        }
+        // 使用预先构建的解码器，泛型返回类型不再解码为 LinkedHashMap
+        JsonReaderResponseExtractor jsonExtractor = new JsonReaderResponseExtractor(responseReader);
+        return restTemplate.execute(finalUrl, httpMethod,
+                restTemplate.httpEntityCallback(httpEntity, methodContext.getGenericReturnType()),
+                codec == null ? jsonExtractor : new BodyCodecResponseExtractor(codec, methodContext.getGenericReturnType(), jsonExtractor));
+    }
+
+    /**
+     * 按编解码器编码 JSON_BODY 请求体，并替换 Content-Type
+     *
+     * @return 编码后的请求体
+     */
+    protected byte[] encodeRequestBody(BodyCodec codec, HttpHeaders headers, ParamContext paramContext) {
+        headers.setContentType(codec.mediaType());
+        try {
+            return codec.encode(codec.requestBody(paramContext));
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("Could not write " + codec.name() + ": " + e.getMessage(), e);
+        }
+    }
+
+
+    /**
+     * 执行流式请求或流式响应的http请求
+     * <p>
+     * 直接使用 okHttp 发出请求: 文件不经过 restTemplate 缓冲整个请求体，响应体不经过消息转换器整体解码;
+     * 非 2xx 响应与 restTemplate 一样抛出 HttpStatusCodeException
+     *
+     * @return 响应体为 InputStream、Stream、Iterator、Path、File，回调方式时为 null，非流式响应时为解码后的结果
+     */
+    protected ResponseEntity<?> doInvokeStream(String finalUrl, HttpMethod httpMethod, HttpHeaders headers,
+                                               MethodContext methodContext, ParamContext paramContext) {
+        Request.Builder request = new Request.Builder().url(finalUrl);
+        request.method(httpMethod.name(), streamRequestBody(httpMethod, headers, methodContext, paramContext));
+        headers.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        Response response;
+        try {
+            response = okHttpClient.newCall(request.build()).execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + httpMethod + " request for \"" + finalUrl + "\": " + e.getMessage(), e);
+        }
+        boolean handedOver = false;
+        try {
+            HttpStatus status = HttpStatus.resolve(response.code());
+            ResponseBody body = response.body();
+            if (status == null || status.isError()) {
+                byte[] errorBody = body == null ? new byte[0] : body.bytes();
+                HttpHeaders responseHeaders = new HttpHeaders();
+                response.headers().toMultimap().forEach(responseHeaders::addAll);
+                if (status == null) {
+                    throw new UnknownHttpStatusCodeException(response.code(), response.message(), responseHeaders, errorBody, null);
+                }
+                if (status.is4xxClientError()) {
+                    throw HttpClientErrorException.create(status, response.message(), responseHeaders, errorBody, null);
+                }
+                throw HttpServerErrorException.create(status, response.message(), responseHeaders, errorBody, null);
+            }
+            if (body == null || !status.is2xxSuccessful()) {
+                return new ResponseEntity<>(status);
+            }
+            ResponseStreamType responseStream = methodContext.getResponseStream();
+            Object result = responseStream == null ? readResponseBody(methodContext, body)
+                    : streamResponseBody(methodContext, paramContext, body);
+            handedOver = responseStream == ResponseStreamType.INPUT_STREAM
+                    || responseStream == ResponseStreamType.STREAM || responseStream == ResponseStreamType.ITERATOR;
+            return new ResponseEntity<>(result, status);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + httpMethod + " request for \"" + finalUrl + "\": " + e.getMessage(), e);
+        } finally {
+            if (!handedOver) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 按流式响应类型处理响应体，除回调方式外由调用方关闭
+     */
+    protected Object streamResponseBody(MethodContext methodContext, ParamContext paramContext, ResponseBody body) throws IOException {
+        if (methodContext.getResponseStream() == ResponseStreamType.INPUT_STREAM) {
+            return body.byteStream();
+        }
+        if (methodContext.getResponseStream() == ResponseStreamType.FILE) {
+            return downloadToFile(methodContext, paramContext, body);
+        }
+        JsonArrayIterator<Object> iterator = new JsonArrayIterator<>(methodContext.getResponseReader(), body.byteStream(), body);
+        switch (methodContext.getResponseStream()) {
+            case STREAM:
+                return iterator.stream();
+            case ITERATOR:
+                return iterator;
+            default:
+                Consumer<Object> consumer = paramContext.getResponseConsumer();
+                try {
+                    while (iterator.hasNext()) {
+                        consumer.accept(iterator.next());
+                    }
+                } finally {
+                    iterator.close();
+                }
+                return null;
+        }
+    }
+
+    /**
+     * 通过 FileChannel 将响应体写入文件，不经过堆内存中的完整副本
+     *
+     * @return 与方法返回类型一致的 Path 或 File
+     */
+    protected Object downloadToFile(MethodContext methodContext, ParamContext paramContext, ResponseBody body) throws IOException {
+        Object target = paramContext.getDownloadTarget();
+        Path path = target instanceof File ? ((File) target).toPath() : (Path) target;
+        if (path == null) {
+            path = Files.createTempFile("remote-", ".download");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedSource source = body.source();
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+        return methodContext.getReturnType() == File.class ? path.toFile() : path;
+    }
+
+    /**
+     * 解码非流式响应，与 restTemplate 的消息转换器对应: 字符串、字节数组原样返回，其他类型按 json 解码
+     */
+    protected Object readResponseBody(MethodContext methodContext, ResponseBody body) throws IOException {
+        Class<?> returnType = methodContext.getReturnType();
+        if (returnType == void.class || returnType == Void.class || body.contentLength() == 0) {
+            return null;
+        }
+        if (returnType == String.class) {
+            return body.string();
+        }
+        if (returnType == byte[].class) {
+            return body.bytes();
+        }
+        BodyCodec codec = methodContext.getCodec();
+        okhttp3.MediaType contentType = body.contentType();
+        if (codec != null && contentType != null && codec.mediaType().isCompatibleWith(MediaType.parseMediaType(contentType.toString()))) {
+            return codec.decode(body.byteStream(), methodContext.getGenericReturnType());
+        }
+        ObjectReader responseReader = methodContext.getResponseReader();
+        try (JsonParser parser = responseReader.getFactory().createParser(body.byteStream())) {
+            return parser.nextToken() == null ? null : responseReader.readValue(parser);
         }
-        log.info("restTemplate execute remote service calls {} ", httpEntity);
-        return restTemplate.exchange(finalUrl, httpMethod, httpEntity, methodContext.getReturnType());
     }
 
+    /**
+     * 流式请求的请求体，json 直接写入连接 (指定了编解码器时按编解码器编码)，包含文件时为 multipart
+     */
+    protected RequestBody streamRequestBody(HttpMethod httpMethod, HttpHeaders headers, MethodContext methodContext,
+                                            ParamContext paramContext) {
+        if (!paramContext.getFileParts().isEmpty()) {
+            return multipartRequestBody(paramContext);
+        }
+        if (!HttpMethod.POST.equals(httpMethod) && !HttpMethod.PUT.equals(httpMethod)
+                && !HttpMethod.PATCH.equals(httpMethod) && !HttpMethod.DELETE.equals(httpMethod)) {
+            return null;
+        }
+        MediaType contentType = headers.getContentType();
+        okhttp3.MediaType mediaType = contentType == null ? null : okhttp3.MediaType.parse(contentType.toString());
+        BodyCodec codec = methodContext.getCodec();
+        if (MediaType.APPLICATION_JSON.includes(contentType) && codec != null) {
+            byte[] encoded = encodeRequestBody(codec, headers, paramContext);
+            return RequestBody.create(encoded, okhttp3.MediaType.parse(codec.mediaType().toString()));
+        }
+        if (MediaType.APPLICATION_JSON.includes(contentType)) {
+            JsonBody jsonBody = JsonBody.of(paramContext);
+            return new RequestBody() {
+                @Override
+                public okhttp3.MediaType contentType() {
+                    return mediaType;
+                }
+
+                @Override
+                public void writeTo(@NotNull BufferedSink sink) throws IOException {
+                    JSON_BODY_CONVERTER.write(jsonBody, sink.outputStream());
+                }
+            };
+        }
+        FormUrlEncodedBody form = new FormUrlEncodedBody(formFields(paramContext), methodContext.getFormKeys());
+        return RequestBody.create(form.toByteArray(), FORM_URLENCODED);
+    }
+
+    /**
+     * multipart 请求体: FORM 参数作为文本字段，文件通过 okio / FileChannel 直接写入连接
+     */
+    protected RequestBody multipartRequestBody(ParamContext paramContext) {
+        MultipartBody.Builder multipart = new MultipartBody.Builder().setType(MultipartBody.FORM);
+        convertMultiValueMap(paramContext.getRequestBody())
+                .forEach((name, values) -> values.forEach(value -> multipart.addFormDataPart(name, value)));
+        paramContext.getFileParts().forEach((name, file) -> {
+            if (file == null) {
+                return;
+            }
+            if (file instanceof Path || file instanceof File) {
+                File localFile = file instanceof Path ? ((Path) file).toFile() : (File) file;
+                multipart.addFormDataPart(name, localFile.getName(), RequestBody.create(localFile, fileMediaType(localFile.getName())));
+            } else if (file instanceof FileChannel) {
+                multipart.addFormDataPart(name, name, new FileChannelRequestBody((FileChannel) file, fileMediaType(name)));
+            } else {
+                throw new IllegalArgumentException("ParamType.FILE must be Path, File or FileChannel : " + name);
+            }
+        });
+        return multipart.build();
+    }
+
+    private static okhttp3.MediaType fileMediaType(String filename) {
+        return okhttp3.MediaType.parse(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+    }
+
+    /**
+     * 表单字段，同时声明了 JSON_BODY 参数时按 FORM 参数的方式展开
+     */
+    protected Map<String, Object> formFields(ParamContext paramContext) {
+        if (paramContext.getJsonBody().isEmpty()) {
+            return paramContext.getRequestBody();
+        }
+        Map<String, Object> fields = new LinkedHashMap<>(paramContext.getRequestBody());
+        paramContext.getJsonBody().forEach((name, arg) -> {
+            Map<String, Object> beanToMap = BeanUtil.beanToMap(arg);
+            if (beanToMap.isEmpty()) {
+                beanToMap.put(name, arg);
+            }
+            fields.putAll(beanToMap);
+        });
+        return fields;
+    }
 
     /**
      * 针对form表单转换multiValueMap
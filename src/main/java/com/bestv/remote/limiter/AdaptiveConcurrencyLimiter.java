@@ -0,0 +1,160 @@
+package com.bestv.remote.limiter;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 RT 的自适应并发限制器 (Vegas 算法)
+ * <p>
+ * 最小 RT 作为无负载时的基线, 根据当前 RT 估算后端排队的请求数:
+ * queue = limit * (1 - minRtt / rtt)
+ * 排队数低于 alpha 时放大上限, 高于 beta 时收缩上限, 使 RT 维持在基线附近
+ * <p>
+ * 每隔一段采样次数重新探测基线, 避免后端扩容或网络变化后基线失真
+ *
+ * @author taojiacheng
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 重新探测 RT 基线的采样间隔
+     */
+    private static final int PROBE_INTERVAL = 1000;
+
+    /**
+     * 调用失败 (超时、连接异常) 时上限的收缩比例
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    @Getter
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    /**
+     * 在途请求数
+     */
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    /**
+     * 精确上限, 仅在 synchronized 中修改
+     */
+    private double estimatedLimit;
+
+    /**
+     * 当前生效的上限
+     */
+    private volatile int limit;
+
+    /**
+     * RT 基线 (纳秒), 仅在 synchronized 中修改
+     */
+    private long minRtt;
+
+    /**
+     * 距离下次探测基线的剩余采样数, 仅在 synchronized 中修改
+     */
+    private int probeCountdown = PROBE_INTERVAL;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("concurrency limit must satisfy 1 <= minConcurrency <= maxConcurrency");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 尝试占用一个并发名额，一次调用 (含重试) 占用一个名额，结束后调用 {@link #release()}
+     *
+     * @return false 超出上限
+     */
+    public boolean tryAcquire() {
+        for (; ; ) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放名额
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * 单次请求成功，根据 RT 调整上限
+     * <p>
+     * RT 按每次请求计算，不含重试间隔
+     *
+     * @param rttNanos 本次请求耗时 (纳秒)
+     */
+    public void onSuccess(long rttNanos) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        int currentInflight = inflight.get();
+        synchronized (this) {
+            if (--probeCountdown <= 0) {
+                probeCountdown = PROBE_INTERVAL;
+                minRtt = 0;
+            }
+            if (minRtt == 0 || rttNanos < minRtt) {
+                minRtt = rttNanos;
+                return;
+            }
+            // 在途请求远低于上限时，RT 不能反映上限是否合适，不调整
+            if (currentInflight * 2 < estimatedLimit) {
+                return;
+            }
+            double queueSize = Math.ceil(estimatedLimit * (1 - (double) minRtt / rttNanos));
+            double step = Math.max(1, Math.log10(estimatedLimit));
+            if (queueSize <= 3 * step) {
+                updateLimit(estimatedLimit + step);
+            } else if (queueSize >= 6 * step) {
+                updateLimit(estimatedLimit - step);
+            }
+        }
+    }
+
+    /**
+     * 单次请求超时、io 异常或 5xx，说明后端过载，收缩上限
+     * <p>
+     * 其他失败 (如 4xx、解码失败) 与后端负载无关，不参与上限计算
+     */
+    public void onDropped() {
+        synchronized (this) {
+            updateLimit(estimatedLimit * BACKOFF_RATIO);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private void updateLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{name=" + name + ", limit=" + limit + ", inflight=" + inflight.get() + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.bestv.remote.limiter;
+
+import com.bestv.remote.context.MethodContext;
+import com.bestv.remote.context.ServerContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个 @RemoteService 的自适应并发限制器集合
+ * <p>
+ * 服务级限制器由同服务的方法共享, 方法开启 adaptiveConcurrency 时单独维护限制器
+ *
+ * @author taojiacheng
+ */
+public class ConcurrencyLimiters {
+
+    private final ServerContext serverContext;
+
+    /**
+     * 服务级限制器，未开启时为 null
+     */
+    private final AdaptiveConcurrencyLimiter serviceLimiter;
+
+    /**
+     * 方法级限制器
+     */
+    private final Map<Method, AdaptiveConcurrencyLimiter> functionLimiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiters(ServerContext serverContext) {
+        this.serverContext = serverContext;
+        this.serviceLimiter = serverContext.isAdaptiveConcurrency() ? newLimiter(serverContext.getServiceName()) : null;
+    }
+
+    /**
+     * 获取方法对应的限制器
+     *
+     * @param method        方法
+     * @param methodContext 方法上下文
+     * @return 限制器，未开启时返回 null
+     */
+    public AdaptiveConcurrencyLimiter get(Method method, MethodContext methodContext) {
+        if (!methodContext.isAdaptiveConcurrency()) {
+            return serviceLimiter;
+        }
+        AdaptiveConcurrencyLimiter limiter = functionLimiters.get(method);
+        if (limiter != null) {
+            return limiter;
+        }
+        return functionLimiters.computeIfAbsent(method,
+                key -> newLimiter(serverContext.getServiceName() + "$" + key.getName()));
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String name) {
+        return new AdaptiveConcurrencyLimiter(name, serverContext.getInitialConcurrency(),
+                serverContext.getMinConcurrency(), serverContext.getMaxConcurrency());
+    }
+}
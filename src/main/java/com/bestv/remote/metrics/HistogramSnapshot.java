@@ -0,0 +1,88 @@
+package com.bestv.remote.metrics;
+
+/**
+ * 延迟直方图快照
+ * <p>
+ * 两个快照相减即可得到一段时间内的区间直方图
+ *
+ * @author taojiacheng
+ */
+public class HistogramSnapshot {
+
+    private final long[] counts;
+
+    private final long totalCount;
+
+    private final long totalMicros;
+
+    HistogramSnapshot(long[] counts, long totalMicros) {
+        this.counts = counts;
+        this.totalMicros = totalMicros;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    /**
+     * 与更早的快照相减，得到区间直方图
+     *
+     * @param previous 更早的快照，为 null 时返回自身
+     * @return 区间直方图
+     */
+    public HistogramSnapshot minus(HistogramSnapshot previous) {
+        if (previous == null) {
+            return this;
+        }
+        long[] delta = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - previous.counts[i];
+        }
+        return new HistogramSnapshot(delta, totalMicros - previous.totalMicros);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 分位数耗时
+     *
+     * @param percentile 分位 (0, 100]
+     * @return 耗时 (毫秒)
+     */
+    public double percentileMillis(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(totalCount * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(target, 1)) {
+                return LatencyHistogram.bucketUpperBound(i) / 1000.0;
+            }
+        }
+        return LatencyHistogram.bucketUpperBound(counts.length - 1) / 1000.0;
+    }
+
+    /**
+     * 最大耗时 (毫秒)，精度为所在桶的上界
+     */
+    public double maxMillis() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return LatencyHistogram.bucketUpperBound(i) / 1000.0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 平均耗时 (毫秒)
+     */
+    public double meanMillis() {
+        return totalCount == 0 ? 0 : totalMicros / 1000.0 / totalCount;
+    }
+}
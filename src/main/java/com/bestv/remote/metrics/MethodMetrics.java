@@ -0,0 +1,173 @@
+package com.bestv.remote.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个远程方法的调用指标
+ * <p>
+ * 计数使用 LongAdder 分段累加，高并发下记录开销低
+ *
+ * @author taojiacheng
+ */
+public class MethodMetrics {
+
+    /**
+     * 方法标识 类名$方法名
+     */
+    @Getter
+    private final String methodKey;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    private final LongAdder blocks = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    private final LongAdder http4xx = new LongAdder();
+
+    private final LongAdder http5xx = new LongAdder();
+
+    /**
+     * 远程调用耗时，不含缓存命中和熔断、舱壁、并发限制的拒绝
+     */
+    @Getter
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    MethodMetrics(String methodKey) {
+        this.methodKey = methodKey;
+    }
+
+    /**
+     * 记录一次远程调用
+     *
+     * @param nanos   耗时
+     * @param success 是否成功
+     */
+    public void recordCall(long nanos, boolean success) {
+        calls.increment();
+        if (!success) {
+            failures.increment();
+        }
+        latency.record(nanos);
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public void recordRetries(int retryTimes) {
+        retries.add(retryTimes);
+    }
+
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    public void recordBlock() {
+        blocks.increment();
+    }
+
+    /**
+     * 记录一次本地拒绝 (sentinel 限流熔断、熔断器打开、舱壁已满、超出并发上限)，被拒绝的调用不计入调用次数和耗时
+     */
+    public void recordRejection() {
+        rejections.increment();
+    }
+
+    /**
+     * 记录 http 响应码
+     *
+     * @param statusCode 响应码
+     */
+    public void recordStatus(int statusCode) {
+        if (statusCode >= 500) {
+            http5xx.increment();
+        } else if (statusCode >= 400) {
+            http4xx.increment();
+        }
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public long getBlocks() {
+        return blocks.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getHttp4xx() {
+        return http4xx.sum();
+    }
+
+    public long getHttp5xx() {
+        return http5xx.sum();
+    }
+
+    /**
+     * 生成指标快照
+     */
+    public MethodMetricsSnapshot snapshot() {
+        HistogramSnapshot histogram = latency.snapshot();
+        return MethodMetricsSnapshot.builder()
+                .methodKey(methodKey)
+                .timestamp(System.currentTimeMillis())
+                .calls(getCalls())
+                .failures(getFailures())
+                .cacheHits(getCacheHits())
+                .cacheMisses(getCacheMisses())
+                .retries(getRetries())
+                .fallbacks(getFallbacks())
+                .blocks(getBlocks())
+                .rejections(getRejections())
+                .http4xx(getHttp4xx())
+                .http5xx(getHttp5xx())
+                .latency(histogram)
+                .p50(histogram.percentileMillis(50))
+                .p90(histogram.percentileMillis(90))
+                .p99(histogram.percentileMillis(99))
+                .p999(histogram.percentileMillis(99.9))
+                .max(histogram.maxMillis())
+                .mean(histogram.meanMillis())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bestv.remote.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 方法指标快照
+ * <p>
+ * 计数均为累计值，两次快照的差值除以时间差即为 QPS 等速率指标
+ * 延迟为累计分位数 (毫秒)，区间分位数可通过 latency.minus(上一次快照的 latency) 计算
+ *
+ * @author taojiacheng
+ */
+@Getter
+@Builder
+@ToString(exclude = "latency")
+public class MethodMetricsSnapshot {
+
+    private final String methodKey;
+
+    /**
+     * 快照时间
+     */
+    private final long timestamp;
+
+    private final long calls;
+
+    private final long failures;
+
+    private final long cacheHits;
+
+    private final long cacheMisses;
+
+    private final long retries;
+
+    private final long fallbacks;
+
+    private final long blocks;
+
+    /**
+     * sentinel 限流熔断、熔断器打开、舱壁已满、超出并发上限的本地拒绝次数
+     */
+    private final long rejections;
+
+    private final long http4xx;
+
+    private final long http5xx;
+
+    private final HistogramSnapshot latency;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double p999;
+
+    private final double max;
+
+    private final double mean;
+
+    /**
+     * 缓存命中率
+     */
+    public double getCacheHitRatio() {
+        long lookups = cacheHits + cacheMisses;
+        return lookups == 0 ? 0 : (double) cacheHits / lookups;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bestv.remote.metrics;
+
+/**
+ * 指标导出 SPI
+ * <p>
+ * 注册到 {@link MetricsRegistry} 后，每个远程方法的指标创建时回调一次，
+ * 实现类可以将指标绑定到外部监控系统，如 {@link com.bestv.remote.metrics.micrometer.MicrometerMetricsExporter}
+ *
+ * @author taojiacheng
+ */
+public interface MetricsExporter {
+
+    /**
+     * 远程方法指标创建时回调
+     * 注册导出器时，已存在的方法指标也会回调
+     *
+     * @param methodMetrics 方法指标
+     */
+    void register(MethodMetrics methodMetrics);
+}
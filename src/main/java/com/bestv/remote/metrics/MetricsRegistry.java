@@ -0,0 +1,84 @@
+package com.bestv.remote.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 远程方法指标注册中心 单例
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class MetricsRegistry {
+
+    private final static MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    /**
+     * 未指定方法标识时使用
+     */
+    private final static String UNKNOWN_METHOD = "unknown";
+
+    private final Map<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取方法指标，不存在时创建
+     *
+     * @param methodKey 方法标识 类名$方法名
+     * @return 方法指标
+     */
+    public MethodMetrics methodMetrics(String methodKey) {
+        if (methodKey == null) {
+            methodKey = UNKNOWN_METHOD;
+        }
+        MethodMetrics metrics = methodMetrics.get(methodKey);
+        if (metrics != null) {
+            return metrics;
+        }
+        return methodMetrics.computeIfAbsent(methodKey, key -> {
+            MethodMetrics created = new MethodMetrics(key);
+            exporters.forEach(exporter -> export(exporter, created));
+            return created;
+        });
+    }
+
+    /**
+     * 注册指标导出器
+     *
+     * @param exporter 导出器
+     */
+    public void addExporter(MetricsExporter exporter) {
+        exporters.add(exporter);
+        methodMetrics.values().forEach(metrics -> export(exporter, metrics));
+    }
+
+    /**
+     * 所有方法的指标快照
+     */
+    public List<MethodMetricsSnapshot> snapshot() {
+        List<MethodMetricsSnapshot> snapshots = new ArrayList<>(methodMetrics.size());
+        methodMetrics.values().forEach(metrics -> snapshots.add(metrics.snapshot()));
+        return snapshots;
+    }
+
+    private void export(MetricsExporter exporter, MethodMetrics metrics) {
+        try {
+            exporter.register(metrics);
+        } catch (Exception e) {
+            log.error("Failed to export metrics {} to {}", metrics.getMethodKey(), exporter.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.bestv.remote.metrics.micrometer;
+
+import com.bestv.remote.cache.OffHeapCache;
+import com.bestv.remote.cache.OffHeapCacheStats;
+import com.bestv.remote.cache.OffHeapCaches;
+import com.bestv.remote.metrics.HistogramSnapshot;
+import com.bestv.remote.metrics.MethodMetrics;
+import com.bestv.remote.metrics.MetricsExporter;
+import com.bestv.remote.metrics.MetricsRegistry;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer 适配
+ * <p>
+ * 声明为 spring bean 即可由 spring boot 自动绑定到 MeterRegistry，可以绑定多个 MeterRegistry (如 prometheus + 复合注册中心)，
+ * 计数导出为 FunctionCounter，延迟分位数导出为上一个完整步长内的区间分位数，步长与 MeterRegistry 的发布周期对齐
+ *
+ * @author taojiacheng
+ */
+public class MicrometerMetricsExporter implements MeterBinder, MetricsExporter {
+
+    private static final String PREFIX = "remote.service.";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * 默认步长，与 micrometer 各注册中心默认的发布周期一致
+     */
+    private static final Duration DEFAULT_STEP = Duration.ofMinutes(1);
+
+    private final Clock clock;
+
+    private final long stepMillis;
+
+    private final List<MeterRegistry> meterRegistries = new ArrayList<>();
+
+    /**
+     * 已注册的方法指标及其区间延迟，绑定新的 MeterRegistry 时补充注册
+     */
+    private final Map<MethodMetrics, IntervalLatency> methodMetrics = new LinkedHashMap<>();
+
+    private final Set<OffHeapCache> offHeapCaches = new LinkedHashSet<>();
+
+    private boolean exporting;
+
+    public MicrometerMetricsExporter() {
+        this(DEFAULT_STEP);
+    }
+
+    /**
+     * @param step 区间分位数的步长，应与 MeterRegistry 的发布周期 (如 management.metrics.export.xxx.step) 一致
+     */
+    public MicrometerMetricsExporter(Duration step) {
+        this(step, Clock.SYSTEM);
+    }
+
+    public MicrometerMetricsExporter(Duration step, Clock clock) {
+        if (step.toMillis() <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        this.stepMillis = step.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void bindTo(@NonNull MeterRegistry registry) {
+        if (meterRegistries.contains(registry)) {
+            return;
+        }
+        meterRegistries.add(registry);
+        if (!exporting) {
+            // 首次绑定时注册导出器，已存在的指标和缓存会回调注册
+            exporting = true;
+            MetricsRegistry.getInstance().addExporter(this);
+            OffHeapCaches.addListener(this::register);
+            return;
+        }
+        methodMetrics.forEach((metrics, intervalLatency) -> register(registry, metrics, intervalLatency));
+        offHeapCaches.forEach(offHeapCache -> register(registry, offHeapCache));
+    }
+
+    @Override
+    public synchronized void register(MethodMetrics methodMetrics) {
+        if (this.methodMetrics.containsKey(methodMetrics)) {
+            return;
+        }
+        IntervalLatency intervalLatency = new IntervalLatency(methodMetrics, clock, stepMillis);
+        this.methodMetrics.put(methodMetrics, intervalLatency);
+        meterRegistries.forEach(registry -> register(registry, methodMetrics, intervalLatency));
+    }
+
+    private void register(MeterRegistry registry, MethodMetrics methodMetrics, IntervalLatency intervalLatency) {
+        Tags tags = Tags.of("method", methodMetrics.getMethodKey());
+        counter(registry, "calls", methodMetrics, MethodMetrics::getCalls, tags);
+        counter(registry, "failures", methodMetrics, MethodMetrics::getFailures, tags);
+        counter(registry, "cache.hits", methodMetrics, MethodMetrics::getCacheHits, tags);
+        counter(registry, "cache.misses", methodMetrics, MethodMetrics::getCacheMisses, tags);
+        counter(registry, "retries", methodMetrics, MethodMetrics::getRetries, tags);
+        counter(registry, "fallbacks", methodMetrics, MethodMetrics::getFallbacks, tags);
+        counter(registry, "blocks", methodMetrics, MethodMetrics::getBlocks, tags);
+        counter(registry, "rejections", methodMetrics, MethodMetrics::getRejections, tags);
+        counter(registry, "http.4xx", methodMetrics, MethodMetrics::getHttp4xx, tags);
+        counter(registry, "http.5xx", methodMetrics, MethodMetrics::getHttp5xx, tags);
+        for (double percentile : PERCENTILES) {
+            TimeGauge.builder(PREFIX + "latency", intervalLatency, TimeUnit.MILLISECONDS,
+                            latency -> latency.percentile(percentile))
+                    .tags(tags.and("percentile", String.valueOf(percentile)))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 堆外缓存的内存占用和命中统计
+     */
+    private synchronized void register(OffHeapCache offHeapCache) {
+        if (offHeapCaches.add(offHeapCache)) {
+            meterRegistries.forEach(registry -> register(registry, offHeapCache));
+        }
+    }
+
+    private void register(MeterRegistry registry, OffHeapCache offHeapCache) {
+        Tags tags = Tags.of("cache", offHeapCache.getName());
+        gauge(registry, "offheap.capacity.bytes", offHeapCache, OffHeapCacheStats::getCapacity, tags);
+        gauge(registry, "offheap.allocated.bytes", offHeapCache, OffHeapCacheStats::getAllocatedBytes, tags);
+        gauge(registry, "offheap.used.bytes", offHeapCache, OffHeapCacheStats::getUsedBytes, tags);
+        gauge(registry, "offheap.chunk.bytes", offHeapCache, OffHeapCacheStats::getChunkBytes, tags);
+        gauge(registry, "offheap.entries", offHeapCache, OffHeapCacheStats::getEntries, tags);
+        counter(registry, "offheap.hits", offHeapCache, OffHeapCacheStats::getHits, tags);
+        counter(registry, "offheap.misses", offHeapCache, OffHeapCacheStats::getMisses, tags);
+        counter(registry, "offheap.evictions", offHeapCache, OffHeapCacheStats::getEvictions, tags);
+        counter(registry, "offheap.expirations", offHeapCache, OffHeapCacheStats::getExpirations, tags);
+        counter(registry, "offheap.rejections", offHeapCache, OffHeapCacheStats::getRejections, tags);
+    }
+
+    private static void gauge(MeterRegistry registry, String name, OffHeapCache offHeapCache,
+                              ToDoubleFunction<OffHeapCacheStats> value, Tags tags) {
+        Gauge.builder(PREFIX + name, offHeapCache, cache -> value.applyAsDouble(cache.stats())).tags(tags).register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, OffHeapCache offHeapCache,
+                                ToDoubleFunction<OffHeapCacheStats> count, Tags tags) {
+        FunctionCounter.builder(PREFIX + name, offHeapCache, cache -> count.applyAsDouble(cache.stats())).tags(tags).register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, MethodMetrics methodMetrics,
+                                ToDoubleFunction<MethodMetrics> count, Tags tags) {
+        FunctionCounter.builder(PREFIX + name, methodMetrics, count).tags(tags).register(registry);
+    }
+
+    /**
+     * 区间延迟
+     * <p>
+     * 按步长划分时间窗口 (与 wall time 对齐)，窗口切换后首次采集时结算上一个窗口的区间直方图，
+     * 同一窗口内的所有采集返回相同的分位数，与采集频率、采集顺序无关; 跨过多个窗口没有采集时上一个窗口没有边界快照，返回 0
+     */
+    private static class IntervalLatency {
+
+        private final MethodMetrics methodMetrics;
+
+        private final Clock clock;
+
+        private final long stepMillis;
+
+        /**
+         * 当前窗口的序号
+         */
+        private long step;
+
+        /**
+         * 当前窗口开始时的累计快照
+         */
+        private HistogramSnapshot stepStart;
+
+        /**
+         * 上一个完整窗口的区间直方图
+         */
+        private HistogramSnapshot interval;
+
+        private IntervalLatency(MethodMetrics methodMetrics, Clock clock, long stepMillis) {
+            this.methodMetrics = methodMetrics;
+            this.clock = clock;
+            this.stepMillis = stepMillis;
+            this.step = clock.wallTime() / stepMillis;
+            this.stepStart = methodMetrics.getLatency().snapshot();
+            this.interval = stepStart.minus(stepStart);
+        }
+
+        private synchronized double percentile(double percentile) {
+            long now = clock.wallTime() / stepMillis;
+            if (now > step) {
+                HistogramSnapshot current = methodMetrics.getLatency().snapshot();
+                interval = now == step + 1 ? current.minus(stepStart) : current.minus(current);
+                stepStart = current;
+                step = now;
+            }
+            return interval.percentileMillis(percentile);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bestv.remote.refresh;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 远程服务配置刷新事件
+ * <p>
+ * 配置中心推送变更后发布该事件，所有远程服务重新解析 ${} 占位符;
+ * 使用 spring cloud 时 EnvironmentChangeEvent 会自动触发刷新，无需发布
+ *
+ * @author taojiacheng
+ */
+public class RemoteServiceRefreshEvent extends ApplicationEvent {
+
+    public RemoteServiceRefreshEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bestv.remote.refresh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 远程服务配置刷新
+ * <p>
+ * 代理创建时登记刷新任务，收到 {@link RemoteServiceRefreshEvent} 或 spring cloud 的 EnvironmentChangeEvent 后
+ * 依次执行: 重新解析各服务的配置快照，有变化时整体替换
+ * <p>
+ * 刷新任务属于创建代理的上下文 (由 {@link com.bestv.remote.configuration.RemoteServiceFactoryBean} 在创建期间绑定)，
+ * 按远程服务接口登记，服务名相同的接口互不覆盖; 上下文关闭后释放登记的运行时组件
+ * <p>
+ * 刷新失败 (例如配置项被删除) 时保留原快照，只记录日志
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class RemoteServiceRefresher implements ApplicationListener<ApplicationEvent>, ApplicationContextAware {
+
+    /**
+     * spring cloud 配置变更事件，不引入依赖，按类名识别
+     */
+    private final static String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+    /**
+     * 当前线程正在创建的远程服务所属上下文的刷新组件
+     */
+    private final static ThreadLocal<RemoteServiceRefresher> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 远程服务接口 -> 刷新任务
+     */
+    private final Map<Class<?>, RefreshTask> tasks = new ConcurrentHashMap<>();
+
+    private ApplicationContext applicationContext;
+
+    /**
+     * 绑定当前线程创建的远程服务所属的刷新组件
+     *
+     * @param refresher 刷新组件，为 null 时解除绑定
+     * @return 之前绑定的刷新组件，创建结束后恢复
+     */
+    public static RemoteServiceRefresher bind(RemoteServiceRefresher refresher) {
+        RemoteServiceRefresher previous = CURRENT.get();
+        if (refresher == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(refresher);
+        }
+        return previous;
+    }
+
+    /**
+     * 登记刷新任务到当前线程绑定的刷新组件，不在 Spring 容器中创建的代理不刷新
+     *
+     * @param type        远程服务接口
+     * @param serviceName 远程服务名
+     * @param task        刷新任务
+     */
+    public static void register(Class<?> type, String serviceName, Runnable task) {
+        RemoteServiceRefresher refresher = CURRENT.get();
+        if (refresher == null) {
+            log.debug("event=remote.refresh service={} type={} not created in a spring context, skip", serviceName, type.getName());
+            return;
+        }
+        refresher.tasks.put(type, new RefreshTask(serviceName, task));
+    }
+
+    /**
+     * 刷新本上下文所有远程服务的配置
+     */
+    public void refreshAll() {
+        tasks.values().forEach(task -> {
+            try {
+                task.task.run();
+            } catch (RuntimeException e) {
+                log.warn("event=remote.refresh service={} failed, keep previous config : {}", task.serviceName, e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void setApplicationContext(@NotNull ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(@NotNull ApplicationEvent event) {
+        if (event instanceof RemoteServiceRefreshEvent || ENVIRONMENT_CHANGE_EVENT.equals(event.getClass().getName())) {
+            refreshAll();
+        } else if (event instanceof ContextClosedEvent
+                && ((ContextClosedEvent) event).getApplicationContext() == applicationContext) {
+            tasks.clear();
+        }
+    }
+
+    private static class RefreshTask {
+
+        private final String serviceName;
+
+        private final Runnable task;
+
+        private RefreshTask(String serviceName, Runnable task) {
+            this.serviceName = serviceName;
+            this.task = task;
+        }
+    }
+}
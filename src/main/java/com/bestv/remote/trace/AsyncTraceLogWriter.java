@@ -0,0 +1,178 @@
+package com.bestv.remote.trace;
+
+import cn.hutool.core.util.URLUtil;
+import com.bestv.remote.utils.PayloadRenderer;
+import com.bestv.trace.bean.TraceLogBean;
+import com.bestv.trace.log.TraceLogPrinter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步 trace_log 输出 单例
+ * <p>
+ * 请求线程将参数和响应渲染为限长字符串后写入预分配的环形缓冲区，由单个后台线程调用 TraceLogPrinter 输出;
+ * 槽位不持有调用方的参数和响应对象，调用方之后修改这些对象也不影响日志内容。
+ * 缓冲区已满时丢弃记录，不阻塞请求线程
+ * <p>
+ * 缓冲区大小通过系统属性 remote.trace.buffer-size 配置，默认 8192，取整为 2 的幂
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class AsyncTraceLogWriter {
+
+    private final static AsyncTraceLogWriter INSTANCE = new AsyncTraceLogWriter(
+            Integer.getInteger("remote.trace.buffer-size", 8192));
+
+    /**
+     * 后台线程无记录时的休眠时间
+     */
+    private final static long IDLE_PARK_NANOS = 1_000_000;
+
+    private final TraceRecord[] ring;
+
+    private final int mask;
+
+    /**
+     * 下一个可申请的序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个待消费的序号
+     */
+    private volatile long head;
+
+    /**
+     * 缓冲区已满被丢弃的记录数
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    private AsyncTraceLogWriter(int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        this.ring = new TraceRecord[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new TraceRecord();
+        }
+        Thread consumer = new Thread(this::consume, "remote-trace-log");
+        consumer.setDaemon(true);
+        consumer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "remote-trace-log-drain"));
+    }
+
+    public static AsyncTraceLogWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 发布一条 trace_log 记录
+     *
+     * @param traceLogContext   请求线程的链路上下文
+     * @param method            请求方法
+     * @param targetServerIp    目标服务地址
+     * @param targetServerName  目标服务名
+     * @param finalUrl          请求 url
+     * @param params            请求参数，在请求线程限长序列化
+     * @param httpStatus        http 状态码，未收到响应时为 0
+     * @param responseCode      响应中的 code
+     * @param response          响应对象，在请求线程序列化并截断
+     * @param maxResponseLength 参数、响应截断长度，小于 0 不截断
+     * @param costMillis        耗时
+     * @return false 缓冲区已满，记录被丢弃
+     */
+    public boolean publish(TraceLogContext traceLogContext, String method, String targetServerIp, String targetServerName,
+                           String finalUrl, Object params, int httpStatus, String responseCode, Object response,
+                           int maxResponseLength, long costMillis) {
+        if (tail.get() - head >= ring.length) {
+            dropped.increment();
+            return false;
+        }
+        // 在请求线程渲染，之后调用方修改参数、响应对象不影响日志，槽位也不持有大对象
+        String renderedParams = PayloadRenderer.render(params, maxResponseLength);
+        String renderedResponse = httpStatus > 0 ? PayloadRenderer.render(response, maxResponseLength) : null;
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= ring.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        TraceRecord record = ring[(int) (sequence & mask)];
+        record.method = method;
+        record.sn = traceLogContext == null ? "" : traceLogContext.getSn();
+        record.userId = traceLogContext == null ? "" : traceLogContext.getUserId();
+        record.extra = traceLogContext == null ? "" : traceLogContext.getExtra();
+        record.targetServerIp = targetServerIp;
+        record.targetServerName = targetServerName;
+        record.finalUrl = finalUrl;
+        record.params = renderedParams;
+        record.httpStatus = httpStatus;
+        record.responseCode = responseCode;
+        record.response = renderedResponse;
+        record.costMillis = costMillis;
+        record.sequence = sequence;
+        return true;
+    }
+
+    /**
+     * 缓冲区已满被丢弃的记录数
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void consume() {
+        for (; ; ) {
+            if (!consumeOne()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void drain() {
+        while (consumeOne()) {
+            // 输出剩余记录
+        }
+    }
+
+    private synchronized boolean consumeOne() {
+        long sequence = head;
+        TraceRecord record = ring[(int) (sequence & mask)];
+        if (record.sequence != sequence) {
+            return false;
+        }
+        try {
+            TraceLogPrinter.printTraceInfo(toTraceLogBean(record));
+        } catch (Throwable e) {
+            log.warn("Failed to print trace log : {}", e.getMessage());
+        } finally {
+            record.clear();
+            head = sequence + 1;
+        }
+        return true;
+    }
+
+    private TraceLogBean toTraceLogBean(TraceRecord record) {
+        TraceLogBean traceLogBean = new TraceLogBean();
+        traceLogBean.setMethod(record.method);
+        traceLogBean.setSn(record.sn);
+        traceLogBean.setUserId(record.userId);
+        traceLogBean.setExtra(record.extra);
+        traceLogBean.setTargetServerIp(record.targetServerIp);
+        traceLogBean.setTargetServerName(record.targetServerName);
+        traceLogBean.setTargetApi(record.finalUrl == null ? null : URLUtil.getPath(URLUtil.normalize(record.finalUrl)));
+        traceLogBean.setParams(record.params);
+        if (record.httpStatus > 0) {
+            traceLogBean.setHttpStatus(record.httpStatus + "");
+            traceLogBean.setTpResponseCode(record.responseCode);
+            traceLogBean.setResponse(record.response);
+        }
+        traceLogBean.setCost(record.costMillis + "");
+        return traceLogBean;
+    }
+}
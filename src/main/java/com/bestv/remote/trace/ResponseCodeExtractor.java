@@ -0,0 +1,96 @@
+package com.bestv.remote.trace;
+
+import com.bestv.remote.convert.JsonSerializer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 从已解码的响应对象中读取业务 code
+ * <p>
+ * 每个响应类型的访问方式只解析一次，不再重新序列化、解析整个响应
+ *
+ * @author taojiacheng
+ */
+public class ResponseCodeExtractor {
+
+    private static final String CODE = "code";
+
+    private static final String UNKNOWN_CODE = "-1";
+
+    private static final ClassValue<Function<Object, Object>> ACCESSORS = new ClassValue<Function<Object, Object>>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            return accessor(type);
+        }
+    };
+
+    private ResponseCodeExtractor() {
+    }
+
+    /**
+     * 读取响应中的 code
+     *
+     * @param response 响应对象
+     * @return code, 无法读取时为 -1
+     */
+    public static String extract(Object response) {
+        if (response == null) {
+            return UNKNOWN_CODE;
+        }
+        try {
+            Object code = ACCESSORS.get(response.getClass()).apply(response);
+            return code == null ? UNKNOWN_CODE : String.valueOf(code);
+        } catch (Exception e) {
+            return UNKNOWN_CODE;
+        }
+    }
+
+    private static Function<Object, Object> accessor(Class<?> type) {
+        if (Map.class.isAssignableFrom(type)) {
+            return response -> ((Map<?, ?>) response).get(CODE);
+        }
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return ResponseCodeExtractor::scanJsonCode;
+        }
+        Method getter = ReflectionUtils.findMethod(type, "getCode");
+        if (getter != null) {
+            ReflectionUtils.makeAccessible(getter);
+            return response -> ReflectionUtils.invokeMethod(getter, response);
+        }
+        Field field = ReflectionUtils.findField(type, CODE);
+        if (field != null) {
+            ReflectionUtils.makeAccessible(field);
+            return response -> ReflectionUtils.getField(field, response);
+        }
+        return response -> null;
+    }
+
+    /**
+     * 字符串响应只扫描顶层字段，读到 code 立即返回
+     */
+    private static Object scanJsonCode(Object response) {
+        String text = response.toString();
+        if (!text.startsWith("{")) {
+            return null;
+        }
+        try (JsonParser parser = JsonSerializer.getInstance().getFactory().createParser(text)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (CODE.equals(name) && value.isScalarValue()) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+}
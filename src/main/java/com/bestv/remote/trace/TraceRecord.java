@@ -0,0 +1,50 @@
+package com.bestv.remote.trace;
+
+/**
+ * 环形缓冲区中的 trace_log 记录槽位
+ * <p>
+ * 槽位预先分配并循环复用，请求线程只写入已渲染的限长字符串和基本类型，
+ * 不持有调用方的参数和响应对象
+ *
+ * @author taojiacheng
+ */
+class TraceRecord {
+
+    /**
+     * 已发布的序号，消费者据此判断槽位是否可读
+     */
+    volatile long sequence = -1;
+
+    String method;
+
+    String sn;
+
+    String userId;
+
+    String extra;
+
+    String targetServerIp;
+
+    String targetServerName;
+
+    String finalUrl;
+
+    String params;
+
+    int httpStatus;
+
+    String responseCode;
+
+    String response;
+
+    long costMillis;
+
+    /**
+     * 释放引用
+     */
+    void clear() {
+        params = null;
+        response = null;
+        finalUrl = null;
+    }
+}
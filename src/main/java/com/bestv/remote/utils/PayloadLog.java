@@ -0,0 +1,61 @@
+package com.bestv.remote.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 调用链路上的请求、响应内容日志
+ * <p>
+ * 内容按方法采样，并在日志级别开启且实际输出时才渲染，渲染结果限长
+ *
+ * @author taojiacheng
+ */
+public final class PayloadLog {
+
+    /**
+     * 每个方法的调用计数，用于按方法采样
+     */
+    private static final Map<String, AtomicLong> METHOD_COUNTERS = new ConcurrentHashMap<>();
+
+    private PayloadLog() {
+    }
+
+    /**
+     * 按方法采样，每 1/sampleRate 次调用输出一次
+     *
+     * @param methodKey  方法标识
+     * @param sampleRate 采样率 [0, 1]
+     * @return 本次调用是否输出内容日志
+     */
+    public static boolean sample(String methodKey, double sampleRate) {
+        if (sampleRate >= 1) {
+            return true;
+        }
+        if (sampleRate <= 0 || methodKey == null) {
+            return false;
+        }
+        AtomicLong counter = METHOD_COUNTERS.get(methodKey);
+        if (counter == null) {
+            counter = METHOD_COUNTERS.computeIfAbsent(methodKey, key -> new AtomicLong());
+        }
+        long interval = Math.round(1 / sampleRate);
+        return counter.getAndIncrement() % interval == 0;
+    }
+
+    /**
+     * 延迟渲染的日志参数，toString 时才序列化
+     *
+     * @param payload   内容
+     * @param maxLength 最大长度
+     * @return 日志参数
+     */
+    public static Object lazy(Object payload, int maxLength) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return PayloadRenderer.render(payload, maxLength);
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.bestv.remote.utils;
+
+import com.bestv.remote.convert.JsonSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 请求、响应内容的限长渲染
+ * <p>
+ * 以 json 序列化，达到长度上限后立即中断序列化，不会遍历整个对象
+ *
+ * @author taojiacheng
+ */
+public final class PayloadRenderer {
+
+    private static final String TRUNCATED = "...";
+
+    private PayloadRenderer() {
+    }
+
+    /**
+     * 渲染对象
+     *
+     * @param payload   对象
+     * @param maxLength 最大长度，小于 0 不截断
+     * @return 渲染结果
+     */
+    public static String render(Object payload, int maxLength) {
+        if (payload instanceof CharSequence) {
+            CharSequence text = (CharSequence) payload;
+            return maxLength >= 0 && text.length() > maxLength ? text.subSequence(0, maxLength) + TRUNCATED : text.toString();
+        }
+        LimitedWriter writer = new LimitedWriter(maxLength);
+        try {
+            JsonSerializer.getInstance().writeValue(writer, payload);
+        } catch (IOException e) {
+            if (!writer.truncated) {
+                // 无法序列化的对象 (如文件句柄) 退回 toString，同样截断
+                return render(String.valueOf(payload), maxLength);
+            }
+        }
+        return writer.truncated ? writer.builder.append(TRUNCATED).toString() : writer.builder.toString();
+    }
+
+    /**
+     * 达到长度上限后抛出异常中断序列化
+     */
+    private static class LimitedWriter extends Writer {
+
+        private final StringBuilder builder = new StringBuilder();
+
+        private final int maxLength;
+
+        private boolean truncated;
+
+        private LimitedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) throws IOException {
+            if (maxLength >= 0 && builder.length() + len > maxLength) {
+                builder.append(chars, off, maxLength - builder.length());
+                truncated = true;
+                throw new IOException("payload truncated");
+            }
+            builder.append(chars, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
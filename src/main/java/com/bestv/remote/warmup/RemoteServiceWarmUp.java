@@ -0,0 +1,120 @@
+package com.bestv.remote.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 远程服务预热
+ * <p>
+ * 代理创建时登记预热任务，所在 Spring 上下文刷新完成后在事件线程中依次执行，
+ * 执行完成前应用不会进入就绪状态；上下文刷新之后才创建的代理 (懒加载) 登记时直接执行
+ * <p>
+ * 预热任务属于创建代理的上下文 (由 {@link com.bestv.remote.configuration.RemoteServiceFactoryBean} 在创建期间绑定)，
+ * 父子上下文、测试中的多个上下文互不影响; 不在 Spring 容器中创建的代理登记时直接执行
+ * <p>
+ * 预热失败只记录日志，不影响启动
+ *
+ * @author taojiacheng
+ */
+@Slf4j
+public class RemoteServiceWarmUp implements ApplicationListener<ApplicationEvent>, ApplicationContextAware {
+
+    /**
+     * 当前线程正在创建的远程服务所属上下文的预热组件
+     */
+    private final static ThreadLocal<RemoteServiceWarmUp> CURRENT = new ThreadLocal<>();
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean refreshed;
+
+    private ApplicationContext applicationContext;
+
+    /**
+     * 绑定当前线程创建的远程服务所属的预热组件
+     *
+     * @param warmUp 预热组件，为 null 时解除绑定
+     * @return 之前绑定的预热组件，创建结束后恢复
+     */
+    public static RemoteServiceWarmUp bind(RemoteServiceWarmUp warmUp) {
+        RemoteServiceWarmUp previous = CURRENT.get();
+        if (warmUp == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(warmUp);
+        }
+        return previous;
+    }
+
+    /**
+     * 登记预热任务到当前线程绑定的预热组件
+     *
+     * @param serviceName 远程服务名
+     * @param task        预热任务
+     */
+    public static void register(String serviceName, Runnable task) {
+        RemoteServiceWarmUp warmUp = CURRENT.get();
+        if (warmUp == null) {
+            run(serviceName, task);
+            return;
+        }
+        warmUp.add(serviceName, task);
+    }
+
+    @Override
+    public void setApplicationContext(@NotNull ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(@NotNull ApplicationEvent event) {
+        // 子上下文的事件会传播到父上下文，只处理本上下文的事件
+        if (event instanceof ContextRefreshedEvent
+                && ((ContextRefreshedEvent) event).getApplicationContext() == applicationContext) {
+            refreshed = true;
+            drain();
+        } else if (event instanceof ContextClosedEvent
+                && ((ContextClosedEvent) event).getApplicationContext() == applicationContext) {
+            pending.clear();
+        }
+    }
+
+    private void add(String serviceName, Runnable task) {
+        Runnable named = () -> run(serviceName, task);
+        if (refreshed) {
+            named.run();
+            return;
+        }
+        pending.add(named);
+        // 登记与上下文刷新并发时，由登记线程补充执行
+        if (refreshed) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        Runnable task;
+        while ((task = pending.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static void run(String serviceName, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+            log.info("event=remote.warmup service={} cost={}ms", serviceName, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("event=remote.warmup service={} failed : {}", serviceName, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bestv.remote.breaker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 熔断器状态机
+ *
+ * @author taojiacheng
+ */
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 200;
+
+    private static CircuitBreaker breaker(int halfOpenCalls) {
+        return new CircuitBreaker("test", 50, 100, 10_000, 1, 10_000, OPEN_MILLIS, halfOpenCalls);
+    }
+
+    private static void open(CircuitBreaker breaker) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onError(0);
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void rejectedCallsDoNotConsumeHalfOpenPermits() throws InterruptedException {
+        CircuitBreaker breaker = breaker(1);
+        open(breaker);
+        Thread.sleep(OPEN_MILLIS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        for (int i = 0; i < 10; i++) {
+            assertFalse(breaker.tryAcquire());
+        }
+        // 探测请求被舱壁拒绝，归还的名额可以再次放行
+        breaker.onIgnore();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(0);
+
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoredCallsDoNotExceedHalfOpenCalls() throws InterruptedException {
+        CircuitBreaker breaker = breaker(2);
+        open(breaker);
+        Thread.sleep(OPEN_MILLIS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnore();
+        breaker.onIgnore();
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopens() throws InterruptedException {
+        CircuitBreaker breaker = breaker(2);
+        open(breaker);
+        Thread.sleep(OPEN_MILLIS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onError(0);
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(OPEN_MILLIS + 50);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(0);
+        breaker.onSuccess(0);
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    void lateFailuresDoNotExtendOpenDuration() throws InterruptedException {
+        CircuitBreaker breaker = breaker(1);
+        open(breaker);
+        Thread.sleep(OPEN_MILLIS / 2 + 20);
+        // 熔断前放行的请求在熔断后才返回失败
+        breaker.onError(0);
+        Thread.sleep(OPEN_MILLIS / 2 + 20);
+
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,65 @@
+package com.bestv.remote.exceptions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 命中负缓存时抛出的异常
+ *
+ * @author taojiacheng
+ */
+class NegativeCacheHitExceptionTest {
+
+    @Test
+    void rebuildsHttp4xxException() {
+        Http4xxException cached = new Http4xxException(404, "not found");
+        RuntimeException e = NegativeCacheHitException.of("test", cached);
+
+        assertEquals(Http4xxException.class, e.getClass());
+        assertNotSame(cached, e);
+        assertEquals(404, ((Http4xxException) e).getStatusCode());
+        assertEquals("not found", e.getMessage());
+        assertSame(cached, e.getCause());
+    }
+
+    @Test
+    void rebuildsRestClientResponseException() {
+        byte[] body = "{\"code\":1}".getBytes(StandardCharsets.UTF_8);
+        HttpClientErrorException cached = HttpClientErrorException.create("409 Conflict", HttpStatus.CONFLICT, "Conflict",
+                HttpHeaders.EMPTY, body, StandardCharsets.UTF_8);
+        RuntimeException e = NegativeCacheHitException.of("test", cached);
+
+        assertEquals(cached.getClass(), e.getClass());
+        assertEquals(409, ((HttpClientErrorException) e).getRawStatusCode());
+        assertArrayEquals(body, ((HttpClientErrorException) e).getResponseBodyAsByteArray());
+        assertSame(cached, e.getCause());
+    }
+
+    @Test
+    void rebuildsResourceAccessException() {
+        ResourceAccessException cached = new ResourceAccessException("connect timed out");
+        RuntimeException e = NegativeCacheHitException.of("test", cached);
+
+        assertEquals(ResourceAccessException.class, e.getClass());
+        assertSame(cached, e.getCause());
+    }
+
+    @Test
+    void wrapsOtherTypes() {
+        IllegalStateException cached = new IllegalStateException("boom");
+        RuntimeException e = NegativeCacheHitException.of("test", cached);
+
+        assertEquals(NegativeCacheHitException.class, e.getClass());
+        assertSame(cached, NegativeCacheHitException.unwrap(e));
+    }
+}